@@ -0,0 +1,56 @@
+package com.example.demo.config.jpa;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Entities that moved from IDENTITY to the pooled "id_generators" table keep
+ * their existing AUTO_INCREMENT rows. Before the first insert, raise each
+ * generator above the current MAX(id) so new ids never collide with old ones.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IdGeneratorInitializer {
+    // must match allocationSize on the @TableGenerator mappings
+    private static final int ALLOCATION_SIZE = 50;
+
+    // generator row (pkColumnValue) -> table whose ids it hands out
+    private static final Map<String, String> GENERATED_TABLES = Map.of(
+            "assets", "assets",
+            "asset_history", "asset_history",
+            "notifications", "notifications");
+
+    private final JdbcTemplate jdbcTemplate;
+    // injected only so the schema is created/updated before this runs
+    private final EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void alignGenerators() {
+        GENERATED_TABLES.forEach(this::alignGenerator);
+    }
+
+    private void alignGenerator(String generator, String table) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+        long floor = maxId + ALLOCATION_SIZE;
+
+        List<Long> current = jdbcTemplate.queryForList(
+                "SELECT next_val FROM id_generators WHERE sequence_name = ?", Long.class, generator);
+        if (current.isEmpty()) {
+            jdbcTemplate.update("INSERT INTO id_generators (sequence_name, next_val) VALUES (?, ?)", generator, floor);
+            log.info("Seeded id generator {} at {}", generator, floor);
+        } else if (current.get(0) < floor) {
+            jdbcTemplate.update("UPDATE id_generators SET next_val = ? WHERE sequence_name = ? AND next_val < ?",
+                    floor, generator, floor);
+            log.info("Raised id generator {} from {} to {}", generator, current.get(0), floor);
+        }
+    }
+}
@@ -51,8 +51,9 @@ public class WebSecurityConfig implements WebMvcConfigurer {
         CorsConfiguration configuration = new CorsConfiguration();
         // configuration.setAllowedOrigins(List.of("https://example.com", "https://localhost:8080")); // Allowed origins
         configuration.setAllowedOriginPatterns(List.of("*")); // Allow all origins
-        configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS")); // HTTP methods
-        configuration.setAllowedHeaders(List.of("Authorization", "Content-Type")); // Allowed headers
+        configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS")); // HTTP methods
+        configuration.setAllowedHeaders(List.of("Authorization", "Content-Type", "If-None-Match")); // Allowed headers
+        configuration.setExposedHeaders(List.of("ETag")); // Let clients read ETags for conditional GETs
         configuration.setAllowCredentials(true); // Allow credentials (cookies, Authorization headers, etc.)
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
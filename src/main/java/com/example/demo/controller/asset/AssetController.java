@@ -1,28 +1,68 @@
 package com.example.demo.controller.asset;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
 import org.apache.catalina.connector.Response;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.validation.BindingResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.example.demo.dto.CursorPage;
 import com.example.demo.dto.ResponseObject;
 import com.example.demo.dto.asset.AssetAssignRequest;
+import com.example.demo.dto.asset.AssetBatchAssignRequest;
+import com.example.demo.dto.asset.AssetBatchItemResult;
+import com.example.demo.dto.asset.AssetBatchRevokeRequest;
+import com.example.demo.dto.asset.AssetFilter;
 import com.example.demo.dto.asset.EvaluateRequest;
+import com.example.demo.dto.asset.AssetHistoryFilter;
 import com.example.demo.dto.asset.AssetHistoryResponse;
+import com.example.demo.dto.asset.AssetImportResponse;
+import com.example.demo.dto.asset.AssetPatchRequest;
 import com.example.demo.dto.asset.AssetRequest;
 import com.example.demo.dto.asset.AssetResponse;
+import com.example.demo.dto.asset.AssetSearchResult;
 import com.example.demo.entity.AssetHistory;
+import com.example.demo.enums.AssetCondition;
+import com.example.demo.enums.AssetHistoryAction;
+import com.example.demo.enums.AssetStatus;
+import com.example.demo.enums.ExportFormat;
+import com.example.demo.enums.UtilizationGroup;
+import com.example.demo.enums.ValuationGroup;
+import com.example.demo.service.AssetExportService;
+import com.example.demo.service.AssetImportService;
 import com.example.demo.service.AssetService;
+import com.example.demo.service.cache.AssetDetailCache;
+import com.example.demo.service.depreciation.DepreciationEngine;
+import com.example.demo.service.etag.AggregateVersions;
+import com.example.demo.service.etag.AggregateVersions.Aggregate;
+import com.example.demo.service.history.AssetChangeFeed;
+import com.example.demo.service.history.AssetHistoryWriter;
+import com.example.demo.service.search.AssetSearchIndex;
+import com.example.demo.service.utilization.AssetUtilization;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -32,6 +72,15 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class AssetController {
     private final AssetService assetService;
+    private final AssetExportService assetExportService;
+    private final AssetImportService assetImportService;
+    private final AssetSearchIndex assetSearchIndex;
+    private final AssetDetailCache assetDetailCache;
+    private final DepreciationEngine depreciationEngine;
+    private final AggregateVersions aggregateVersions;
+    private final AssetHistoryWriter assetHistoryWriter;
+    private final AssetUtilization assetUtilization;
+    private final AssetChangeFeed assetChangeFeed;
 
     @PostMapping()
     public ResponseEntity<ResponseObject> createAsset(@Valid @RequestBody AssetRequest assetRequest,
@@ -46,22 +95,158 @@ public class AssetController {
                 .build());
     }
 
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ResponseObject> importAssets(@RequestBody List<AssetRequest> assetRequests) {
+        AssetImportResponse result = assetImportService.importRows(assetRequests);
+        return ResponseEntity.ok(ResponseObject.builder()
+                .message(String.format("Imported %d of %d assets", result.getCreated(), result.getTotal()))
+                .data(result)
+                .build());
+    }
+
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<ResponseObject> importAssetsCsv(InputStream csv) throws IOException {
+        AssetImportResponse result = assetImportService.importCsv(csv);
+        return ResponseEntity.ok(ResponseObject.builder()
+                .message(String.format("Imported %d of %d assets", result.getCreated(), result.getTotal()))
+                .data(result)
+                .build());
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<ResponseObject> getAssetById(@PathVariable Long id) {
-        AssetResponse assetResponse = assetService.getById(id);
+    public ResponseEntity<ResponseObject> getAssetById(@PathVariable Long id, WebRequest webRequest) {
+        long version = assetService.getVersion(id);
+        if (webRequest.checkNotModified(aggregateVersions.etag(id, version, Aggregate.ASSIGNEES))) {
+            return null;
+        }
+        AssetResponse assetResponse = assetService.getById(id, version);
+        return ResponseEntity.ok(ResponseObject.builder()
+                .data(assetResponse)
+                .build());
+    }
+
+    @GetMapping("/code/{code}")
+    public ResponseEntity<ResponseObject> getAssetByCode(@PathVariable String code, WebRequest webRequest) {
+        Long id = assetService.getIdByCode(code);
+        long version = assetService.getVersion(id);
+        if (webRequest.checkNotModified(aggregateVersions.etag(id, version, Aggregate.ASSIGNEES))) {
+            return null;
+        }
+        AssetResponse assetResponse = assetService.getById(id, version);
         return ResponseEntity.ok(ResponseObject.builder()
                 .data(assetResponse)
                 .build());
     }
 
+    @GetMapping("/stats")
+    public ResponseEntity<ResponseObject> getAssetStats() {
+        return ResponseEntity.ok(ResponseObject.builder()
+                .data(assetService.getStats())
+                .build());
+    }
+
+    @GetMapping("/{id}/book-value")
+    public ResponseEntity<ResponseObject> getBookValue(@PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+        return ResponseEntity.ok(ResponseObject.builder()
+                .data(depreciationEngine.getBookValue(id, asOf))
+                .build());
+    }
+
+    @GetMapping("/valuation")
+    public ResponseEntity<ResponseObject> getValuation(
+            @RequestParam(defaultValue = "TYPE") ValuationGroup groupBy,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+        return ResponseEntity.ok(ResponseObject.builder()
+                .data(depreciationEngine.getRollup(groupBy, asOf))
+                .build());
+    }
+
+    @GetMapping("/{id}/utilization")
+    public ResponseEntity<ResponseObject> getUtilization(@PathVariable Long id) {
+        return ResponseEntity.ok(ResponseObject.builder()
+                .data(assetUtilization.getAssetUtilization(id))
+                .build());
+    }
+
+    @GetMapping("/utilization")
+    public ResponseEntity<ResponseObject> getUtilizationRollup(
+            @RequestParam(defaultValue = "TYPE") UtilizationGroup groupBy) {
+        return ResponseEntity.ok(ResponseObject.builder()
+                .data(assetUtilization.getRollup(groupBy))
+                .build());
+    }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<ResponseObject> getCacheStats() {
+        return ResponseEntity.ok(ResponseObject.builder()
+                .data(assetDetailCache.stats())
+                .build());
+    }
+
     @GetMapping()
-    public ResponseEntity<ResponseObject> getAllAssets() {
-        List<AssetResponse> assets = assetService.getAll();
+    public ResponseEntity<ResponseObject> getAllAssets(
+            @RequestParam(required = false) AssetStatus status,
+            @RequestParam(required = false) AssetCondition condition,
+            @RequestParam(required = false) Long typeId,
+            @RequestParam(required = false) Long assignedTo,
+            @RequestParam(required = false) Long departmentId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            WebRequest webRequest) {
+        if (webRequest.checkNotModified(aggregateVersions.etag(Aggregate.ASSETS))) {
+            return null;
+        }
+        AssetFilter filter = AssetFilter.builder()
+                .status(status)
+                .condition(condition)
+                .typeId(typeId)
+                .assignedTo(assignedTo)
+                .departmentId(departmentId)
+                .build();
+        CursorPage<AssetResponse> assets = assetService.getPage(filter, cursor, size);
         return ResponseEntity.ok(ResponseObject.builder()
                 .data(assets)
                 .build());
     }
 
+    @GetMapping("/search")
+    public ResponseEntity<ResponseObject> searchAssets(@RequestParam("q") String query,
+            @RequestParam(required = false) Integer limit) {
+        List<AssetSearchResult> results = assetSearchIndex.search(query, limit);
+        return ResponseEntity.ok(ResponseObject.builder()
+                .data(results)
+                .build());
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportAssets(
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        String extension = format == ExportFormat.CSV ? "csv" : "ndjson";
+        StreamingResponseBody body = outputStream -> {
+            if (gzip) {
+                // syncFlush so the first rows leave the server before the export finishes
+                try (GZIPOutputStream gzipStream = new GZIPOutputStream(outputStream, true)) {
+                    assetExportService.export(format, gzipStream);
+                }
+            } else {
+                assetExportService.export(format, outputStream);
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(format == ExportFormat.CSV
+                        ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                        : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("assets." + extension).build().toString());
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<ResponseObject> updateAsset(@PathVariable Long id,
             @Valid @RequestBody AssetRequest assetRequest,
@@ -76,6 +261,20 @@ public class AssetController {
                 .build());
     }
 
+    @PatchMapping("/{id}")
+    public ResponseEntity<ResponseObject> patchAsset(@PathVariable Long id,
+            @Valid @RequestBody AssetPatchRequest assetPatchRequest,
+            BindingResult bindingResult) {
+        if (bindingResult.hasErrors()) {
+            return buildValidationErrorResponse(bindingResult);
+        }
+
+        assetService.patch(id, assetPatchRequest);
+        return ResponseEntity.ok(ResponseObject.builder()
+                .message("Asset updated successfully")
+                .build());
+    }
+
     @PostMapping("/{id}/assign")
     public ResponseEntity<ResponseObject> assignAsset(@PathVariable("id") Long assetId,
             @Valid @RequestBody AssetAssignRequest request,
@@ -98,6 +297,34 @@ public class AssetController {
                 .build());
     }
 
+    @PostMapping("/assign:batch")
+    public ResponseEntity<ResponseObject> assignAssets(@Valid @RequestBody AssetBatchAssignRequest request,
+            BindingResult bindingResult) {
+        if (bindingResult.hasErrors()) {
+            return buildValidationErrorResponse(bindingResult);
+        }
+
+        List<AssetBatchItemResult> results = assetService.assignBatch(request.getItems());
+        return ResponseEntity.ok(ResponseObject.builder()
+                .message(batchMessage("assigned", results))
+                .data(results)
+                .build());
+    }
+
+    @PostMapping("/revoke:batch")
+    public ResponseEntity<ResponseObject> revokeAssets(@Valid @RequestBody AssetBatchRevokeRequest request,
+            BindingResult bindingResult) {
+        if (bindingResult.hasErrors()) {
+            return buildValidationErrorResponse(bindingResult);
+        }
+
+        List<AssetBatchItemResult> results = assetService.revokeBatch(request.getAssetIds());
+        return ResponseEntity.ok(ResponseObject.builder()
+                .message(batchMessage("revoked", results))
+                .data(results)
+                .build());
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<ResponseObject> deleteAsset(@PathVariable Long id) {
         assetService.delete(id);
@@ -106,6 +333,11 @@ public class AssetController {
                 .build());
     }
 
+    private String batchMessage(String action, List<AssetBatchItemResult> results) {
+        long succeeded = results.stream().filter(AssetBatchItemResult::isSuccess).count();
+        return String.format("%d of %d assets %s", succeeded, results.size(), action);
+    }
+
     private ResponseEntity<ResponseObject> buildValidationErrorResponse(BindingResult bindingResult) {
         List<String> errors = bindingResult.getFieldErrors().stream()
                 .map(error -> error.getField() + ": " + error.getDefaultMessage())
@@ -119,15 +351,77 @@ public class AssetController {
     }
 
     @GetMapping("/history")
-    public ResponseEntity<ResponseObject> getAllAssetHistory() {
-        List<AssetHistoryResponse> assetHistory = assetService.getAllAssetHistory();
+    public ResponseEntity<ResponseObject> getAssetHistory(
+            @RequestParam(required = false) AssetHistoryAction actionType,
+            @RequestParam(required = false) Long performedBy,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        AssetHistoryFilter filter = AssetHistoryFilter.builder()
+                .actionType(actionType)
+                .performedBy(performedBy)
+                .from(from)
+                .to(to)
+                .build();
+        CursorPage<AssetHistoryResponse> history = assetService.getHistoryPage(filter, cursor, size);
         return ResponseEntity.ok()
                 .body(ResponseObject.builder()
-                        .data(assetHistory)
+                        .data(history)
                         .message("Asset history fetched successfully")
                         .build());
     }
 
+    @GetMapping("/changes")
+    public CompletableFuture<ResponseEntity<ResponseObject>> getChanges(
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "30") int timeout) {
+        long waitMillis = Math.min(Math.max(timeout, 0), 60) * 1000L;
+        return assetChangeFeed.poll(after, limit, waitMillis)
+                .thenApply(changes -> ResponseEntity.ok(ResponseObject.builder()
+                        .data(changes)
+                        .build()));
+    }
+
+    @GetMapping("/history/writer")
+    public ResponseEntity<ResponseObject> getHistoryWriterStats() {
+        return ResponseEntity.ok(ResponseObject.builder()
+                .data(assetHistoryWriter.stats())
+                .build());
+    }
+
+    @GetMapping("/{id}/history")
+    public ResponseEntity<ResponseObject> getAssetTimeline(@PathVariable Long id,
+            @RequestParam(required = false) AssetHistoryAction actionType,
+            @RequestParam(required = false) Long performedBy,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        AssetHistoryFilter filter = AssetHistoryFilter.builder()
+                .assetId(id)
+                .actionType(actionType)
+                .performedBy(performedBy)
+                .from(from)
+                .to(to)
+                .build();
+        CursorPage<AssetHistoryResponse> history = assetService.getHistoryPage(filter, cursor, size);
+        return ResponseEntity.ok()
+                .body(ResponseObject.builder()
+                        .data(history)
+                        .message("Asset history fetched successfully")
+                        .build());
+    }
+
+    @GetMapping("/{id}/as-of")
+    public ResponseEntity<ResponseObject> getAssetStateAt(@PathVariable Long id,
+            @RequestParam("t") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant at) {
+        return ResponseEntity.ok(ResponseObject.builder()
+                .data(assetService.getStateAt(id, at))
+                .build());
+    }
+
     @PostMapping("/{id}/evaluate")
     public ResponseEntity<ResponseObject> evaluateAsset(@PathVariable("id") Long assetId,
             @RequestBody EvaluateRequest assetHistoryRequest) {
@@ -9,10 +9,13 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.example.demo.dto.ResponseObject;
 import com.example.demo.dto.assettype.AssetTypeRequest;
 import com.example.demo.service.AssetTypeService;
+import com.example.demo.service.etag.AggregateVersions;
+import com.example.demo.service.etag.AggregateVersions.Aggregate;
 
 import lombok.RequiredArgsConstructor;
 
@@ -22,6 +25,7 @@ import lombok.RequiredArgsConstructor;
 public class AssetTypeController {
 
     private final AssetTypeService assetTypeService;
+    private final AggregateVersions aggregateVersions;
 
     @PostMapping()
     public ResponseEntity<ResponseObject> createAssetType(@RequestBody AssetTypeRequest request) {
@@ -32,7 +36,10 @@ public class AssetTypeController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ResponseObject> getAssetTypeById(@PathVariable Long id) {
+    public ResponseEntity<ResponseObject> getAssetTypeById(@PathVariable Long id, WebRequest webRequest) {
+        if (webRequest.checkNotModified(aggregateVersions.etag(Aggregate.ASSET_TYPES))) {
+            return null;
+        }
         var assetType = assetTypeService.getById(id);
         if (assetType != null) {
             return ResponseEntity.ok(ResponseObject.builder()
@@ -47,7 +54,10 @@ public class AssetTypeController {
     }
 
     @GetMapping()
-    public ResponseEntity<ResponseObject> getAllAssetTypes() {
+    public ResponseEntity<ResponseObject> getAllAssetTypes(WebRequest webRequest) {
+        if (webRequest.checkNotModified(aggregateVersions.etag(Aggregate.ASSET_TYPES))) {
+            return null;
+        }
         var assetTypes = assetTypeService.getAll();
         return ResponseEntity.ok(ResponseObject.builder()
                 .message("Asset types retrieved successfully")
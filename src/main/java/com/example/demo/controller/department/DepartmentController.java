@@ -13,11 +13,14 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.example.demo.dto.ResponseObject;
 import com.example.demo.dto.department.DepartmentRequest;
 import com.example.demo.dto.department.DepartmentResponse;
 import com.example.demo.service.DepartmentService;
+import com.example.demo.service.etag.AggregateVersions;
+import com.example.demo.service.etag.AggregateVersions.Aggregate;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -28,6 +31,7 @@ import lombok.RequiredArgsConstructor;
 public class DepartmentController {
 
     private final DepartmentService departmentService;
+    private final AggregateVersions aggregateVersions;
 
     @PostMapping
     public ResponseEntity<ResponseObject> createDepartment(@Valid @RequestBody DepartmentRequest request,
@@ -43,7 +47,10 @@ public class DepartmentController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ResponseObject> getDepartmentById(@PathVariable Long id) {
+    public ResponseEntity<ResponseObject> getDepartmentById(@PathVariable Long id, WebRequest webRequest) {
+        if (webRequest.checkNotModified(aggregateVersions.etag(Aggregate.DEPARTMENTS))) {
+            return null;
+        }
         DepartmentResponse response = departmentService.getById(id);
         return ResponseEntity.ok(ResponseObject.builder()
                 .data(response)
@@ -51,7 +58,10 @@ public class DepartmentController {
     }
 
     @GetMapping
-    public ResponseEntity<ResponseObject> getAllDepartments() {
+    public ResponseEntity<ResponseObject> getAllDepartments(WebRequest webRequest) {
+        if (webRequest.checkNotModified(aggregateVersions.etag(Aggregate.DEPARTMENTS))) {
+            return null;
+        }
         List<DepartmentResponse> responses = departmentService.getAll();
         return ResponseEntity.ok(ResponseObject.builder()
                 .data(responses)
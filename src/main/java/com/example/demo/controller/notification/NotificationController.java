@@ -1,22 +1,36 @@
 package com.example.demo.controller.notification;
 
+import com.example.demo.dto.CursorPage;
 import com.example.demo.dto.ResponseObject;
+import com.example.demo.dto.notification.NotificationBulkResponse;
+import com.example.demo.dto.notification.NotificationIdsRequest;
 import com.example.demo.dto.notification.NotificationRequest;
 import com.example.demo.dto.notification.NotificationResponse;
+import com.example.demo.dto.notification.UnreadCountResponse;
 import com.example.demo.service.NotificationService;
+import com.example.demo.service.etag.AggregateVersions;
+import com.example.demo.service.etag.AggregateVersions.Aggregate;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -26,6 +40,7 @@ import java.util.stream.Collectors;
 public class NotificationController {
 
     private final NotificationService notificationService;
+    private final AggregateVersions aggregateVersions;
 
     @PostMapping
     public ResponseEntity<ResponseObject> createNotification(@Valid @RequestBody NotificationRequest request,
@@ -41,7 +56,10 @@ public class NotificationController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ResponseObject> getNotificationById(@PathVariable Long id) {
+    public ResponseEntity<ResponseObject> getNotificationById(@PathVariable Long id, WebRequest webRequest) {
+        if (webRequest.checkNotModified(aggregateVersions.etag(Aggregate.NOTIFICATIONS))) {
+            return null;
+        }
         NotificationResponse response = notificationService.getById(id);
         return ResponseEntity.ok(ResponseObject.builder()
                 .data(response)
@@ -49,7 +67,10 @@ public class NotificationController {
     }
 
     @GetMapping
-    public ResponseEntity<ResponseObject> getAllNotifications() {
+    public ResponseEntity<ResponseObject> getAllNotifications(WebRequest webRequest) {
+        if (webRequest.checkNotModified(aggregateVersions.etag(Aggregate.NOTIFICATIONS))) {
+            return null;
+        }
         List<NotificationResponse> responses = notificationService.getAll();
         return ResponseEntity.ok(ResponseObject.builder()
                 .data(responses)
@@ -57,7 +78,10 @@ public class NotificationController {
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<ResponseObject> getNotificationsByUserId(@PathVariable Long userId) {
+    public ResponseEntity<ResponseObject> getNotificationsByUserId(@PathVariable Long userId, WebRequest webRequest) {
+        if (webRequest.checkNotModified(aggregateVersions.etag(Aggregate.NOTIFICATIONS))) {
+            return null;
+        }
         List<NotificationResponse> responses = notificationService.getByUserId(userId);
         return ResponseEntity.ok(ResponseObject.builder()
                 .message("Get notifications by user id successful")
@@ -65,6 +89,90 @@ public class NotificationController {
                 .build());
     }
 
+    @GetMapping("/user/{userId}/inbox")
+    public ResponseEntity<ResponseObject> getInbox(@PathVariable Long userId,
+                                                   @RequestParam(defaultValue = "false") boolean unreadOnly,
+                                                   @RequestParam(required = false) String cursor,
+                                                   @RequestParam(required = false) Integer size,
+                                                   WebRequest webRequest) {
+        if (webRequest.checkNotModified(aggregateVersions.etag(Aggregate.NOTIFICATIONS))) {
+            return null;
+        }
+        CursorPage<NotificationResponse> inbox = notificationService.getInbox(userId, unreadOnly, cursor, size);
+        return ResponseEntity.ok(ResponseObject.builder()
+                .message("Get notification inbox successful")
+                .data(inbox)
+                .build());
+    }
+
+    @GetMapping(value = "/user/{userId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamNotifications(@PathVariable Long userId,
+                                          @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return notificationService.subscribe(userId, lastEventId);
+    }
+
+    @GetMapping("/user/{userId}/unread-count")
+    public ResponseEntity<ResponseObject> getUnreadCount(@PathVariable Long userId) {
+        return ResponseEntity.ok(ResponseObject.builder()
+                .data(UnreadCountResponse.builder()
+                        .userId(userId)
+                        .unread(notificationService.getUnreadCount(userId))
+                        .build())
+                .build());
+    }
+
+    @PatchMapping("/{id}/read")
+    public ResponseEntity<ResponseObject> markRead(@PathVariable Long id) {
+        notificationService.markRead(id);
+        return ResponseEntity.ok(ResponseObject.builder()
+                .message("Notification marked as read")
+                .build());
+    }
+
+    @PatchMapping("/user/{userId}/read-all")
+    public ResponseEntity<ResponseObject> markAllRead(@PathVariable Long userId) {
+        int marked = notificationService.markAllRead(userId);
+        return ResponseEntity.ok(ResponseObject.builder()
+                .message("Marked " + marked + " notifications as read")
+                .data(NotificationBulkResponse.builder().affected(marked).build())
+                .build());
+    }
+
+    @PatchMapping("/user/{userId}/read")
+    public ResponseEntity<ResponseObject> markReadByIds(@PathVariable Long userId,
+                                                        @Valid @RequestBody NotificationIdsRequest request,
+                                                        BindingResult bindingResult) {
+        if (bindingResult.hasErrors()) {
+            return buildValidationErrorResponse(bindingResult);
+        }
+
+        int marked = notificationService.markRead(userId, request.getIds());
+        return ResponseEntity.ok(ResponseObject.builder()
+                .message("Marked " + marked + " notifications as read")
+                .data(NotificationBulkResponse.builder().affected(marked).build())
+                .build());
+    }
+
+    @DeleteMapping("/user/{userId}")
+    public ResponseEntity<ResponseObject> deleteUserNotificationsBefore(@PathVariable Long userId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant before) {
+        int deleted = notificationService.deleteBefore(userId, before);
+        return ResponseEntity.ok(ResponseObject.builder()
+                .message("Deleted " + deleted + " notifications")
+                .data(NotificationBulkResponse.builder().affected(deleted).build())
+                .build());
+    }
+
+    @DeleteMapping
+    public ResponseEntity<ResponseObject> deleteNotificationsBefore(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant before) {
+        int deleted = notificationService.deleteBefore(null, before);
+        return ResponseEntity.ok(ResponseObject.builder()
+                .message("Deleted " + deleted + " notifications")
+                .data(NotificationBulkResponse.builder().affected(deleted).build())
+                .build());
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<ResponseObject> updateNotification(@PathVariable Long id,
                                                              @Valid @RequestBody NotificationRequest request,
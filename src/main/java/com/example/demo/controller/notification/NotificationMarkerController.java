@@ -1,5 +1,6 @@
 package com.example.demo.controller.notification;
 
+import com.example.demo.dto.CursorPage;
 import com.example.demo.dto.ResponseObject;
 import com.example.demo.dto.notification.NotificationMarkerRequest;
 import com.example.demo.dto.notification.NotificationMarkerResponse;
@@ -15,6 +16,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
@@ -49,6 +51,17 @@ public class NotificationMarkerController {
                 .build());
     }
 
+    @GetMapping("/due")
+    public ResponseEntity<ResponseObject> getDueNotificationMarkers(
+            @RequestParam(required = false) String within,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPage<NotificationMarkerResponse> page = notificationMarkerService.getDue(within, cursor, size);
+        return ResponseEntity.ok(ResponseObject.builder()
+                .data(page)
+                .build());
+    }
+
     @GetMapping
     public ResponseEntity<ResponseObject> getAllNotificationMarkers() {
         List<NotificationMarkerResponse> responses = notificationMarkerService.getAll();
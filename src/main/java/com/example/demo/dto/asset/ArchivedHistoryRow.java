@@ -0,0 +1,27 @@
+package com.example.demo.dto.asset;
+
+import java.time.Instant;
+
+import com.example.demo.enums.AssetCondition;
+import com.example.demo.enums.AssetHistoryAction;
+import com.example.demo.enums.AssetStatus;
+
+/**
+ * A history entry as kept in an archive segment: every column, with the type
+ * and department it counts towards resolved when archived, since the fallback
+ * joins for older entries cannot be made against a file later.
+ */
+public record ArchivedHistoryRow(Long id, Long assetId, Long typeId, Long departmentId,
+        AssetHistoryAction actionType, Long performedBy, Instant performedAt, String details, String notes,
+        AssetStatus previousStatus, AssetStatus newStatus, AssetCondition previousCondition,
+        AssetCondition newCondition, Long previousAssigneeId, Long newAssigneeId) {
+
+    public AssetHistoryRow toHistoryRow() {
+        return new AssetHistoryRow(id, assetId, actionType, performedBy, performedAt, details, notes,
+                previousStatus, newStatus);
+    }
+
+    public AssetUtilizationRow toUtilizationRow() {
+        return new AssetUtilizationRow(assetId, typeId, departmentId, actionType, newStatus, performedAt);
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.demo.dto.asset;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AssetAssignItem {
+
+    @NotNull(message = "Asset id is required")
+    @Positive(message = "Asset id must be a positive number")
+    private Long assetId;
+
+    @NotNull(message = "User id is required")
+    @Positive(message = "User id must be a positive number")
+    private Long userId;
+}
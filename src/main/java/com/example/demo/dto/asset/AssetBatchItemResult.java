@@ -0,0 +1,34 @@
+package com.example.demo.dto.asset;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AssetBatchItemResult {
+    private Long assetId;
+    private Long userId;
+    private boolean success;
+    private String message;
+
+    public static AssetBatchItemResult succeeded(Long assetId, Long userId) {
+        return AssetBatchItemResult.builder()
+                .assetId(assetId)
+                .userId(userId)
+                .success(true)
+                .build();
+    }
+
+    public static AssetBatchItemResult failed(Long assetId, Long userId, String message) {
+        return AssetBatchItemResult.builder()
+                .assetId(assetId)
+                .userId(userId)
+                .success(false)
+                .message(message)
+                .build();
+    }
+}
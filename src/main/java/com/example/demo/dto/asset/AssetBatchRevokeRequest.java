@@ -0,0 +1,20 @@
+package com.example.demo.dto.asset;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AssetBatchRevokeRequest {
+
+    @NotEmpty(message = "Asset ids are required")
+    @Size(max = 1000, message = "At most 1000 assets per batch")
+    private List<@NotNull Long> assetIds;
+}
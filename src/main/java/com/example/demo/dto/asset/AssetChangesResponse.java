@@ -0,0 +1,19 @@
+package com.example.demo.dto.asset;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AssetChangesResponse {
+    // oldest first
+    private List<AssetHistoryResponse> items;
+    // feed position of the last item, not its id; pass back as "after", unchanged when there is nothing new
+    private long lastSeq;
+}
@@ -0,0 +1,21 @@
+package com.example.demo.dto.asset;
+
+import com.example.demo.enums.AssetCondition;
+import com.example.demo.enums.AssetStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AssetFilter {
+    private AssetStatus status;
+    private AssetCondition condition;
+    private Long typeId;
+    private Long assignedTo;
+    private Long departmentId;
+}
@@ -0,0 +1,23 @@
+package com.example.demo.dto.asset;
+
+import java.time.Instant;
+
+import com.example.demo.enums.AssetHistoryAction;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AssetHistoryFilter {
+    private Long assetId;
+    private AssetHistoryAction actionType;
+    private Long performedBy;
+    // inclusive lower and exclusive upper bound on performedAt
+    private Instant from;
+    private Instant to;
+}
@@ -19,4 +19,18 @@ public class AssetHistoryResponse {
     private String notes;
     private String previousStatus;
     private String newStatus;
+
+    public static AssetHistoryResponse fromRow(AssetHistoryRow row) {
+        return AssetHistoryResponse.builder()
+                .id(row.id())
+                .assetId(row.assetId())
+                .actionType(row.actionType().name())
+                .performedBy(row.performedBy())
+                .performedAt(row.performedAt() == null ? null : row.performedAt().toString())
+                .details(row.details())
+                .notes(row.notes())
+                .previousStatus(row.previousStatus() == null ? null : row.previousStatus().name())
+                .newStatus(row.newStatus() == null ? null : row.newStatus().name())
+                .build();
+    }
 }
@@ -0,0 +1,24 @@
+package com.example.demo.dto.asset;
+
+import java.time.Instant;
+
+import com.example.demo.entity.AssetHistory;
+import com.example.demo.enums.AssetHistoryAction;
+import com.example.demo.enums.AssetStatus;
+
+/**
+ * One history entry read as a JPQL constructor projection, with the asset and
+ * performer as foreign-key ids so listing history loads no entities.
+ */
+public record AssetHistoryRow(Long id, Long assetId, AssetHistoryAction actionType, Long performedBy,
+        Instant performedAt, String details, String notes, AssetStatus previousStatus, AssetStatus newStatus) {
+
+    public static AssetHistoryRow of(AssetHistory history) {
+        return new AssetHistoryRow(history.getId(),
+                history.getAssetId(),
+                history.getActionType(),
+                history.getPerformedBy() == null ? null : history.getPerformedBy().getId(),
+                history.getPerformedAt(), history.getDetails(), history.getNotes(),
+                history.getPreviousStatus(), history.getNewStatus());
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.demo.dto.asset;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AssetImportError {
+    // 1-based position of the row in the uploaded file, header excluded
+    private int row;
+    private String code;
+    private String message;
+}
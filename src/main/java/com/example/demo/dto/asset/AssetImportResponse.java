@@ -0,0 +1,18 @@
+package com.example.demo.dto.asset;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AssetImportResponse {
+    private int total;
+    private int created;
+    private List<AssetImportError> errors;
+}
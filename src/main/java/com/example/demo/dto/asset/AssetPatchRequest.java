@@ -0,0 +1,51 @@
+package com.example.demo.dto.asset;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+
+import com.example.demo.enums.AssetCondition;
+import com.example.demo.enums.AssetStatus;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.PastOrPresent;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Partial asset update: null fields are left unchanged. {@code assignedTo}
+ * of 0 clears the assignee, matching {@link AssetRequest}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AssetPatchRequest {
+    @Pattern(regexp = ".*\\S.*", message = "Asset code cannot be blank")
+    private String code;
+
+    @Pattern(regexp = ".*\\S.*", message = "Asset name cannot be blank")
+    private String name;
+
+    @Positive(message = "Asset type must be a positive id")
+    private Long typeId;
+
+    @PositiveOrZero(message = "Assignee must be a user id, or 0 to unassign")
+    private Long assignedTo;
+
+    @PastOrPresent(message = "Purchase date cannot be in the future")
+    private Date purchaseDate;
+
+    @DecimalMin(value = "0.0", inclusive = false, message = "Asset value must be greater than zero")
+    private BigDecimal value;
+
+    private AssetStatus status;
+
+    private AssetCondition condition;
+
+    private String description;
+}
@@ -4,6 +4,7 @@ import java.math.BigDecimal;
 import java.sql.Date;
 import java.time.Instant;
 
+import com.example.demo.entity.Asset;
 import com.example.demo.enums.AssetCondition;
 import com.example.demo.enums.AssetStatus;
 
@@ -30,4 +31,26 @@ public class AssetResponse {
     private String description;
     private Long createdBy;
     private Instant createdAt;
-}
\ No newline at end of file
+    private long version;
+
+    public static AssetResponse fromEntity(Asset asset) {
+        return AssetResponse.builder()
+                .id(asset.getId())
+                .code(asset.getCode())
+                .name(asset.getName())
+                .typeId(asset.getType() == null ? null : asset.getType().getId())
+                .assignedTo(asset.getAssignedTo() == null ? null : asset.getAssignedTo().getId())
+                .departmentId(asset.getAssignedTo() == null || asset.getAssignedTo().getDepartment() == null
+                        ? null
+                        : asset.getAssignedTo().getDepartment().getId())
+                .purchaseDate(asset.getPurchaseDate())
+                .value(asset.getValue())
+                .status(asset.getStatus())
+                .condition(asset.getCondition())
+                .description(asset.getDescription())
+                .createdBy(asset.getCreatedBy() == null ? null : asset.getCreatedBy().getId())
+                .createdAt(asset.getCreatedAt())
+                .version(asset.getVersion())
+                .build();
+    }
+}
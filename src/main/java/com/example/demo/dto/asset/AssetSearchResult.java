@@ -0,0 +1,18 @@
+package com.example.demo.dto.asset;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AssetSearchResult {
+    private Long id;
+    private String code;
+    private String name;
+    private Long typeId;
+    private String typeName;
+}
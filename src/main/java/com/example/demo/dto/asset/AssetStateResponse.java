@@ -0,0 +1,31 @@
+package com.example.demo.dto.asset;
+
+import java.time.Instant;
+
+import com.example.demo.enums.AssetCondition;
+import com.example.demo.enums.AssetHistoryAction;
+import com.example.demo.enums.AssetStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * An asset's tracked state at {@code asOf}, as left by the history entry
+ * {@code historyId}, the latest one at or before that moment.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AssetStateResponse {
+    private Long assetId;
+    private Instant asOf;
+    private AssetStatus status;
+    private AssetCondition condition;
+    private Long assignedTo;
+    private Long historyId;
+    private AssetHistoryAction historyAction;
+    private Instant historyAt;
+}
@@ -0,0 +1,23 @@
+package com.example.demo.dto.asset;
+
+import java.time.Instant;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AssetStatsResponse {
+    private long total;
+    private Map<String, Long> byStatus;
+    private Map<String, Long> byCondition;
+    // keyed by type id / department id; "none" for assets without one
+    private Map<String, Long> byType;
+    private Map<String, Long> byDepartment;
+    private Instant reconciledAt;
+}
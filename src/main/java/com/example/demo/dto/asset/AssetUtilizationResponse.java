@@ -0,0 +1,27 @@
+package com.example.demo.dto.asset;
+
+import java.time.Instant;
+
+import com.example.demo.enums.AssetStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AssetUtilizationResponse {
+    private Long assetId;
+    private Instant asOf;
+    private AssetStatus status;
+    private Instant statusSince;
+    private double inUseDays;
+    // days IN_STOCK
+    private double idleDays;
+    private double repairDays;
+    // percent of IN_USE + IN_STOCK + REPAIR time spent IN_USE
+    private double utilization;
+}
@@ -0,0 +1,14 @@
+package com.example.demo.dto.asset;
+
+import java.time.Instant;
+
+import com.example.demo.enums.AssetHistoryAction;
+import com.example.demo.enums.AssetStatus;
+
+/**
+ * One history entry as utilization sees it: which asset moved into which
+ * status when, and the type and assignee department it counts towards.
+ */
+public record AssetUtilizationRow(Long assetId, Long typeId, Long departmentId, AssetHistoryAction action,
+        AssetStatus status, Instant at) {
+}
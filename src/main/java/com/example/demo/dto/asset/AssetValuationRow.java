@@ -0,0 +1,11 @@
+package com.example.demo.dto.asset;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+
+/**
+ * The columns depreciation needs for one asset, read as a JPQL constructor
+ * projection so a full revaluation does not load entities.
+ */
+public record AssetValuationRow(Long id, BigDecimal value, Date purchaseDate, Long typeId, Long departmentId) {
+}
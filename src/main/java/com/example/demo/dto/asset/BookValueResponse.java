@@ -0,0 +1,24 @@
+package com.example.demo.dto.asset;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import com.example.demo.enums.DepreciationMethod;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookValueResponse {
+    private Long assetId;
+    private LocalDate asOf;
+    private DepreciationMethod method;
+    private BigDecimal cost;
+    private BigDecimal bookValue;
+    private BigDecimal accumulatedDepreciation;
+}
@@ -0,0 +1,20 @@
+package com.example.demo.dto.asset;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HistoryWriterStatsResponse {
+    private long written;
+    private long sequenced;
+    private long pending;
+    private long lastSeq;
+    private long flushes;
+    private double averageFlushMillis;
+    private double lastFlushMillis;
+}
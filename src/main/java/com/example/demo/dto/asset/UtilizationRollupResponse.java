@@ -0,0 +1,24 @@
+package com.example.demo.dto.asset;
+
+import java.time.Instant;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UtilizationRollupResponse {
+    // type or department id; null groups time spent without one
+    private Long groupId;
+    private Instant asOf;
+    // assets currently counting towards the group
+    private long assetCount;
+    private double inUseDays;
+    private double idleDays;
+    private double repairDays;
+    private double utilization;
+}
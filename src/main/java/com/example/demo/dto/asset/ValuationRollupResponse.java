@@ -0,0 +1,23 @@
+package com.example.demo.dto.asset;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ValuationRollupResponse {
+    // type or department id; null groups assets without one
+    private Long groupId;
+    private LocalDate asOf;
+    private long assetCount;
+    private BigDecimal cost;
+    private BigDecimal bookValue;
+    private BigDecimal accumulatedDepreciation;
+}
@@ -1,5 +1,9 @@
 package com.example.demo.dto.assettype;
 
+import java.math.BigDecimal;
+
+import com.example.demo.enums.DepreciationMethod;
+
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -11,4 +15,7 @@ public class AssetTypeRequest {
     private String name;
     private String description;
     private Boolean isActive;
+    private DepreciationMethod depreciationMethod;
+    private Integer usefulLifeMonths;
+    private BigDecimal residualRate;
 }
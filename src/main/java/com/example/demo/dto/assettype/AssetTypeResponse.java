@@ -1,5 +1,10 @@
 package com.example.demo.dto.assettype;
 
+import java.math.BigDecimal;
+
+import com.example.demo.entity.AssetType;
+import com.example.demo.enums.DepreciationMethod;
+
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -12,4 +17,13 @@ public class AssetTypeResponse {
     private String name;
     private String description;
     private Boolean isActive;
+    private DepreciationMethod depreciationMethod;
+    private Integer usefulLifeMonths;
+    private BigDecimal residualRate;
+
+    public static AssetTypeResponse fromEntity(AssetType assetType) {
+        return new AssetTypeResponse(assetType.getId(), assetType.getName(), assetType.getDescription(),
+                assetType.getIsActive(), assetType.getDepreciationMethod(), assetType.getUsefulLifeMonths(),
+                assetType.getResidualRate());
+    }
 }
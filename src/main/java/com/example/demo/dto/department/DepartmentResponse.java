@@ -22,6 +22,12 @@ public class DepartmentResponse {
     private Integer employeeCount;
     private Instant createdAt;
 
+    /** For JPQL projections, where the employee count is a COUNT. */
+    public DepartmentResponse(Long id, String name, String description, Long managerId, Boolean isActive,
+            Long employeeCount, Instant createdAt) {
+        this(id, name, description, managerId, isActive, Math.toIntExact(employeeCount), createdAt);
+    }
+
     public static DepartmentResponse fromEntity(Department department) {
         return DepartmentResponse.builder()
                 .id(department.getId())
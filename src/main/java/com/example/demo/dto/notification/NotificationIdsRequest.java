@@ -0,0 +1,20 @@
+package com.example.demo.dto.notification;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationIdsRequest {
+
+    @NotEmpty(message = "Notification ids are required")
+    @Size(max = 1000, message = "At most 1000 notifications per request")
+    private List<@NotNull Long> ids;
+}
@@ -1,6 +1,7 @@
 package com.example.demo.dto.notification;
 
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -17,5 +18,9 @@ public class NotificationMarkerRequest {
 
     @NotNull(message = "Reminder milestone is required")
     private Instant reminderMilestone;
+
+    // e.g. P3M, PT12H or 0 0 8 1 * *; omitted for a one-shot reminder
+    @Size(max = 100, message = "Recurrence must be shorter than 100 characters")
+    private String recurrence;
 }
 
@@ -17,6 +17,9 @@ public class NotificationMarkerResponse {
     private Long id;
     private Long assetId;
     private Instant reminderMilestone;
+    private String recurrence;
+    private Instant nextFireAt;
+    private Instant firedAt;
     private Instant createdAt;
 
     public static NotificationMarkerResponse fromEntity(NotificationMarker marker) {
@@ -24,6 +27,9 @@ public class NotificationMarkerResponse {
                 .id(marker.getId())
                 .assetId(marker.getAsset() != null ? marker.getAsset().getId() : null)
                 .reminderMilestone(marker.getReminderMilestone())
+                .recurrence(marker.getRecurrence())
+                .nextFireAt(marker.getNextFireAt())
+                .firedAt(marker.getFiredAt())
                 .createdAt(marker.getCreatedAt())
                 .build();
     }
@@ -23,7 +23,7 @@ public class UserResponse {
                 .id(user.getId())
                 .name(user.getName())
                 .email(user.getEmail())
-                .departmentId(user.getDepartment().getId())
+                .departmentId(user.getDepartment() != null ? user.getDepartment().getId() : null)
                 .role(user.getRole().toString())
                 .active(user.getActive())
                 .build();
@@ -5,6 +5,7 @@ import java.time.Instant;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
+import com.example.demo.enums.AssetCondition;
 import com.example.demo.enums.AssetHistoryAction;
 import com.example.demo.enums.AssetStatus;
 
@@ -17,9 +18,11 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -27,7 +30,11 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
-@Table(name = "asset_history")
+@Table(name = "asset_history", indexes = {
+        @Index(name = "idx_asset_history_asset_performed_at", columnList = "asset_id, performed_at, id"),
+        @Index(name = "idx_asset_history_performed_at", columnList = "performed_at, id"),
+        @Index(name = "idx_asset_history_feed_seq", columnList = "feed_seq", unique = true)
+})
 @EntityListeners(AuditingEntityListener.class)
 @Getter
 @Setter
@@ -37,12 +44,14 @@ import lombok.Setter;
 public class AssetHistory {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "asset_history_id_gen")
+    @TableGenerator(name = "asset_history_id_gen", table = "id_generators", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "asset_history", allocationSize = 50)
     private Long id;
 
-    @ManyToOne(fetch = FetchType.LAZY, optional = false)
-    @JoinColumn(name = "asset_id", nullable = false)
-    private Asset asset;
+    // a plain id with no foreign key, so deleting an asset keeps its history
+    @Column(name = "asset_id", nullable = false)
+    private Long assetId;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "performed_by")
@@ -69,4 +78,69 @@ public class AssetHistory {
     @Enumerated(EnumType.STRING)
     @Column(name = "new_status", length = 20)
     private AssetStatus newStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "previous_condition", length = 20)
+    private AssetCondition previousCondition;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "new_condition", length = 20)
+    private AssetCondition newCondition;
+
+    // plain ids rather than associations: history outlives the users it names
+    @Column(name = "previous_assignee_id")
+    private Long previousAssigneeId;
+
+    @Column(name = "new_assignee_id")
+    private Long newAssigneeId;
+
+    // what the asset counts towards from this entry on, as it was at the time;
+    // null type on entries written before these were recorded
+    @Column(name = "type_id")
+    private Long typeId;
+
+    @Column(name = "department_id")
+    private Long departmentId;
+
+    // position in the change feed, set once the entry has committed
+    @Column(name = "feed_seq")
+    private Long feedSeq;
+
+    /**
+     * The fields an entry records before and after its change. Every entry
+     * carries the complete state, so the latest entry at or before a moment
+     * is the asset's state at that moment.
+     */
+    public record State(AssetStatus status, AssetCondition condition, Long assigneeId) {
+        public static State of(Asset asset) {
+            return new State(asset.getStatus(), asset.getCondition(),
+                    asset.getAssignedTo() == null ? null : asset.getAssignedTo().getId());
+        }
+    }
+
+    public static class AssetHistoryBuilder {
+        public AssetHistoryBuilder asset(Asset asset) {
+            this.assetId = asset.getId();
+            return this;
+        }
+
+        public AssetHistoryBuilder before(State state) {
+            this.previousStatus = state.status();
+            this.previousCondition = state.condition();
+            this.previousAssigneeId = state.assigneeId();
+            return this;
+        }
+
+        public AssetHistoryBuilder after(Asset asset) {
+            State state = State.of(asset);
+            this.newStatus = state.status();
+            this.newCondition = state.condition();
+            this.newAssigneeId = state.assigneeId();
+            this.typeId = asset.getType() == null ? null : asset.getType().getId();
+            this.departmentId = asset.getAssignedTo() == null || asset.getAssignedTo().getDepartment() == null
+                    ? null
+                    : asset.getAssignedTo().getDepartment().getId();
+            return this;
+        }
+    }
 }
@@ -0,0 +1,37 @@
+package com.example.demo.entity;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One dashboard counter, e.g. "status:IN_USE" or "department:4", as of the
+ * last reconcile. Only read at startup so the counters need not be recounted.
+ */
+@Entity
+@Table(name = "asset_stat_counts")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AssetStatCount {
+
+    @Id
+    @Column(name = "stat_key", length = 100)
+    private String statKey;
+
+    @Column(nullable = false)
+    private long total;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
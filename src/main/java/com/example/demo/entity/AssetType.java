@@ -1,13 +1,18 @@
 package com.example.demo.entity;
 
+import java.math.BigDecimal;
 import java.time.Instant;
 
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
+import com.example.demo.enums.DepreciationMethod;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EntityListeners;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -42,6 +47,18 @@ public class AssetType {
     @Column(name = "is_active")
     private Boolean isActive;
 
+    // no method or life: assets of this type are carried at cost
+    @Enumerated(EnumType.STRING)
+    @Column(name = "depreciation_method", length = 20)
+    private DepreciationMethod depreciationMethod;
+
+    @Column(name = "useful_life_months")
+    private Integer usefulLifeMonths;
+
+    // share of cost left at the end of the useful life, 0..1
+    @Column(name = "residual_rate", precision = 5, scale = 4)
+    private BigDecimal residualRate;
+
     @CreatedDate
     @Column(name = "created_at")
     private Instant createdAt;
@@ -0,0 +1,106 @@
+package com.example.demo.entity;
+
+import com.example.demo.enums.NotificationEventType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.Instant;
+
+/**
+ * A change that users should be notified of, written to the outbox in the
+ * same transaction as the change and turned into notifications later. Only
+ * ids are kept, without foreign keys, so an event never blocks deleting what
+ * it refers to; the notifications are rendered from the rows as they are
+ * when the event is dispatched. An event that fails on its own stays in the
+ * outbox and is retried after a growing delay; after too many attempts it is
+ * marked dead-lettered and left for an operator.
+ */
+@Entity
+@Table(name = "notification_outbox")
+@EntityListeners(AuditingEntityListener.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NotificationEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "notification_outbox_id_gen")
+    @TableGenerator(name = "notification_outbox_id_gen", table = "id_generators", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "notification_outbox", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 30, nullable = false)
+    private NotificationEventType type;
+
+    @Column(name = "asset_id")
+    private Long assetId;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "department_id")
+    private Long departmentId;
+
+    @CreatedDate
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    // not dispatched before this; null means at once
+    @Column(name = "next_attempt_at")
+    private Instant nextAttemptAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    // set once retries are exhausted; the dispatcher skips it from then on
+    @Column(name = "dead_lettered_at")
+    private Instant deadLetteredAt;
+
+    public static NotificationEvent assetAssigned(Long assetId, Long userId) {
+        return NotificationEvent.builder().type(NotificationEventType.ASSET_ASSIGNED)
+                .assetId(assetId).userId(userId).build();
+    }
+
+    public static NotificationEvent assetRevoked(Long assetId, Long userId) {
+        return NotificationEvent.builder().type(NotificationEventType.ASSET_REVOKED)
+                .assetId(assetId).userId(userId).build();
+    }
+
+    public static NotificationEvent userCreated(Long userId) {
+        return NotificationEvent.builder().type(NotificationEventType.USER_CREATED).userId(userId).build();
+    }
+
+    public static NotificationEvent userUpdated(Long userId) {
+        return NotificationEvent.builder().type(NotificationEventType.USER_UPDATED).userId(userId).build();
+    }
+
+    public static NotificationEvent assetReminder(Long assetId) {
+        return NotificationEvent.builder().type(NotificationEventType.ASSET_REMINDER).assetId(assetId).build();
+    }
+
+    public static NotificationEvent departmentUpdated(Long departmentId) {
+        return NotificationEvent.builder().type(NotificationEventType.DEPARTMENT_UPDATED)
+                .departmentId(departmentId).build();
+    }
+}
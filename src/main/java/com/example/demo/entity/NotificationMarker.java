@@ -7,6 +7,7 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -15,13 +16,18 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.Instant;
 
 @Entity
-@Table(name = "notification_markers")
+@Table(name = "notification_markers", indexes = {
+        // due markers: next_fire_at <= now, soonest first
+        @Index(name = "idx_notification_markers_next_fire", columnList = "next_fire_at, id")
+})
 @EntityListeners(AuditingEntityListener.class)
 @Getter
 @Setter
@@ -34,13 +40,27 @@ public class NotificationMarker {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // reminders about an asset go with it
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "asset_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
     private Asset asset;
 
     @Column(name = "reminder_milestone", nullable = false)
     private Instant reminderMilestone;
 
+    /** ISO-8601 interval or cron expression, see MarkerRecurrence; null fires once. */
+    @Column(length = 100)
+    private String recurrence;
+
+    /** When it fires next; null once a one-shot marker has fired. */
+    @Column(name = "next_fire_at")
+    private Instant nextFireAt;
+
+    /** When the reminder last went out; null until it first does. */
+    @Column(name = "fired_at")
+    private Instant firedAt;
+
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
     private Instant createdAt;
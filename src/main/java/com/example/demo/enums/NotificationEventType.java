@@ -0,0 +1,10 @@
+package com.example.demo.enums;
+
+public enum NotificationEventType {
+    ASSET_ASSIGNED,
+    ASSET_REVOKED,
+    USER_CREATED,
+    USER_UPDATED,
+    DEPARTMENT_UPDATED,
+    ASSET_REMINDER
+}
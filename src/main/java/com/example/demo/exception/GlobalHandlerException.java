@@ -3,6 +3,7 @@ package com.example.demo.exception;
 import com.example.demo.dto.ResponseObject;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
@@ -27,4 +28,34 @@ public class GlobalHandlerException {
                         .build()
         );
     }
-}
+
+    @ExceptionHandler(InvalidRequest.class)
+    public ResponseEntity<ResponseObject> handleInvalidRequest(InvalidRequest ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(
+                ResponseObject.builder()
+                        .message(ex.getMessage())
+                        .data("Bad request")
+                        .build()
+        );
+    }
+
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<ResponseObject> handleConflict(ConflictException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(
+                ResponseObject.builder()
+                        .message(ex.getMessage())
+                        .data("Conflict")
+                        .build()
+        );
+    }
+
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<ResponseObject> handleOptimisticLock(ObjectOptimisticLockingFailureException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(
+                ResponseObject.builder()
+                        .message("Resource was modified concurrently, reload and retry")
+                        .data("Conflict")
+                        .build()
+        );
+    }
+}
\ No newline at end of file
@@ -0,0 +1,7 @@
+package com.example.demo.exception;
+
+public class InvalidRequest extends RuntimeException {
+    public InvalidRequest(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.demo.repository;
+
+import java.util.Collection;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.example.demo.entity.AggregateVersion;
+
+public interface AggregateVersionRepository extends JpaRepository<AggregateVersion, String> {
+
+    @Modifying
+    @Query("UPDATE AggregateVersion v SET v.version = v.version + 1 WHERE v.name IN :names")
+    int increment(@Param("names") Collection<String> names);
+}
@@ -1,11 +1,147 @@
 package com.example.demo.repository;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import com.example.demo.dto.asset.ArchivedHistoryRow;
+import com.example.demo.dto.asset.AssetHistoryFilter;
+import com.example.demo.dto.asset.AssetHistoryRow;
+import com.example.demo.dto.asset.AssetUtilizationRow;
 import com.example.demo.entity.AssetHistory;
+import com.example.demo.enums.AssetHistoryAction;
+
+import jakarta.persistence.QueryHint;
 
 public interface AssetHistoryRepository extends JpaRepository<AssetHistory, Long> {
-    List<AssetHistory> findAllByOrderByPerformedAtAsc();
+    // keyset start for the first page; later than any stored performedAt
+    Instant FIRST_PAGE_AT = Instant.parse("9999-12-31T23:59:59Z");
+
+    /**
+     * Newest-first slice of history matching {@code filter}, strictly before
+     * the (performedAt, id) key of the last row of the previous page. A
+     * per-asset timeline and the global feed are separate statements, each
+     * with the asset filter either fixed or absent and the key comparison
+     * spelled out, so MySQL range-scans (asset_id, performed_at, id) and
+     * (performed_at, id) respectively instead of guessing at an OR.
+     */
+    default List<AssetHistoryRow> findPage(AssetHistoryFilter filter, Instant beforeAt, long beforeId, int limit) {
+        Instant before = beforeAt == null ? FIRST_PAGE_AT : beforeAt;
+        return filter.getAssetId() == null
+                ? findFeedPage(filter.getActionType(), filter.getPerformedBy(), filter.getFrom(), filter.getTo(),
+                        before, beforeId, Limit.of(limit))
+                : findAssetPage(filter.getAssetId(), filter.getActionType(), filter.getPerformedBy(),
+                        filter.getFrom(), filter.getTo(), before, beforeId, Limit.of(limit));
+    }
+
+    @Query("SELECT new com.example.demo.dto.asset.AssetHistoryRow(h.id, h.assetId, h.actionType, h.performedBy.id, "
+            + "h.performedAt, h.details, h.notes, h.previousStatus, h.newStatus) "
+            + "FROM AssetHistory h "
+            + "WHERE h.assetId = :assetId "
+            + "AND (:actionType IS NULL OR h.actionType = :actionType) "
+            + "AND (:performedBy IS NULL OR h.performedBy.id = :performedBy) "
+            + "AND (:from IS NULL OR h.performedAt >= :from) "
+            + "AND (:to IS NULL OR h.performedAt < :to) "
+            + "AND (h.performedAt < :beforeAt OR (h.performedAt = :beforeAt AND h.id < :beforeId)) "
+            + "ORDER BY h.performedAt DESC, h.id DESC")
+    List<AssetHistoryRow> findAssetPage(@Param("assetId") Long assetId,
+            @Param("actionType") AssetHistoryAction actionType,
+            @Param("performedBy") Long performedBy,
+            @Param("from") Instant from,
+            @Param("to") Instant to,
+            @Param("beforeAt") Instant beforeAt,
+            @Param("beforeId") long beforeId,
+            Limit limit);
+
+    @Query("SELECT new com.example.demo.dto.asset.AssetHistoryRow(h.id, h.assetId, h.actionType, h.performedBy.id, "
+            + "h.performedAt, h.details, h.notes, h.previousStatus, h.newStatus) "
+            + "FROM AssetHistory h "
+            + "WHERE (:actionType IS NULL OR h.actionType = :actionType) "
+            + "AND (:performedBy IS NULL OR h.performedBy.id = :performedBy) "
+            + "AND (:from IS NULL OR h.performedAt >= :from) "
+            + "AND (:to IS NULL OR h.performedAt < :to) "
+            + "AND (h.performedAt < :beforeAt OR (h.performedAt = :beforeAt AND h.id < :beforeId)) "
+            + "ORDER BY h.performedAt DESC, h.id DESC")
+    List<AssetHistoryRow> findFeedPage(@Param("actionType") AssetHistoryAction actionType,
+            @Param("performedBy") Long performedBy,
+            @Param("from") Instant from,
+            @Param("to") Instant to,
+            @Param("beforeAt") Instant beforeAt,
+            @Param("beforeId") long beforeId,
+            Limit limit);
+
+    /**
+     * The asset's latest history entry at or before {@code at}: one seek on
+     * (asset_id, performed_at, id), however long the history is.
+     */
+    @Query("SELECT h FROM AssetHistory h WHERE h.assetId = :assetId AND h.performedAt <= :at "
+            + "ORDER BY h.performedAt DESC, h.id DESC")
+    List<AssetHistory> findLatestAt(@Param("assetId") Long assetId, @Param("at") Instant at, Limit limit);
+
+    /**
+     * Entries past feed position {@code afterSeq}, in feed order: one range
+     * scan on feed_seq, for the change feed.
+     */
+    @Query("SELECT h FROM AssetHistory h WHERE h.feedSeq > :afterSeq ORDER BY h.feedSeq")
+    List<AssetHistory> findFeedAfter(@Param("afterSeq") long afterSeq, Limit limit);
+
+    /**
+     * Committed entries not yet in the change feed, oldest id first; NULL
+     * keys are a range of the feed_seq index, so this reads only them.
+     */
+    @Query("SELECT h FROM AssetHistory h WHERE h.feedSeq IS NULL ORDER BY h.id")
+    List<AssetHistory> findUnsequenced(Limit limit);
+
+    long countByFeedSeqIsNull();
+
+    @Query("SELECT COALESCE(MAX(h.feedSeq), 0) FROM AssetHistory h")
+    long findMaxFeedSeq();
+
+    @Query("SELECT MAX(h.assetId) FROM AssetHistory h")
+    Long findMaxAssetId();
+
+    /**
+     * History of the assets with ids in [fromId, toId) up to feed position
+     * {@code upToSeq}, in the order it happened, one asset after another, for
+     * replaying utilization. Type and department are the ones recorded with
+     * the entry; entries written before those were recorded fall back to the
+     * asset's type and its new assignee's department now.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"))
+    @Query("SELECT new com.example.demo.dto.asset.AssetUtilizationRow(h.assetId, "
+            + "CASE WHEN h.typeId IS NULL THEN t.id ELSE h.typeId END, "
+            + "CASE WHEN h.typeId IS NULL THEN d.id ELSE h.departmentId END, "
+            + "h.actionType, h.newStatus, h.performedAt) "
+            + "FROM AssetHistory h LEFT JOIN Asset a ON a.id = h.assetId LEFT JOIN a.type t "
+            + "LEFT JOIN User u ON u.id = h.newAssigneeId LEFT JOIN u.department d "
+            + "WHERE h.assetId >= :fromId AND h.assetId < :toId AND h.feedSeq <= :upToSeq "
+            + "ORDER BY h.assetId, h.performedAt, h.id")
+    Stream<AssetUtilizationRow> streamUtilizationRows(@Param("fromId") long fromId, @Param("toId") long toId,
+            @Param("upToSeq") long upToSeq);
+
+    @Query("SELECT MIN(h.performedAt) FROM AssetHistory h")
+    Instant findMinPerformedAt();
+
+    /**
+     * Every entry performed in [from, to), oldest first, with its type and
+     * department resolved as for {@link #streamUtilizationRows}, as written to
+     * an archive segment.
+     */
+    @Query("SELECT new com.example.demo.dto.asset.ArchivedHistoryRow(h.id, h.assetId, "
+            + "CASE WHEN h.typeId IS NULL THEN t.id ELSE h.typeId END, "
+            + "CASE WHEN h.typeId IS NULL THEN d.id ELSE h.departmentId END, h.actionType, "
+            + "h.performedBy.id, h.performedAt, h.details, h.notes, h.previousStatus, h.newStatus, "
+            + "h.previousCondition, h.newCondition, h.previousAssigneeId, h.newAssigneeId) "
+            + "FROM AssetHistory h LEFT JOIN Asset a ON a.id = h.assetId LEFT JOIN a.type t "
+            + "LEFT JOIN User u ON u.id = h.newAssigneeId LEFT JOIN u.department d "
+            + "WHERE h.performedAt >= :from AND h.performedAt < :to "
+            + "ORDER BY h.performedAt, h.id")
+    List<ArchivedHistoryRow> findArchivable(@Param("from") Instant from, @Param("to") Instant to);
 }
@@ -1,10 +1,126 @@
 package com.example.demo.repository;
 
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import com.example.demo.dto.asset.AssetValuationRow;
 import com.example.demo.entity.Asset;
+import com.example.demo.entity.User;
+
+import jakarta.persistence.QueryHint;
+
+public interface AssetRepository extends JpaRepository<Asset, Long>, JpaSpecificationExecutor<Asset> {
+
+    @EntityGraph(attributePaths = { "type", "assignedTo" })
+    Optional<Asset> findDetailedById(Long id);
+
+    @EntityGraph(attributePaths = { "type", "assignedTo" })
+    List<Asset> findDetailedByIdIn(Collection<Long> ids);
+
+    @Query("SELECT a.code FROM Asset a WHERE a.code IN :codes")
+    List<String> findExistingCodes(@Param("codes") Collection<String> codes);
+
+    @Query("SELECT a.id FROM Asset a WHERE a.code = :code")
+    Optional<Long> findIdByCode(@Param("code") String code);
+
+    @Query("SELECT a.version FROM Asset a WHERE a.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    /**
+     * Assigns an in-stock asset in one statement, succeeding only if nobody
+     * changed the row since {@code version} was read. Returns the number of
+     * rows updated: 1 when this caller won, 0 otherwise.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Asset a SET a.assignedTo = :user, a.status = com.example.demo.enums.AssetStatus.IN_USE, "
+            + "a.version = a.version + 1 "
+            + "WHERE a.id = :id AND a.status = com.example.demo.enums.AssetStatus.IN_STOCK AND a.version = :version")
+    int assignIfInStock(@Param("id") Long id, @Param("version") long version, @Param("user") User user);
+
+    /**
+     * Newest-first slice of assets matching {@code spec}, with the assignee fetched
+     * in the same statement.
+     */
+    default List<Asset> findPage(Specification<Asset> spec, int limit) {
+        return findBy(spec.and(AssetSpecifications.fetchAssignee()), query -> query
+                .sortBy(Sort.by(Sort.Direction.DESC, "id"))
+                .limit(limit)
+                .all());
+    }
+
+    /**
+     * Forward-only cursor over the whole register. A fetch size of
+     * Integer.MIN_VALUE makes MySQL Connector/J stream rows instead of buffering
+     * the result set; the caller must consume it inside a transaction.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a FROM Asset a LEFT JOIN FETCH a.assignedTo ORDER BY a.id")
+    Stream<Asset> streamAll();
+
+    /**
+     * Columns the in-memory search index needs, streamed as a projection so
+     * rebuilding the index does not fill the persistence context.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"))
+    @Query("SELECT a.id AS id, a.code AS code, a.name AS name, a.description AS description, t.id AS typeId "
+            + "FROM Asset a LEFT JOIN a.type t")
+    Stream<SearchRow> streamSearchRows();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"))
+    @Query("SELECT new com.example.demo.dto.asset.AssetValuationRow(a.id, a.value, a.purchaseDate, t.id, d.id) "
+            + "FROM Asset a LEFT JOIN a.type t LEFT JOIN a.assignedTo u LEFT JOIN u.department d ORDER BY a.id")
+    Stream<AssetValuationRow> streamValuationRows();
+
+    @Query("SELECT new com.example.demo.dto.asset.AssetValuationRow(a.id, a.value, a.purchaseDate, t.id, d.id) "
+            + "FROM Asset a LEFT JOIN a.type t LEFT JOIN a.assignedTo u LEFT JOIN u.department d "
+            + "WHERE a.id IN :ids")
+    List<AssetValuationRow> findValuationRows(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT a.status AS bucket, COUNT(a) AS total FROM Asset a GROUP BY a.status")
+    List<BucketCount> countByStatus();
+
+    @Query("SELECT a.condition AS bucket, COUNT(a) AS total FROM Asset a GROUP BY a.condition")
+    List<BucketCount> countByCondition();
+
+    @Query("SELECT t.id AS bucket, COUNT(a) AS total FROM Asset a LEFT JOIN a.type t GROUP BY t.id")
+    List<BucketCount> countByType();
+
+    @Query("SELECT d.id AS bucket, COUNT(a) AS total FROM Asset a LEFT JOIN a.assignedTo u LEFT JOIN u.department d "
+            + "GROUP BY d.id")
+    List<BucketCount> countByDepartment();
+
+    interface BucketCount {
+        Object getBucket();
+
+        long getTotal();
+    }
+
+    interface SearchRow {
+        Long getId();
+
+        String getCode();
+
+        String getName();
 
-public interface AssetRepository extends JpaRepository<Asset, Long> {
+        String getDescription();
 
+        Long getTypeId();
+    }
 }
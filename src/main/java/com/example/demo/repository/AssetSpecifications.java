@@ -0,0 +1,60 @@
+package com.example.demo.repository;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import jakarta.persistence.criteria.JoinType;
+
+import com.example.demo.dto.asset.AssetFilter;
+import com.example.demo.entity.Asset;
+
+/**
+ * Builds the WHERE clause for asset listings. Only the filters that are present
+ * end up in the query, so MySQL can pick the matching (column, id) index.
+ */
+public final class AssetSpecifications {
+
+    private AssetSpecifications() {
+    }
+
+    public static Specification<Asset> matching(AssetFilter filter) {
+        Specification<Asset> spec = Specification.unrestricted();
+        if (filter == null) {
+            return spec;
+        }
+        if (filter.getStatus() != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("status"), filter.getStatus()));
+        }
+        if (filter.getCondition() != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("condition"), filter.getCondition()));
+        }
+        if (filter.getTypeId() != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("type").get("id"), filter.getTypeId()));
+        }
+        if (filter.getAssignedTo() != null) {
+            spec = spec.and(
+                    (root, query, cb) -> cb.equal(root.get("assignedTo").get("id"), filter.getAssignedTo()));
+        }
+        if (filter.getDepartmentId() != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(
+                    root.join("assignedTo").get("department").get("id"), filter.getDepartmentId()));
+        }
+        return spec;
+    }
+
+    /**
+     * Fetch-joins the assignee so {@code AssetResponse.fromEntity} can read its
+     * department id without a lazy load per row. Skipped for count queries.
+     */
+    public static Specification<Asset> fetchAssignee() {
+        return (root, query, cb) -> {
+            if (!Long.class.equals(query.getResultType()) && !long.class.equals(query.getResultType())) {
+                root.fetch("assignedTo", JoinType.LEFT);
+            }
+            return null;
+        };
+    }
+
+    public static Specification<Asset> idBefore(Long id) {
+        return (root, query, cb) -> cb.lessThan(root.get("id"), id);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.AssetStatCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface AssetStatCountRepository extends JpaRepository<AssetStatCount, String> {
+}
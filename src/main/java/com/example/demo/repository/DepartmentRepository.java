@@ -1,10 +1,29 @@
 package com.example.demo.repository;
 
+import java.util.List;
+import java.util.Optional;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.example.demo.dto.department.DepartmentResponse;
 import com.example.demo.entity.Department;
 
 public interface DepartmentRepository extends JpaRepository<Department, Long> {
     // count employees in a department
     Long countById(Long id);
+
+    // employees counted, and a missing manager resolved to the department's MANAGER user, in the same statement
+    String RESPONSE = "SELECT new com.example.demo.dto.department.DepartmentResponse(d.id, d.name, d.description, "
+            + "COALESCE(d.managerId, (SELECT MIN(m.id) FROM User m WHERE m.department = d "
+            + "AND m.role = com.example.demo.enums.Role.MANAGER)), "
+            + "d.isActive, (SELECT COUNT(u) FROM User u WHERE u.department = d), d.createdAt) "
+            + "FROM Department d ";
+
+    @Query(RESPONSE + "ORDER BY d.id")
+    List<DepartmentResponse> findAllResponses();
+
+    @Query(RESPONSE + "WHERE d.id = :id")
+    Optional<DepartmentResponse> findResponseById(@Param("id") Long id);
 }
@@ -0,0 +1,38 @@
+package com.example.demo.repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import com.example.demo.entity.NotificationEvent;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+public interface NotificationEventRepository extends JpaRepository<NotificationEvent, Long> {
+
+    /**
+     * The oldest outbox events not locked by another dispatcher, locked until
+     * the caller's transaction ends. SELECT ... FOR UPDATE SKIP LOCKED (a lock
+     * timeout of -2), so dispatchers on several nodes share the outbox without
+     * waiting on each other or taking the same event twice. Events backing
+     * off until after {@code now} and dead-lettered ones are left out.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_LOCK_TIMEOUT, value = "-2"))
+    @Query("SELECT e FROM NotificationEvent e WHERE e.deadLetteredAt IS NULL "
+            + "AND (e.nextAttemptAt IS NULL OR e.nextAttemptAt <= :now) ORDER BY e.id")
+    List<NotificationEvent> findNextBatch(@Param("now") Instant now, Limit limit);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_LOCK_TIMEOUT, value = "-2"))
+    Optional<NotificationEvent> findClaimableById(Long id);
+}
@@ -0,0 +1,22 @@
+package com.example.demo.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+
+import com.example.demo.entity.NotificationFeed;
+
+import jakarta.persistence.LockModeType;
+
+public interface NotificationFeedRepository extends JpaRepository<NotificationFeed, Integer> {
+
+    /**
+     * The feed head, locked until the transaction ends, so one node at a time
+     * hands out positions.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT f FROM NotificationFeed f WHERE f.id = " + NotificationFeed.ID)
+    Optional<NotificationFeed> findHeadForUpdate();
+}
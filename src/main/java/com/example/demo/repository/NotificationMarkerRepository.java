@@ -1,8 +1,83 @@
 package com.example.demo.repository;
 
-import com.example.demo.entity.NotificationMarker;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import com.example.demo.entity.NotificationMarker;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 
 public interface NotificationMarkerRepository extends JpaRepository<NotificationMarker, Long> {
-}
+    Instant FIRST_PAGE_AT = Instant.EPOCH;
 
+    /**
+     * Next fire times before {@code until}, soonest first, overdue ones
+     * included.
+     */
+    @Query("""
+            SELECT m.nextFireAt FROM NotificationMarker m
+            WHERE m.nextFireAt < :until
+            ORDER BY m.nextFireAt
+            """)
+    List<Instant> findNextFireTimesBefore(@Param("until") Instant until, Limit limit);
+
+    /**
+     * Markers due by {@code now}, soonest first, locked until the caller's
+     * transaction ends. SELECT ... FOR UPDATE SKIP LOCKED, as for the
+     * notification outbox, so nodes firing at the same time take disjoint
+     * batches.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_LOCK_TIMEOUT, value = "-2"))
+    @Query("""
+            SELECT m FROM NotificationMarker m
+            WHERE m.nextFireAt <= :now
+            ORDER BY m.nextFireAt, m.id
+            """)
+    List<NotificationMarker> findDueBatch(@Param("now") Instant now, Limit limit);
+
+    /**
+     * Markers firing before {@code until}, soonest first, after the
+     * (nextFireAt, id) key of the last row of the previous page. A range scan
+     * of (next_fire_at, id) that stops after {@code limit} rows.
+     */
+    @Query("""
+            SELECT m FROM NotificationMarker m
+            WHERE m.nextFireAt < :until AND (m.nextFireAt, m.id) > (:afterAt, :afterId)
+            ORDER BY m.nextFireAt, m.id
+            """)
+    List<NotificationMarker> findDuePage(@Param("until") Instant until, @Param("afterAt") Instant afterAt,
+            @Param("afterId") long afterId, Limit limit);
+
+    /**
+     * Records a firing: {@code nextFireAt} is the next occurrence, or null for
+     * markers that do not repeat. Markers on the same schedule share one
+     * statement.
+     */
+    @Modifying
+    @Query("UPDATE NotificationMarker m SET m.firedAt = :firedAt, m.nextFireAt = :nextFireAt WHERE m.id IN :ids")
+    int markFired(@Param("ids") Collection<Long> ids, @Param("firedAt") Instant firedAt,
+            @Param("nextFireAt") Instant nextFireAt);
+
+    /**
+     * Arms markers saved before fire times were stored: those that have not
+     * fired yet fire at their milestone.
+     */
+    @Modifying
+    @Query("""
+            UPDATE NotificationMarker m SET m.nextFireAt = m.reminderMilestone
+            WHERE m.nextFireAt IS NULL AND m.firedAt IS NULL
+            """)
+    int armUnscheduled();
+}
@@ -1,11 +1,134 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.notification.NotificationResponse;
 import com.example.demo.entity.Notification;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
+    // keyset start for the first inbox page; later than any stored createdAt
+    Instant FIRST_PAGE_AT = Instant.parse("9999-12-31T23:59:59Z");
+
     List<Notification> findByUser_Id(Long userId);
-}
 
+    @Query("SELECT new com.example.demo.dto.notification.NotificationResponse(n.id, n.user.id, a.id, n.title, "
+            + "n.message, n.type, n.isRead, n.linkUrl, n.createdAt) "
+            + "FROM Notification n LEFT JOIN n.asset a")
+    List<NotificationResponse> findAllResponses();
+
+    @Query("SELECT new com.example.demo.dto.notification.NotificationResponse(n.id, n.user.id, a.id, n.title, "
+            + "n.message, n.type, n.isRead, n.linkUrl, n.createdAt) "
+            + "FROM Notification n LEFT JOIN n.asset a WHERE n.user.id = :userId "
+            + "ORDER BY n.createdAt DESC, n.id DESC")
+    List<NotificationResponse> findResponsesByUserId(@Param("userId") Long userId);
+
+    /**
+     * A user's notifications past feed position {@code afterSeq}, in feed
+     * order, to resume a notification stream from the last event the client
+     * saw.
+     */
+    @Query("SELECT n FROM Notification n WHERE n.user.id = :userId AND n.feedSeq > :afterSeq ORDER BY n.feedSeq")
+    List<Notification> findByUserIdAfterSeq(@Param("userId") Long userId,
+            @Param("afterSeq") long afterSeq,
+            Limit limit);
+
+    /**
+     * Notifications past feed position {@code afterSeq}, in feed order: a
+     * range scan on feed_seq, for pushing them to the streams of every node.
+     */
+    @Query("SELECT n FROM Notification n WHERE n.feedSeq > :afterSeq ORDER BY n.feedSeq")
+    List<Notification> findFeedAfter(@Param("afterSeq") long afterSeq, Limit limit);
+
+    /**
+     * Committed notifications still waiting for a feed position, oldest id
+     * first. Their keys are a range of the feed_seq index, so this reads only
+     * them.
+     */
+    @Query("SELECT n FROM Notification n WHERE n.feedSeq IS NULL ORDER BY n.id")
+    List<Notification> findUnsequenced(Limit limit);
+
+    @Query("SELECT COALESCE(MAX(n.feedSeq), 0) FROM Notification n")
+    long findMaxFeedSeq();
+
+    default List<NotificationResponse> findInboxPage(Long userId, boolean unreadOnly, Instant beforeAt, long beforeId,
+            int limit) {
+        return findInboxPage(userId, unreadOnly ? Boolean.FALSE : null, beforeAt == null ? FIRST_PAGE_AT : beforeAt,
+                beforeId, Limit.of(limit));
+    }
+
+    /**
+     * Newest-first slice of a user's inbox strictly before the (createdAt, id)
+     * key of the last row of the previous page. With {@code isRead} set the
+     * scan walks (user_id, is_read, created_at, id), otherwise
+     * (user_id, created_at, id); either way it stops after {@code limit} rows.
+     */
+    @Query("SELECT new com.example.demo.dto.notification.NotificationResponse(n.id, n.user.id, a.id, n.title, "
+            + "n.message, n.type, n.isRead, n.linkUrl, n.createdAt) "
+            + "FROM Notification n LEFT JOIN n.asset a "
+            + "WHERE n.user.id = :userId "
+            + "AND (:isRead IS NULL OR n.isRead = :isRead) "
+            + "AND (n.createdAt, n.id) < (:beforeAt, :beforeId) "
+            + "ORDER BY n.createdAt DESC, n.id DESC")
+    List<NotificationResponse> findInboxPage(@Param("userId") Long userId,
+            @Param("isRead") Boolean isRead,
+            @Param("beforeAt") Instant beforeAt,
+            @Param("beforeId") long beforeId,
+            Limit limit);
+
+    /**
+     * Marks one notification read. Returns 0 when it already was, so the
+     * caller moves the unread count only for a real change.
+     */
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.id = :id AND n.isRead = false")
+    int markRead(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.user.id = :userId AND n.isRead = false")
+    int markAllRead(@Param("userId") Long userId);
+
+    /**
+     * Marks the given notifications of one user read in one statement; ids
+     * that are someone else's, unknown or already read are left alone and not
+     * counted.
+     */
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true "
+            + "WHERE n.user.id = :userId AND n.id IN :ids AND n.isRead = false")
+    int markReadByIds(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+    /**
+     * Unread notifications created before {@code before} per user, for all
+     * users or just {@code userId}: what a matching delete takes off the
+     * unread counters.
+     */
+    @Query("SELECT n.user.id AS userId, COUNT(n) AS total FROM Notification n "
+            + "WHERE n.isRead = false AND n.createdAt < :before AND (:userId IS NULL OR n.user.id = :userId) "
+            + "GROUP BY n.user.id")
+    List<UnreadCount> countUnreadByUserCreatedBefore(@Param("userId") Long userId, @Param("before") Instant before);
+
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.createdAt < :before AND (:userId IS NULL OR n.user.id = :userId)")
+    int deleteCreatedBefore(@Param("userId") Long userId, @Param("before") Instant before);
+
+    @Query("SELECT n.user.id AS userId, COUNT(n) AS total FROM Notification n WHERE n.isRead = false "
+            + "GROUP BY n.user.id")
+    List<UnreadCount> countUnreadByUser();
+
+    @Query("SELECT n.user.id AS userId, COUNT(n) AS total FROM Notification n "
+            + "WHERE n.isRead = false AND n.user.id IN :userIds GROUP BY n.user.id")
+    List<UnreadCount> countUnreadByUserIn(@Param("userIds") Collection<Long> userIds);
+
+    interface UnreadCount {
+        Long getUserId();
+
+        long getTotal();
+    }
+}
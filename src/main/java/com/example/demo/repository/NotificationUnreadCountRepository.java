@@ -0,0 +1,33 @@
+package com.example.demo.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.example.demo.entity.NotificationUnreadCount;
+
+import jakarta.persistence.LockModeType;
+
+public interface NotificationUnreadCountRepository extends JpaRepository<NotificationUnreadCount, Long> {
+
+    /**
+     * Adds {@code delta} to the user's count, creating it if missing, in one
+     * statement that locks the row until the transaction ends.
+     */
+    @Modifying
+    @Query("INSERT INTO NotificationUnreadCount (userId, unread) VALUES (:userId, :delta) "
+            + "ON CONFLICT(userId) DO UPDATE SET unread = unread + excluded.unread")
+    int add(@Param("userId") Long userId, @Param("delta") long delta);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM NotificationUnreadCount c WHERE c.userId IN :userIds ORDER BY c.userId")
+    List<NotificationUnreadCount> findAllForUpdate(@Param("userIds") Collection<Long> userIds);
+
+    @Query("SELECT c.userId FROM NotificationUnreadCount c WHERE c.unread <> 0")
+    List<Long> findNonZeroUserIds();
+}
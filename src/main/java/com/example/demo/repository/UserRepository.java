@@ -3,9 +3,11 @@ package com.example.demo.repository;
 import com.example.demo.entity.User;
 import com.example.demo.enums.Role;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,6 +15,12 @@ import java.util.Optional;
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
 
+    @EntityGraph(attributePaths = "department")
+    Optional<User> findWithDepartmentById(Long id);
+
+    @EntityGraph(attributePaths = "department")
+    List<User> findWithDepartmentByIdIn(Collection<Long> ids);
+
     List<User> findByDepartmentId(Long departmentId);
 
     User findByDepartmentIdAndRole(Long departmentId, Role role);
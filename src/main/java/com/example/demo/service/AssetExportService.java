@@ -0,0 +1,88 @@
+package com.example.demo.service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.demo.dto.asset.AssetResponse;
+import com.example.demo.entity.Asset;
+import com.example.demo.enums.ExportFormat;
+import com.example.demo.repository.AssetRepository;
+import com.example.demo.util.CsvUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Streams the asset register row by row from a forward-only cursor, so memory
+ * use does not depend on the number of assets.
+ */
+@Service
+@RequiredArgsConstructor
+public class AssetExportService {
+    private static final String CSV_HEADER = "id,code,name,typeId,assignedTo,departmentId,purchaseDate,value,"
+            + "status,condition,description,createdBy,createdAt\n";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // detach the rows written so far so the persistence context stays small
+    private static final int CLEAR_EVERY = 1000;
+
+    private final AssetRepository assetRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Runs inside a read-only transaction because the MySQL streaming result set
+     * must stay open on one connection until the last row is written.
+     */
+    @Transactional(readOnly = true)
+    public void export(ExportFormat format, OutputStream target) throws IOException {
+        OutputStream out = new BufferedOutputStream(target, BUFFER_SIZE);
+        try (Stream<Asset> assets = assetRepository.streamAll()) {
+            if (format == ExportFormat.CSV) {
+                out.write(CSV_HEADER.getBytes(StandardCharsets.UTF_8));
+            }
+            // push the first bytes out right away, then let the buffer batch writes
+            out.flush();
+
+            int written = 0;
+            Iterator<Asset> iterator = assets.iterator();
+            while (iterator.hasNext()) {
+                AssetResponse row = AssetResponse.fromEntity(iterator.next());
+                if (format == ExportFormat.CSV) {
+                    out.write(toCsvLine(row).getBytes(StandardCharsets.UTF_8));
+                } else {
+                    out.write(objectMapper.writeValueAsBytes(row));
+                    out.write('\n');
+                }
+                if (++written % CLEAR_EVERY == 0) {
+                    entityManager.clear();
+                }
+            }
+            out.flush();
+        }
+    }
+
+    private String toCsvLine(AssetResponse row) {
+        return String.join(",",
+                CsvUtils.escape(row.getId()),
+                CsvUtils.escape(row.getCode()),
+                CsvUtils.escape(row.getName()),
+                CsvUtils.escape(row.getTypeId()),
+                CsvUtils.escape(row.getAssignedTo()),
+                CsvUtils.escape(row.getDepartmentId()),
+                CsvUtils.escape(row.getPurchaseDate()),
+                CsvUtils.escape(row.getValue() == null ? null : row.getValue().toPlainString()),
+                CsvUtils.escape(row.getStatus()),
+                CsvUtils.escape(row.getCondition()),
+                CsvUtils.escape(row.getDescription()),
+                CsvUtils.escape(row.getCreatedBy()),
+                CsvUtils.escape(row.getCreatedAt())) + "\n";
+    }
+}
@@ -0,0 +1,336 @@
+package com.example.demo.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.dto.asset.AssetImportError;
+import com.example.demo.dto.asset.AssetImportResponse;
+import com.example.demo.dto.asset.AssetRequest;
+import com.example.demo.entity.Asset;
+import com.example.demo.entity.AssetHistory;
+import com.example.demo.entity.AssetType;
+import com.example.demo.entity.User;
+import com.example.demo.enums.AssetCondition;
+import com.example.demo.enums.AssetHistoryAction;
+import com.example.demo.enums.AssetStatus;
+import com.example.demo.exception.InvalidRequest;
+import com.example.demo.repository.AssetRepository;
+import com.example.demo.repository.AssetTypeRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.service.etag.AggregateVersions;
+import com.example.demo.service.etag.AggregateVersions.Aggregate;
+import com.example.demo.service.history.AssetHistoryWriter;
+import com.example.demo.service.search.AssetSearchIndex;
+import com.example.demo.service.stats.AssetStatsCounters;
+import com.example.demo.util.CsvUtils;
+
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Creates many assets in one call. References are resolved once for the whole
+ * upload, and assets are inserted in JDBC batches, one transaction per chunk
+ * so a bad chunk does not undo the others. Their CREATED history goes through
+ * the history writer like any other.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AssetImportService {
+    private static final int CHUNK_SIZE = 500;
+    private static final int LOOKUP_CHUNK_SIZE = 1000;
+
+    private final AssetRepository assetRepository;
+    private final AssetTypeRepository assetTypeRepository;
+    private final UserRepository userRepository;
+    private final AssetHistoryWriter assetHistoryWriter;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final AssetSearchIndex assetSearchIndex;
+    private final AssetStatsCounters assetStatsCounters;
+    private final AggregateVersions aggregateVersions;
+
+    public AssetImportResponse importRows(List<AssetRequest> requests) {
+        List<ImportRow> rows = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            rows.add(new ImportRow(i + 1, requests.get(i)));
+        }
+        return importAll(rows, new ArrayList<>(), requests.size());
+    }
+
+    public AssetImportResponse importCsv(InputStream input) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        String headerLine = reader.readLine();
+        if (headerLine == null) {
+            throw new InvalidRequest("CSV file is empty");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> header = CsvUtils.parseLine(stripBom(headerLine));
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.containsKey("code") || !columns.containsKey("name") || !columns.containsKey("typeid")) {
+            throw new InvalidRequest("CSV header must contain code, name and typeId columns");
+        }
+
+        List<ImportRow> rows = new ArrayList<>();
+        List<AssetImportError> errors = new ArrayList<>();
+        int rowNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            rowNumber++;
+            List<String> fields = CsvUtils.parseLine(line);
+            try {
+                rows.add(new ImportRow(rowNumber, toRequest(fields, columns)));
+            } catch (IllegalArgumentException e) {
+                errors.add(error(rowNumber, field(fields, columns, "code"), e.getMessage()));
+            }
+        }
+        return importAll(rows, errors, rowNumber);
+    }
+
+    private AssetImportResponse importAll(List<ImportRow> rows, List<AssetImportError> errors, int total) {
+        List<ImportRow> valid = validate(rows, errors);
+
+        Map<Long, AssetType> types = findAllInChunks(
+                valid.stream().map(row -> row.request.getTypeId()).collect(Collectors.toSet()),
+                assetTypeRepository::findAllById, AssetType::getId);
+        Map<Long, User> users = findAllInChunks(
+                valid.stream().map(row -> assigneeId(row.request)).filter(id -> id != null)
+                        .collect(Collectors.toSet()),
+                userRepository::findAllById, User::getId);
+        Set<String> existingCodes = new HashSet<>();
+        for (List<String> chunk : chunks(valid.stream().map(row -> row.request.getCode()).toList(),
+                LOOKUP_CHUNK_SIZE)) {
+            existingCodes.addAll(assetRepository.findExistingCodes(chunk));
+        }
+
+        List<ImportRow> resolved = new ArrayList<>(valid.size());
+        for (ImportRow row : valid) {
+            AssetRequest request = row.request;
+            if (existingCodes.contains(request.getCode())) {
+                errors.add(error(row.number, request.getCode(), "Asset code already exists"));
+            } else if (!types.containsKey(request.getTypeId())) {
+                errors.add(error(row.number, request.getCode(), "Asset type not found"));
+            } else if (assigneeId(request) != null && !users.containsKey(assigneeId(request))) {
+                errors.add(error(row.number, request.getCode(), "User not found"));
+            } else {
+                resolved.add(row);
+            }
+        }
+
+        int created = 0;
+        for (List<ImportRow> chunk : chunks(resolved, CHUNK_SIZE)) {
+            try {
+                List<Asset> inserted = transactionTemplate.execute(status -> insertChunk(chunk, types, users));
+                inserted.forEach(assetSearchIndex::index);
+                aggregateVersions.bump(Aggregate.ASSETS);
+                created += chunk.size();
+            } catch (DataAccessException e) {
+                log.warn("Asset import chunk starting at row {} failed", chunk.get(0).number, e);
+                for (ImportRow row : chunk) {
+                    errors.add(error(row.number, row.request.getCode(),
+                            "Batch insert failed: " + e.getMostSpecificCause().getMessage()));
+                }
+            }
+        }
+
+        errors.sort((a, b) -> Integer.compare(a.getRow(), b.getRow()));
+        return AssetImportResponse.builder()
+                .total(total)
+                .created(created)
+                .errors(errors)
+                .build();
+    }
+
+    private List<ImportRow> validate(List<ImportRow> rows, List<AssetImportError> errors) {
+        Set<String> seenCodes = new HashSet<>();
+        List<ImportRow> valid = new ArrayList<>(rows.size());
+        for (ImportRow row : rows) {
+            Set<ConstraintViolation<AssetRequest>> violations = validator.validate(row.request);
+            if (!violations.isEmpty()) {
+                String message = violations.stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; "));
+                errors.add(error(row.number, row.request.getCode(), message));
+            } else if (!seenCodes.add(row.request.getCode())) {
+                errors.add(error(row.number, row.request.getCode(), "Duplicate asset code in upload"));
+            } else {
+                valid.add(row);
+            }
+        }
+        return valid;
+    }
+
+    private List<Asset> insertChunk(List<ImportRow> chunk, Map<Long, AssetType> types, Map<Long, User> users) {
+        List<Asset> assets = new ArrayList<>(chunk.size());
+        for (ImportRow row : chunk) {
+            AssetRequest request = row.request;
+            Long assigneeId = assigneeId(request);
+            assets.add(Asset.builder()
+                    .code(request.getCode())
+                    .name(request.getName())
+                    .type(types.get(request.getTypeId()))
+                    .assignedTo(assigneeId == null ? null : users.get(assigneeId))
+                    .purchaseDate(request.getPurchaseDate())
+                    .value(request.getValue())
+                    .status(request.getStatus())
+                    .condition(request.getCondition())
+                    .description(request.getDescription())
+                    .build());
+        }
+        assetRepository.saveAll(assets);
+
+        Instant now = Instant.now();
+        List<AssetHistory> histories = new ArrayList<>(assets.size());
+        for (Asset asset : assets) {
+            histories.add(AssetHistory.builder()
+                    .asset(asset)
+                    .actionType(AssetHistoryAction.CREATED)
+                    .performedAt(now)
+                    .performedBy(asset.getAssignedTo())
+                    .details(String.format("Created asset %d (%s)", asset.getId(), asset.getName()))
+                    .before(AssetHistory.State.of(asset))
+                    .after(asset)
+                    .build());
+        }
+        assetHistoryWriter.recordAll(histories);
+        // registered before the commit, so a concurrent recount sees it coming
+        assets.forEach(asset -> assetStatsCounters.applyChange(null, AssetStatsCounters.Snapshot.of(asset)));
+
+        entityManager.flush();
+        entityManager.clear();
+        return assets;
+    }
+
+    private AssetRequest toRequest(List<String> fields, Map<String, Integer> columns) {
+        AssetRequest request = new AssetRequest();
+        request.setCode(blankToNull(field(fields, columns, "code")));
+        request.setName(blankToNull(field(fields, columns, "name")));
+        request.setTypeId(parseLong(field(fields, columns, "typeid"), "typeId"));
+        request.setAssignedTo(parseLong(field(fields, columns, "assignedto"), "assignedTo"));
+        String purchaseDate = blankToNull(field(fields, columns, "purchasedate"));
+        if (purchaseDate != null) {
+            try {
+                request.setPurchaseDate(Date.valueOf(purchaseDate.trim()));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("purchaseDate: expected yyyy-MM-dd");
+            }
+        }
+        String value = blankToNull(field(fields, columns, "value"));
+        if (value != null) {
+            try {
+                request.setValue(new BigDecimal(value.trim()));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("value: not a number");
+            }
+        }
+        String status = blankToNull(field(fields, columns, "status"));
+        if (status != null) {
+            request.setStatus(parseEnum(AssetStatus.class, status, "status"));
+        }
+        String condition = blankToNull(field(fields, columns, "condition"));
+        if (condition != null) {
+            request.setCondition(parseEnum(AssetCondition.class, condition, "condition"));
+        }
+        request.setDescription(blankToNull(field(fields, columns, "description")));
+        return request;
+    }
+
+    private static Long assigneeId(AssetRequest request) {
+        Long assignedTo = request.getAssignedTo();
+        return assignedTo == null || assignedTo == 0 ? null : assignedTo;
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        return index == null || index >= fields.size() ? null : fields.get(index);
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    private static Long parseLong(String value, String name) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + ": not a number");
+        }
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value, String name) {
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(name + ": unknown value " + value);
+        }
+    }
+
+    private static String stripBom(String line) {
+        return line.startsWith("\uFEFF") ? line.substring(1) : line;
+    }
+
+    private static AssetImportError error(int row, String code, String message) {
+        return AssetImportError.builder().row(row).code(code).message(message).build();
+    }
+
+    private static <T> Map<Long, T> findAllInChunks(Set<Long> ids, Function<List<Long>, List<T>> loader,
+            Function<T, Long> idOf) {
+        Map<Long, T> result = new HashMap<>();
+        for (List<Long> chunk : chunks(new ArrayList<>(ids), LOOKUP_CHUNK_SIZE)) {
+            for (T entity : loader.apply(chunk)) {
+                result.put(idOf.apply(entity), entity);
+            }
+        }
+        return result;
+    }
+
+    private static <T> List<List<T>> chunks(List<T> items, int size) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int i = 0; i < items.size(); i += size) {
+            chunks.add(items.subList(i, Math.min(i + size, items.size())));
+        }
+        return chunks;
+    }
+
+    private static class ImportRow {
+        private final int number;
+        private final AssetRequest request;
+
+        private ImportRow(int number, AssetRequest request) {
+            this.number = number;
+            this.request = request;
+        }
+    }
+}
@@ -1,41 +1,82 @@
 package com.example.demo.service;
 
+import java.time.DateTimeException;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.example.demo.dto.CursorPage;
 import com.example.demo.dto.asset.EvaluateRequest;
+import com.example.demo.dto.asset.ArchivedHistoryRow;
+import com.example.demo.dto.asset.AssetAssignItem;
+import com.example.demo.dto.asset.AssetBatchItemResult;
+import com.example.demo.dto.asset.AssetFilter;
+import com.example.demo.dto.asset.AssetHistoryFilter;
 import com.example.demo.dto.asset.AssetHistoryResponse;
+import com.example.demo.dto.asset.AssetHistoryRow;
+import com.example.demo.dto.asset.AssetPatchRequest;
 import com.example.demo.dto.asset.AssetRequest;
 import com.example.demo.dto.asset.AssetResponse;
+import com.example.demo.dto.asset.AssetStateResponse;
+import com.example.demo.dto.asset.AssetStatsResponse;
 import com.example.demo.entity.Asset;
 import com.example.demo.entity.AssetHistory;
 import com.example.demo.entity.AssetType;
 import com.example.demo.entity.User;
+import com.example.demo.enums.AssetCondition;
 import com.example.demo.enums.AssetHistoryAction;
 import com.example.demo.enums.AssetStatus;
-import com.example.demo.enums.NotificationType;
+import com.example.demo.exception.ConflictException;
 import com.example.demo.exception.DataNotFound;
-import com.example.demo.entity.Notification;
-import com.example.demo.entity.Department;
+import com.example.demo.exception.InvalidRequest;
+import com.example.demo.entity.NotificationEvent;
 import com.example.demo.repository.AssetHistoryRepository;
 import com.example.demo.repository.AssetRepository;
+import com.example.demo.repository.AssetSpecifications;
 import com.example.demo.repository.AssetTypeRepository;
-import com.example.demo.repository.NotificationRepository;
 import com.example.demo.repository.UserRepository;
+import com.example.demo.service.cache.AssetDetailCache;
+import com.example.demo.service.etag.AggregateVersions;
+import com.example.demo.service.etag.AggregateVersions.Aggregate;
+import com.example.demo.service.history.AssetHistoryArchive;
+import com.example.demo.service.history.AssetHistoryWriter;
+import com.example.demo.service.notification.NotificationOutbox;
+import com.example.demo.service.search.AssetSearchIndex;
+import com.example.demo.service.stats.AssetStatsCounters;
 
 import lombok.RequiredArgsConstructor;
 
 @Service
 @RequiredArgsConstructor
 public class AssetService {
+        private static final int DEFAULT_PAGE_SIZE = 50;
+        private static final int MAX_PAGE_SIZE = 200;
+
         private final AssetRepository assetRepository;
         private final AssetTypeRepository assetTypeRepository;
         private final UserRepository userRepository;
         private final AssetHistoryRepository assetHistoryRepository;
-        private final NotificationRepository notificationRepository;
-
+        private final AssetHistoryWriter assetHistoryWriter;
+        private final AssetHistoryArchive assetHistoryArchive;
+        private final NotificationOutbox notificationOutbox;
+        private final AssetSearchIndex assetSearchIndex;
+        private final AssetDetailCache assetDetailCache;
+        private final AssetStatsCounters assetStatsCounters;
+        private final AggregateVersions aggregateVersions;
+
+        @Transactional
         public void create(AssetRequest assetRequest) {
                 AssetType type = assetTypeRepository.findById(assetRequest.getTypeId())
                                 .orElseThrow(() -> new DataNotFound("Asset type not found"));
@@ -57,6 +98,9 @@ public class AssetService {
                                 .description(assetRequest.getDescription())
                                 .build();
                 assetRepository.save(asset);
+                assetSearchIndex.index(asset);
+                assetStatsCounters.applyChange(null, AssetStatsCounters.Snapshot.of(asset));
+                aggregateVersions.bump(Aggregate.ASSETS);
 
                 AssetHistory history = AssetHistory.builder()
                                 .asset(asset)
@@ -64,13 +108,14 @@ public class AssetService {
                                 .performedAt(Instant.now())
                                 .performedBy(user)
                                 .details(String.format("Created asset %d (%s)", asset.getId(), asset.getName()))
-                                .previousStatus(asset.getStatus())
-                                .newStatus(asset.getStatus())
+                                .before(AssetHistory.State.of(asset))
+                                .after(asset)
                                 .build();
-                assetHistoryRepository.save(history);
+                assetHistoryWriter.record(history);
 
         }
 
+        @Transactional
         public void update(Long id, AssetRequest assetRequest) {
                 Asset asset = assetRepository.findById(id)
                                 .orElseThrow(() -> new DataNotFound("Asset not found"));
@@ -84,6 +129,9 @@ public class AssetService {
                                         .orElseThrow(() -> new DataNotFound("User not found"));
                 }
 
+                String previousCode = asset.getCode();
+                AssetHistory.State previous = AssetHistory.State.of(asset);
+                AssetStatsCounters.Snapshot before = AssetStatsCounters.Snapshot.of(asset);
                 asset.setCode(assetRequest.getCode());
                 asset.setName(assetRequest.getName());
                 asset.setType(type);
@@ -95,6 +143,10 @@ public class AssetService {
                 asset.setDescription(assetRequest.getDescription());
 
                 assetRepository.save(asset);
+                assetSearchIndex.index(asset);
+                assetDetailCache.evict(asset.getId(), previousCode);
+                assetStatsCounters.applyChange(before, AssetStatsCounters.Snapshot.of(asset));
+                aggregateVersions.bump(Aggregate.ASSETS);
 
                 AssetHistory history = AssetHistory.builder()
                                 .asset(asset)
@@ -102,136 +154,235 @@ public class AssetService {
                                 .performedAt(Instant.now())
                                 .performedBy(user)
                                 .details(String.format("Updated asset %d (%s)", asset.getId(), asset.getName()))
-                                .previousStatus(asset.getStatus())
-                                .newStatus(asset.getStatus())
+                                .before(previous)
+                                .after(asset)
                                 .build();
-                assetHistoryRepository.save(history);
+                assetHistoryWriter.record(history);
         }
 
+        /**
+         * Applies only the fields present in {@code request}. The type and
+         * assignee are looked up only when their ids change, and since Asset
+         * uses dynamic updates the flush writes just the changed columns. A
+         * request that changes nothing writes nothing.
+         */
+        @Transactional
+        public void patch(Long id, AssetPatchRequest request) {
+                Asset asset = assetRepository.findDetailedById(id)
+                                .orElseThrow(() -> new DataNotFound("Asset not found"));
+
+                String previousCode = asset.getCode();
+                AssetHistory.State previous = AssetHistory.State.of(asset);
+                AssetStatsCounters.Snapshot before = AssetStatsCounters.Snapshot.of(asset);
+                List<String> changed = new ArrayList<>();
+
+                if (request.getCode() != null && !request.getCode().equals(asset.getCode())) {
+                        asset.setCode(request.getCode());
+                        changed.add("code");
+                }
+                if (request.getName() != null && !request.getName().equals(asset.getName())) {
+                        asset.setName(request.getName());
+                        changed.add("name");
+                }
+                if (request.getTypeId() != null
+                                && (asset.getType() == null || !request.getTypeId().equals(asset.getType().getId()))) {
+                        asset.setType(assetTypeRepository.findById(request.getTypeId())
+                                        .orElseThrow(() -> new DataNotFound("Asset type not found")));
+                        changed.add("type");
+                }
+                if (request.getAssignedTo() != null) {
+                        Long currentUserId = asset.getAssignedTo() == null ? 0L : asset.getAssignedTo().getId();
+                        if (!request.getAssignedTo().equals(currentUserId)) {
+                                asset.setAssignedTo(request.getAssignedTo() == 0 ? null
+                                                : userRepository.findWithDepartmentById(request.getAssignedTo())
+                                                                .orElseThrow(() -> new DataNotFound("User not found")));
+                                changed.add("assignedTo");
+                        }
+                }
+                if (request.getPurchaseDate() != null && !request.getPurchaseDate().equals(asset.getPurchaseDate())) {
+                        asset.setPurchaseDate(request.getPurchaseDate());
+                        changed.add("purchaseDate");
+                }
+                if (request.getValue() != null
+                                && (asset.getValue() == null || request.getValue().compareTo(asset.getValue()) != 0)) {
+                        asset.setValue(request.getValue());
+                        changed.add("value");
+                }
+                if (request.getStatus() != null && request.getStatus() != asset.getStatus()) {
+                        asset.setStatus(request.getStatus());
+                        changed.add("status");
+                }
+                if (request.getCondition() != null && request.getCondition() != asset.getCondition()) {
+                        asset.setCondition(request.getCondition());
+                        changed.add("condition");
+                }
+                if (request.getDescription() != null && !request.getDescription().equals(asset.getDescription())) {
+                        asset.setDescription(request.getDescription());
+                        changed.add("description");
+                }
+                if (changed.isEmpty()) {
+                        return;
+                }
+
+                assetRepository.save(asset);
+                assetSearchIndex.index(asset);
+                assetDetailCache.evict(asset.getId(), previousCode);
+                assetStatsCounters.applyChange(before, AssetStatsCounters.Snapshot.of(asset));
+                aggregateVersions.bump(Aggregate.ASSETS);
+
+                assetHistoryWriter.record(AssetHistory.builder()
+                                .asset(asset)
+                                .actionType(AssetHistoryAction.UPDATED)
+                                .performedAt(Instant.now())
+                                .performedBy(asset.getAssignedTo())
+                                .details(String.format("Updated asset %d (%s): %s", asset.getId(), asset.getName(),
+                                                String.join(", ", changed)))
+                                .before(previous)
+                                .after(asset)
+                                .build());
+        }
+
+        @Transactional
         public void delete(Long id) {
                 Asset asset = assetRepository.findById(id)
                                 .orElseThrow(() -> new DataNotFound("Asset not found"));
                 assetRepository.delete(asset);
+                assetSearchIndex.remove(asset.getId());
+                assetDetailCache.evict(asset.getId(), asset.getCode());
+                assetStatsCounters.applyChange(AssetStatsCounters.Snapshot.of(asset), null);
+                aggregateVersions.bump(Aggregate.ASSETS);
                 AssetHistory history = AssetHistory.builder()
                                 .asset(asset)
                                 .actionType(AssetHistoryAction.DELETED)
                                 .performedAt(Instant.now())
                                 .details(String.format("Deleted asset %d (%s)", asset.getId(), asset.getName()))
-                                .previousStatus(asset.getStatus())
+                                .before(AssetHistory.State.of(asset))
                                 .newStatus(null)
                                 .build();
-                assetHistoryRepository.save(history);
+                assetHistoryWriter.record(history);
+        }
+
+        public AssetStatsResponse getStats() {
+                return assetStatsCounters.getStats();
         }
 
         public AssetResponse getById(Long id) {
-                Asset asset = assetRepository.findById(id)
+                return assetDetailCache.getDetail(id, this::loadDetail);
+        }
+
+        /**
+         * The detail at least as new as {@code version}. A copy cached before
+         * a write on another node is reloaded, so it cannot be served under
+         * the newer version's ETag.
+         */
+        public AssetResponse getById(Long id, long version) {
+                AssetResponse detail = getById(id);
+                if (detail.getVersion() < version) {
+                        assetDetailCache.evict(id);
+                        detail = getById(id);
+                }
+                return detail;
+        }
+
+        public AssetResponse getByCode(String code) {
+                return getById(getIdByCode(code));
+        }
+
+        public Long getIdByCode(String code) {
+                Long id = assetDetailCache.getIdByCode(code,
+                                key -> assetRepository.findIdByCode(key).orElse(null));
+                if (id == null) {
+                        throw new DataNotFound("Asset not found");
+                }
+                return id;
+        }
+
+        /**
+         * The asset's row version, read without loading the asset, for the
+         * detail ETag.
+         */
+        public long getVersion(Long id) {
+                return assetRepository.findVersionById(id)
                                 .orElseThrow(() -> new DataNotFound("Asset not found"));
+        }
 
-                AssetType type = assetTypeRepository.findById(id)
-                                .orElseThrow(() -> new DataNotFound("Asset type not found"));
+        private AssetResponse loadDetail(Long id) {
+                Asset asset = assetRepository.findDetailedById(id)
+                                .orElseThrow(() -> new DataNotFound("Asset not found"));
+                return AssetResponse.fromEntity(asset);
+        }
 
-                return AssetResponse.builder()
-                                .id(asset.getId())
-                                .code(asset.getCode())
-                                .name(asset.getName())
-                                .typeId(type.getId())
-                                .assignedTo(asset.getAssignedTo() == null ? null : asset.getAssignedTo().getId())
-                                .departmentId(asset.getAssignedTo() == null ? null
-                                                : asset.getAssignedTo().getDepartment().getId())
-                                .purchaseDate(asset.getPurchaseDate())
-                                .value(asset.getValue())
-                                .status(asset.getStatus())
-                                .condition(asset.getCondition())
-                                .description(asset.getDescription())
-                                .createdBy(asset.getCreatedBy() == null ? null : asset.getCreatedBy().getId())
-                                .createdAt(asset.getCreatedAt())
+        public CursorPage<AssetResponse> getPage(AssetFilter filter, String cursor, Integer size) {
+                int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+
+                Specification<Asset> spec = AssetSpecifications.matching(filter);
+                if (cursor != null && !cursor.isBlank()) {
+                        spec = spec.and(AssetSpecifications.idBefore(decodeAssetCursor(cursor)));
+                }
+
+                // fetch one extra row to know whether another page exists without a COUNT query
+                List<Asset> assets = assetRepository.findPage(spec, pageSize + 1);
+
+                boolean hasMore = assets.size() > pageSize;
+                List<AssetResponse> items = assets.stream()
+                                .limit(pageSize)
+                                .map(AssetResponse::fromEntity)
+                                .toList();
+
+                return CursorPage.<AssetResponse>builder()
+                                .items(items)
+                                .nextCursor(hasMore ? CursorPage.encodeCursor(items.get(items.size() - 1).getId()) : null)
                                 .build();
         }
 
-        public List<AssetResponse> getAll() {
-                List<Asset> assets = assetRepository.findAll();
-                return assets.stream().map(asset -> AssetResponse.builder()
-                                .id(asset.getId())
-                                .code(asset.getCode())
-                                .name(asset.getName())
-                                .typeId(asset.getType().getId())
-                                .assignedTo(asset.getAssignedTo() == null ? null : asset.getAssignedTo().getId())
-                                .departmentId(asset.getAssignedTo() == null ? null
-                                                : asset.getAssignedTo().getDepartment().getId())
-                                .purchaseDate(asset.getPurchaseDate())
-                                .value(asset.getValue())
-                                .status(asset.getStatus())
-                                .condition(asset.getCondition())
-                                .description(asset.getDescription())
-                                .createdBy(asset.getCreatedBy() == null ? null : asset.getCreatedBy().getId())
-                                .createdAt(asset.getCreatedAt())
-                                .build()).toList();
+        private Long decodeAssetCursor(String cursor) {
+                try {
+                        return Long.parseLong(CursorPage.decodeCursor(cursor, 1)[0]);
+                } catch (NumberFormatException e) {
+                        throw new InvalidRequest("Invalid cursor");
+                }
         }
 
+        /**
+         * Assigns an in-stock asset with one conditional UPDATE on status and
+         * version rather than read-modify-write, so of two concurrent callers
+         * exactly one wins and the other gets a conflict instead of silently
+         * overwriting. History and notification events are written only by the winner.
+         */
+        @Transactional
         public void assign(Long assetId, Long userId) {
-                Asset asset = assetRepository.findById(assetId)
+                Asset asset = assetRepository.findDetailedById(assetId)
                                 .orElseThrow(() -> new DataNotFound("Asset not found"));
 
-                User user = userRepository.findById(userId)
+                User user = userRepository.findWithDepartmentById(userId)
                                 .orElseThrow(() -> new DataNotFound("User not found"));
 
-                AssetStatus previousStatus = asset.getStatus();
+                AssetHistory.State previous = AssetHistory.State.of(asset);
+                AssetStatsCounters.Snapshot before = AssetStatsCounters.Snapshot.of(asset);
+                if (previous.status() != AssetStatus.IN_STOCK) {
+                        throw new ConflictException("Asset is not in stock");
+                }
+                if (assetRepository.assignIfInStock(asset.getId(), asset.getVersion(), user) == 0) {
+                        throw new ConflictException("Asset was assigned or modified concurrently");
+                }
 
+                // the update cleared the persistence context; keep the detached copy in step for history
                 asset.setAssignedTo(user);
                 asset.setStatus(AssetStatus.IN_USE);
+                asset.setVersion(asset.getVersion() + 1);
+                assetDetailCache.evict(asset.getId());
+                assetStatsCounters.applyChange(before, AssetStatsCounters.Snapshot.of(asset));
 
-                assetRepository.save(asset);
-
-                AssetHistory history = AssetHistory.builder()
-                                .asset(asset)
-                                .actionType(AssetHistoryAction.ASSIGNED)
-                                .performedAt(Instant.now())
-                                .performedBy(user)
-                                .details(String.format("Assigned to user %d (%s)", user.getId(), user.getName()))
-                                .previousStatus(previousStatus)
-                                .newStatus(asset.getStatus())
-                                .build();
-                assetHistoryRepository.save(history);
+                assetHistoryWriter.record(assignedHistory(asset, user, previous));
 
-                // Tạo notification cho user được assign
-                Notification notification = Notification.builder()
-                                .user(user)
-                                .asset(asset)
-                                .title("Tài sản đã được gán cho bạn")
-                                .message(String.format("Tài sản %s (%s) đã được gán cho bạn. Mã tài sản: %s",
-                                                asset.getName(), asset.getType().getName(), asset.getCode()))
-                                .type(NotificationType.INFO)
-                                .isRead(false)
-                                .build();
-                notificationRepository.save(notification);
-
-                // Tạo notification cho manager của department (nếu có)
-                if (user.getDepartment() != null) {
-                        Department department = user.getDepartment();
-                        if (department.getManagerId() != null) {
-                                User manager = userRepository.findById(department.getManagerId())
-                                                .orElse(null);
-                                if (manager != null) {
-                                        Notification managerNotification = Notification.builder()
-                                                        .user(manager)
-                                                        .asset(asset)
-                                                        .title("Tài sản đã được gán cho nhân viên trong phòng ban")
-                                                        .message(String.format(
-                                                                        "Tài sản %s (%s) đã được gán cho %s trong phòng ban %s. Mã tài sản: %s",
-                                                                        asset.getName(), asset.getType().getName(),
-                                                                        user.getName(), department.getName(),
-                                                                        asset.getCode()))
-                                                        .type(NotificationType.INFO)
-                                                        .isRead(false)
-                                                        .build();
-                                        notificationRepository.save(managerNotification);
-                                }
-                        }
-                }
+                // Tạo notification cho user được assign và manager của department (nếu có)
+                notificationOutbox.add(NotificationEvent.assetAssigned(asset.getId(), user.getId()));
+                aggregateVersions.bump(Aggregate.ASSETS);
         }
 
+        @Transactional
         public void revoke(Long assetId) {
-                Asset asset = assetRepository.findById(assetId)
+                Asset asset = assetRepository.findDetailedById(assetId)
                                 .orElseThrow(() -> new DataNotFound("Asset not found"));
 
                 User currentUser = asset.getAssignedTo();
@@ -239,62 +390,251 @@ public class AssetService {
                         throw new DataNotFound("Asset is not currently assigned to any user");
                 }
 
-                AssetStatus previousStatus = asset.getStatus();
+                AssetHistory.State previous = AssetHistory.State.of(asset);
+                AssetStatsCounters.Snapshot before = AssetStatsCounters.Snapshot.of(asset);
 
                 asset.setAssignedTo(null);
                 asset.setStatus(AssetStatus.IN_STOCK);
 
                 assetRepository.save(asset);
+                assetDetailCache.evict(asset.getId());
+                assetStatsCounters.applyChange(before, AssetStatsCounters.Snapshot.of(asset));
 
-                AssetHistory history = AssetHistory.builder()
+                assetHistoryWriter.record(reclaimedHistory(asset, currentUser, previous));
+
+                // Tạo notification cho user bị thu hồi
+                notificationOutbox.add(NotificationEvent.assetRevoked(asset.getId(), currentUser.getId()));
+                aggregateVersions.bump(Aggregate.ASSETS);
+        }
+
+        /**
+         * Assigns many assets in one transaction. Assets and users are each
+         * loaded with a single query, and history and notification events are
+         * written with batched inserts; who gets notified is worked out by the
+         * outbox dispatcher. Items that fail validation are reported and
+         * skipped; the rest are applied.
+         */
+        @Transactional
+        public List<AssetBatchItemResult> assignBatch(List<AssetAssignItem> items) {
+                Map<Long, Asset> assets = assetRepository.findDetailedByIdIn(
+                                items.stream().map(AssetAssignItem::getAssetId).collect(Collectors.toSet()))
+                                .stream().collect(Collectors.toMap(Asset::getId, Function.identity()));
+                Map<Long, User> users = userRepository.findWithDepartmentByIdIn(
+                                items.stream().map(AssetAssignItem::getUserId).collect(Collectors.toSet()))
+                                .stream().collect(Collectors.toMap(User::getId, Function.identity()));
+
+                List<AssetBatchItemResult> results = new ArrayList<>(items.size());
+                List<Asset> assigned = new ArrayList<>();
+                List<AssetHistory> histories = new ArrayList<>();
+                List<NotificationEvent> events = new ArrayList<>();
+                Set<Long> seenAssets = new HashSet<>();
+                for (AssetAssignItem item : items) {
+                        Asset asset = assets.get(item.getAssetId());
+                        User user = users.get(item.getUserId());
+                        String error = null;
+                        if (asset == null) {
+                                error = "Asset not found";
+                        } else if (user == null) {
+                                error = "User not found";
+                        } else if (!seenAssets.add(asset.getId())) {
+                                error = "Asset appears more than once in batch";
+                        } else if (asset.getStatus() != AssetStatus.IN_STOCK) {
+                                error = "Asset is not in stock";
+                        }
+                        if (error != null) {
+                                results.add(AssetBatchItemResult.failed(item.getAssetId(), item.getUserId(), error));
+                                continue;
+                        }
+
+                        AssetHistory.State previous = AssetHistory.State.of(asset);
+                        AssetStatsCounters.Snapshot before = AssetStatsCounters.Snapshot.of(asset);
+                        asset.setAssignedTo(user);
+                        asset.setStatus(AssetStatus.IN_USE);
+                        assetStatsCounters.applyChange(before, AssetStatsCounters.Snapshot.of(asset));
+                        histories.add(assignedHistory(asset, user, previous));
+                        events.add(NotificationEvent.assetAssigned(asset.getId(), user.getId()));
+                        assigned.add(asset);
+                        results.add(AssetBatchItemResult.succeeded(asset.getId(), user.getId()));
+                }
+
+                assetRepository.saveAll(assigned);
+                assigned.forEach(asset -> assetDetailCache.evict(asset.getId()));
+                assetHistoryWriter.recordAll(histories);
+                notificationOutbox.addAll(events);
+                aggregateVersions.bump(Aggregate.ASSETS);
+                return results;
+        }
+
+        @Transactional
+        public List<AssetBatchItemResult> revokeBatch(List<Long> assetIds) {
+                Map<Long, Asset> assets = assetRepository.findDetailedByIdIn(new HashSet<>(assetIds))
+                                .stream().collect(Collectors.toMap(Asset::getId, Function.identity()));
+
+                List<AssetBatchItemResult> results = new ArrayList<>(assetIds.size());
+                List<Asset> revoked = new ArrayList<>();
+                List<AssetHistory> histories = new ArrayList<>();
+                List<NotificationEvent> events = new ArrayList<>();
+                for (Long assetId : assetIds) {
+                        Asset asset = assets.get(assetId);
+                        User currentUser = asset == null ? null : asset.getAssignedTo();
+                        if (asset == null || currentUser == null) {
+                                results.add(AssetBatchItemResult.failed(assetId, null, asset == null
+                                                ? "Asset not found"
+                                                : "Asset is not currently assigned to any user"));
+                                continue;
+                        }
+
+                        AssetHistory.State previous = AssetHistory.State.of(asset);
+                        AssetStatsCounters.Snapshot before = AssetStatsCounters.Snapshot.of(asset);
+                        asset.setAssignedTo(null);
+                        asset.setStatus(AssetStatus.IN_STOCK);
+                        assetStatsCounters.applyChange(before, AssetStatsCounters.Snapshot.of(asset));
+                        histories.add(reclaimedHistory(asset, currentUser, previous));
+                        events.add(NotificationEvent.assetRevoked(assetId, currentUser.getId()));
+                        revoked.add(asset);
+                        results.add(AssetBatchItemResult.succeeded(assetId, currentUser.getId()));
+                }
+
+                assetRepository.saveAll(revoked);
+                revoked.forEach(asset -> assetDetailCache.evict(asset.getId()));
+                assetHistoryWriter.recordAll(histories);
+                notificationOutbox.addAll(events);
+                aggregateVersions.bump(Aggregate.ASSETS);
+                return results;
+        }
+
+        private AssetHistory assignedHistory(Asset asset, User user, AssetHistory.State previous) {
+                return AssetHistory.builder()
+                                .asset(asset)
+                                .actionType(AssetHistoryAction.ASSIGNED)
+                                .performedAt(Instant.now())
+                                .performedBy(user)
+                                .details(String.format("Assigned to user %d (%s)", user.getId(), user.getName()))
+                                .before(previous)
+                                .after(asset)
+                                .build();
+        }
+
+        private AssetHistory reclaimedHistory(Asset asset, User currentUser, AssetHistory.State previous) {
+                return AssetHistory.builder()
                                 .asset(asset)
                                 .actionType(AssetHistoryAction.RECLAIMED)
                                 .performedAt(Instant.now())
                                 .performedBy(currentUser)
                                 .details(String.format("Assignment reclaimed from user %d (%s)", currentUser.getId(),
                                                 currentUser.getName()))
-                                .previousStatus(previousStatus)
-                                .newStatus(asset.getStatus())
+                                .before(previous)
+                                .after(asset)
                                 .build();
-                assetHistoryRepository.save(history);
+        }
 
-                // Tạo notification cho user bị thu hồi
-                Notification notification = Notification.builder()
-                                .user(currentUser)
-                                .asset(asset)
-                                .title("Tài sản đã được thu hồi")
-                                .message(String.format("Tài sản %s (%s) đã được thu hồi từ bạn. Mã tài sản: %s",
-                                                asset.getName(), asset.getType().getName(), asset.getCode()))
-                                .type(NotificationType.WARNING)
-                                .isRead(false)
+        public CursorPage<AssetHistoryResponse> getHistoryPage(AssetHistoryFilter filter, String cursor, Integer size) {
+                int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+                if (filter.getAssetId() != null && !assetRepository.existsById(filter.getAssetId())) {
+                        throw new DataNotFound("Asset not found");
+                }
+
+                Instant beforeAt = null;
+                long beforeId = Long.MAX_VALUE;
+                if (cursor != null && !cursor.isBlank()) {
+                        String[] parts = CursorPage.decodeCursor(cursor, 3);
+                        try {
+                                beforeAt = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+                                beforeId = Long.parseLong(parts[2]);
+                        } catch (NumberFormatException | DateTimeException e) {
+                                throw new InvalidRequest("Invalid cursor");
+                        }
+                }
+
+                // one extra row tells whether another page exists, as in getPage
+                List<AssetHistoryRow> rows = assetHistoryRepository.findPage(filter, beforeAt, beforeId, pageSize + 1);
+                if (rows.size() <= pageSize) {
+                        // the table ran out; anything older has been archived
+                        rows = mergeNewestFirst(rows,
+                                        assetHistoryArchive.findPage(filter, beforeAt, beforeId, pageSize + 1),
+                                        pageSize + 1);
+                }
+
+                boolean hasMore = rows.size() > pageSize;
+                List<AssetHistoryRow> page = hasMore ? rows.subList(0, pageSize) : rows;
+                AssetHistoryRow last = page.isEmpty() ? null : page.get(page.size() - 1);
+                return CursorPage.<AssetHistoryResponse>builder()
+                                .items(page.stream().map(AssetHistoryResponse::fromRow).toList())
+                                .nextCursor(hasMore
+                                                ? CursorPage.encodeCursor(last.performedAt().getEpochSecond(),
+                                                                last.performedAt().getNano(), last.id())
+                                                : null)
                                 .build();
-                notificationRepository.save(notification);
         }
 
-        public List<AssetHistoryResponse> getAllAssetHistory() {
-                List<AssetHistory> histories = assetHistoryRepository.findAllByOrderByPerformedAtAsc();
-                return histories.stream().map(history -> AssetHistoryResponse.builder()
-                                .id(history.getId())
-                                .assetId(history.getAsset().getId())
-                                .actionType(history.getActionType().name())
-                                .performedBy(history.getPerformedBy() == null ? null : history.getPerformedBy().getId())
-                                .performedAt(history.getPerformedAt().toString())
-                                .details(history.getDetails())
-                                .notes(history.getNotes())
-                                .previousStatus(history.getPreviousStatus() == null ? null
-                                                : history.getPreviousStatus().name())
-                                .newStatus(history.getNewStatus() == null ? null : history.getNewStatus().name())
-                                .build()).toList();
+        /**
+         * Status, condition and holder of an asset at {@code at}. Every history
+         * entry records the complete tracked state after its change, so the
+         * latest entry at or before {@code at} is the answer; nothing is replayed.
+         * When the table has none, the entry may have been archived.
+         */
+        public AssetStateResponse getStateAt(Long assetId, Instant at) {
+                AssetHistory latest = assetHistoryRepository.findLatestAt(assetId, at, Limit.of(1)).stream()
+                                .findFirst()
+                                .orElse(null);
+                if (latest != null) {
+                        return state(assetId, at, latest.getId(), latest.getActionType(), latest.getPerformedAt(),
+                                        latest.getNewStatus(), latest.getNewCondition(), latest.getNewAssigneeId());
+                }
+                ArchivedHistoryRow archived = assetHistoryArchive.findLatestAt(assetId, at)
+                                .orElseThrow(() -> new DataNotFound("Asset did not exist at that time"));
+                return state(assetId, at, archived.id(), archived.actionType(), archived.performedAt(),
+                                archived.newStatus(), archived.newCondition(), archived.newAssigneeId());
+        }
+
+        private AssetStateResponse state(Long assetId, Instant at, Long historyId, AssetHistoryAction action,
+                        Instant historyAt, AssetStatus status, AssetCondition condition, Long assignedTo) {
+                if (action == AssetHistoryAction.DELETED) {
+                        throw new DataNotFound("Asset had been deleted by that time");
+                }
+                return AssetStateResponse.builder()
+                                .assetId(assetId)
+                                .asOf(at)
+                                .status(status)
+                                .condition(condition)
+                                .assignedTo(assignedTo)
+                                .historyId(historyId)
+                                .historyAction(action)
+                                .historyAt(historyAt)
+                                .build();
+        }
+
+        private static List<AssetHistoryRow> mergeNewestFirst(List<AssetHistoryRow> hot, List<AssetHistoryRow> archived,
+                        int limit) {
+                if (archived.isEmpty()) {
+                        return hot;
+                }
+                // an entry can be in both while the archive job is between writing and deleting it
+                Map<Long, AssetHistoryRow> byId = new LinkedHashMap<>();
+                hot.forEach(row -> byId.put(row.id(), row));
+                archived.forEach(row -> byId.putIfAbsent(row.id(), row));
+                return byId.values().stream()
+                                .sorted(Comparator.comparing(AssetHistoryRow::performedAt)
+                                                .thenComparing(AssetHistoryRow::id)
+                                                .reversed())
+                                .limit(limit)
+                                .toList();
         }
 
+        @Transactional
         public void evaluate(Long assetId, EvaluateRequest assetHistoryRequest) {
                 User user = userRepository.findById(assetHistoryRequest.getPerformedBy())
                                 .orElseThrow(() -> new DataNotFound("User not found"));
                 Asset asset = assetRepository.findById(assetId)
                                 .orElseThrow(() -> new DataNotFound("Asset not found"));
 
+                AssetStatsCounters.Snapshot before = AssetStatsCounters.Snapshot.of(asset);
+                AssetHistory.State previous = AssetHistory.State.of(asset);
                 asset.setCondition(assetHistoryRequest.getCondition());
                 assetRepository.save(asset);
+                assetDetailCache.evict(asset.getId());
+                assetStatsCounters.applyChange(before, AssetStatsCounters.Snapshot.of(asset));
+                aggregateVersions.bump(Aggregate.ASSETS);
 
                 AssetHistory history = AssetHistory.builder()
                                 .asset(asset)
@@ -302,10 +642,10 @@ public class AssetService {
                                 .performedAt(Instant.now())
                                 .performedBy(user)
                                 .details(String.format("Evaluated asset id %d (%s)", asset.getId(), asset.getName()))
-                                .previousStatus(asset.getStatus())
-                                .newStatus(asset.getStatus())
+                                .before(previous)
+                                .after(asset)
                                 .notes(assetHistoryRequest.getNotes())
                                 .build();
-                assetHistoryRepository.save(history);
+                assetHistoryWriter.record(history);
         }
 }
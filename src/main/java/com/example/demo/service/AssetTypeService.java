@@ -9,6 +9,10 @@ import com.example.demo.dto.assettype.AssetTypeResponse;
 import com.example.demo.entity.AssetType;
 import com.example.demo.exception.DataNotFound;
 import com.example.demo.repository.AssetTypeRepository;
+import com.example.demo.service.depreciation.DepreciationEngine;
+import com.example.demo.service.etag.AggregateVersions;
+import com.example.demo.service.etag.AggregateVersions.Aggregate;
+import com.example.demo.service.search.AssetSearchIndex;
 
 import lombok.RequiredArgsConstructor;
 
@@ -16,14 +20,22 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class AssetTypeService {
     private final AssetTypeRepository assetTypeRepository;
+    private final AssetSearchIndex assetSearchIndex;
+    private final DepreciationEngine depreciationEngine;
+    private final AggregateVersions aggregateVersions;
 
     public void create(AssetTypeRequest request) {
         AssetType assetType = AssetType.builder()
                 .name(request.getName())
                 .description(request.getDescription())
                 .isActive(request.getIsActive())
+                .depreciationMethod(request.getDepreciationMethod())
+                .usefulLifeMonths(request.getUsefulLifeMonths())
+                .residualRate(request.getResidualRate())
                 .build();
         assetTypeRepository.save(assetType);
+        assetSearchIndex.onTypeSaved(assetType);
+        aggregateVersions.bump(Aggregate.ASSET_TYPES);
     }
 
     public void update(Long id, AssetTypeRequest request) throws DataNotFound {
@@ -32,28 +44,31 @@ public class AssetTypeService {
         assetType.setName(request.getName());
         assetType.setDescription(request.getDescription());
         assetType.setIsActive(request.getIsActive());
+        assetType.setDepreciationMethod(request.getDepreciationMethod());
+        assetType.setUsefulLifeMonths(request.getUsefulLifeMonths());
+        assetType.setResidualRate(request.getResidualRate());
         assetTypeRepository.save(assetType);
+        assetSearchIndex.onTypeSaved(assetType);
+        depreciationEngine.invalidate();
+        aggregateVersions.bump(Aggregate.ASSET_TYPES);
     }
 
     public void delete(Long id) {
         var assetType = assetTypeRepository.findById(id).orElseThrow();
         assetTypeRepository.delete(assetType);
+        aggregateVersions.bump(Aggregate.ASSET_TYPES);
     }
 
     public AssetTypeResponse getById(Long id) throws DataNotFound {
         return assetTypeRepository.findById(id)
-                .map(assetType -> new AssetTypeResponse(assetType.getId(), assetType.getName(),
-                        assetType.getDescription(),
-                        assetType.getIsActive()))
+                .map(AssetTypeResponse::fromEntity)
                 .orElseThrow(() -> new DataNotFound("Asset type not found"));
     }
 
     public List<AssetTypeResponse> getAll() {
         return assetTypeRepository.findAll()
                 .stream()
-                .map(assetType -> new AssetTypeResponse(assetType.getId(), assetType.getName(),
-                        assetType.getDescription(),
-                        assetType.getIsActive()))
+                .map(AssetTypeResponse::fromEntity)
                 .toList();
     }
 
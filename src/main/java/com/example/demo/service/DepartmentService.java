@@ -3,18 +3,17 @@ package com.example.demo.service;
 import java.util.List;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.example.demo.dto.department.DepartmentRequest;
 import com.example.demo.dto.department.DepartmentResponse;
 import com.example.demo.entity.Department;
-import com.example.demo.entity.Notification;
-import com.example.demo.entity.User;
-import com.example.demo.enums.NotificationType;
-import com.example.demo.enums.Role;
+import com.example.demo.entity.NotificationEvent;
 import com.example.demo.exception.DataNotFound;
 import com.example.demo.repository.DepartmentRepository;
-import com.example.demo.repository.NotificationRepository;
-import com.example.demo.repository.UserRepository;
+import com.example.demo.service.etag.AggregateVersions;
+import com.example.demo.service.etag.AggregateVersions.Aggregate;
+import com.example.demo.service.notification.NotificationOutbox;
 
 import lombok.RequiredArgsConstructor;
 
@@ -23,8 +22,8 @@ import lombok.RequiredArgsConstructor;
 public class DepartmentService {
 
     private final DepartmentRepository departmentRepository;
-    private final UserRepository userRepository;
-    private final NotificationRepository notificationRepository;
+    private final NotificationOutbox notificationOutbox;
+    private final AggregateVersions aggregateVersions;
 
     public void create(DepartmentRequest request) {
         Department department = Department.builder()
@@ -35,8 +34,10 @@ public class DepartmentService {
                 .employeeCount(request.getEmployeeCount())
                 .build();
         departmentRepository.save(department);
+        aggregateVersions.bump(Aggregate.DEPARTMENTS);
     }
 
+    @Transactional
     public void update(Long id, DepartmentRequest request) {
         Department department = departmentRepository.findById(id)
                 .orElseThrow(() -> new DataNotFound("Department not found"));
@@ -48,26 +49,11 @@ public class DepartmentService {
         department.setEmployeeCount(request.getEmployeeCount());
 
         departmentRepository.save(department);
+        aggregateVersions.bump(Aggregate.DEPARTMENTS);
 
         // Tạo notification cho manager của department (nếu có)
         if (department.getManagerId() != null) {
-            User manager = userRepository.findById(department.getManagerId())
-                    .orElse(null);
-            if (manager != null) {
-                Notification notification = Notification.builder()
-                        .user(manager)
-                        .asset(null)
-                        .title("Phòng ban đã được cập nhật")
-                        .message(String.format(
-                                "Phòng ban %s đã được cập nhật thông tin. Tên phòng ban: %s, Mô tả: %s, Số nhân viên: %d",
-                                department.getName(), department.getName(),
-                                department.getDescription() != null ? department.getDescription() : "Không có mô tả",
-                                department.getEmployeeCount()))
-                        .type(NotificationType.INFO)
-                        .isRead(false)
-                        .build();
-                notificationRepository.save(notification);
-            }
+            notificationOutbox.add(NotificationEvent.departmentUpdated(department.getId()));
         }
     }
 
@@ -75,36 +61,20 @@ public class DepartmentService {
         Department department = departmentRepository.findById(id)
                 .orElseThrow(() -> new DataNotFound("Department not found"));
         departmentRepository.delete(department);
+        aggregateVersions.bump(Aggregate.DEPARTMENTS);
     }
 
     public DepartmentResponse getById(Long id) {
-        Department department = departmentRepository.findById(id)
+        return departmentRepository.findResponseById(id)
                 .orElseThrow(() -> new DataNotFound("Department not found"));
-
-        Integer employeeCount = Math.toIntExact(userRepository.countByDepartmentId(department.getId()));
-        department.setEmployeeCount(employeeCount);
-        return DepartmentResponse.fromEntity(department);
     }
 
+    /**
+     * One statement however many departments there are: employee counts and,
+     * where managerId is not set, the user with role MANAGER in the department
+     * come from subqueries over users.department_id.
+     */
     public List<DepartmentResponse> getAll() {
-        // Update employee counts before returning
-        List<Department> departments = departmentRepository.findAll();
-
-        for (Department dept : departments) {
-            Integer employeeCount = Math.toIntExact(userRepository.countByDepartmentId(dept.getId()));
-            dept.setEmployeeCount(employeeCount);
-            // nếu manager id null thì tìm manager bằng cách tìm user có department id =
-            // dept id và role = "MANAGER"
-            if (dept.getManagerId() == null) {
-                var manager = userRepository.findByDepartmentIdAndRole(dept.getId(), Role.MANAGER);
-                if (manager != null) {
-                    dept.setManagerId(manager.getId());
-                }
-            }
-
-        }
-        return departments.stream()
-                .map(DepartmentResponse::fromEntity)
-                .toList();
+        return departmentRepository.findAllResponses();
     }
 }
@@ -1,36 +1,56 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.CursorPage;
 import com.example.demo.dto.notification.NotificationMarkerRequest;
 import com.example.demo.dto.notification.NotificationMarkerResponse;
 import com.example.demo.entity.Asset;
 import com.example.demo.entity.NotificationMarker;
 import com.example.demo.exception.DataNotFound;
+import com.example.demo.exception.InvalidRequest;
 import com.example.demo.repository.AssetRepository;
 import com.example.demo.repository.NotificationMarkerRepository;
+import com.example.demo.service.notification.MarkerRecurrence;
+import com.example.demo.service.notification.NotificationReminders;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
+import java.util.Objects;
 
 @Service
 @RequiredArgsConstructor
 public class NotificationMarkerService {
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final Duration DEFAULT_WITHIN = Duration.ofDays(1);
 
     private final NotificationMarkerRepository notificationMarkerRepository;
     private final AssetRepository assetRepository;
+    private final NotificationReminders notificationReminders;
 
+    @Transactional
     public void create(NotificationMarkerRequest request) {
         Asset asset = assetRepository.findById(request.getAssetId())
                 .orElseThrow(() -> new DataNotFound("Asset not found"));
 
+        MarkerRecurrence recurrence = MarkerRecurrence.parse(request.getRecurrence());
         NotificationMarker marker = NotificationMarker.builder()
                 .asset(asset)
                 .reminderMilestone(request.getReminderMilestone())
+                .recurrence(recurrence == null ? null : request.getRecurrence().trim())
+                .nextFireAt(request.getReminderMilestone())
                 .build();
 
         notificationMarkerRepository.save(marker);
+        notificationReminders.scheduled(marker);
     }
 
+    @Transactional
     public void update(Long id, NotificationMarkerRequest request) {
         NotificationMarker marker = notificationMarkerRepository.findById(id)
                 .orElseThrow(() -> new DataNotFound("Notification marker not found"));
@@ -38,10 +58,27 @@ public class NotificationMarkerService {
         Asset asset = assetRepository.findById(request.getAssetId())
                 .orElseThrow(() -> new DataNotFound("Asset not found"));
 
+        MarkerRecurrence recurrence = MarkerRecurrence.parse(request.getRecurrence());
+        String rule = recurrence == null ? null : request.getRecurrence().trim();
+        boolean moved = !request.getReminderMilestone().equals(marker.getReminderMilestone());
+        boolean rescheduled = !Objects.equals(rule, marker.getRecurrence());
+
         marker.setAsset(asset);
         marker.setReminderMilestone(request.getReminderMilestone());
+        marker.setRecurrence(rule);
+        if (moved || marker.getFiredAt() == null) {
+            // a moved milestone fires again, even if the old one already did
+            marker.setNextFireAt(marker.getReminderMilestone());
+        } else if (rescheduled) {
+            marker.setNextFireAt(recurrence == null
+                    ? null
+                    : recurrence.next(marker.getReminderMilestone(), Instant.now()));
+        }
 
         notificationMarkerRepository.save(marker);
+        if (moved || rescheduled) {
+            notificationReminders.scheduled(marker);
+        }
     }
 
     public void delete(Long id) {
@@ -56,6 +93,52 @@ public class NotificationMarkerService {
         return NotificationMarkerResponse.fromEntity(marker);
     }
 
+    /**
+     * Markers firing within {@code within} (ISO-8601, default one day) from
+     * now, overdue ones included, soonest first. Paging works like the
+     * notification inbox.
+     */
+    public CursorPage<NotificationMarkerResponse> getDue(String within, String cursor, Integer size) {
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        Duration window = DEFAULT_WITHIN;
+        if (within != null && !within.isBlank()) {
+            try {
+                window = Duration.parse(within.trim());
+            } catch (DateTimeException e) {
+                window = null;
+            }
+            if (window == null || window.isNegative()) {
+                throw new InvalidRequest("Invalid within, expected an ISO-8601 duration such as P7D");
+            }
+        }
+
+        Instant afterAt = NotificationMarkerRepository.FIRST_PAGE_AT;
+        long afterId = 0;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = CursorPage.decodeCursor(cursor, 3);
+            try {
+                afterAt = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+                afterId = Long.parseLong(parts[2]);
+            } catch (NumberFormatException | DateTimeException e) {
+                throw new InvalidRequest("Invalid cursor");
+            }
+        }
+
+        // one extra row tells whether another page exists
+        List<NotificationMarker> rows = notificationMarkerRepository.findDuePage(Instant.now().plus(window), afterAt,
+                afterId, Limit.of(pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        List<NotificationMarker> page = hasMore ? rows.subList(0, pageSize) : rows;
+        NotificationMarker last = page.isEmpty() ? null : page.get(page.size() - 1);
+        return CursorPage.<NotificationMarkerResponse>builder()
+                .items(page.stream().map(NotificationMarkerResponse::fromEntity).toList())
+                .nextCursor(hasMore
+                        ? CursorPage.encodeCursor(last.getNextFireAt().getEpochSecond(),
+                                last.getNextFireAt().getNano(), last.getId())
+                        : null)
+                .build();
+    }
+
     public List<NotificationMarkerResponse> getAll() {
         return notificationMarkerRepository.findAll().stream()
                 .map(NotificationMarkerResponse::fromEntity)
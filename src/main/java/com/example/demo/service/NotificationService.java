@@ -1,27 +1,45 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.CursorPage;
 import com.example.demo.dto.notification.NotificationRequest;
 import com.example.demo.dto.notification.NotificationResponse;
 import com.example.demo.entity.Asset;
 import com.example.demo.entity.Notification;
 import com.example.demo.entity.User;
 import com.example.demo.exception.DataNotFound;
+import com.example.demo.exception.InvalidRequest;
 import com.example.demo.repository.AssetRepository;
 import com.example.demo.repository.NotificationRepository;
 import com.example.demo.repository.UserRepository;
+import com.example.demo.service.etag.AggregateVersions;
+import com.example.demo.service.etag.AggregateVersions.Aggregate;
+import com.example.demo.service.notification.NotificationPush;
+import com.example.demo.service.notification.UnreadNotificationCounters;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.HashSet;
 import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class NotificationService {
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final NotificationRepository notificationRepository;
     private final UserRepository userRepository;
     private final AssetRepository assetRepository;
+    private final AggregateVersions aggregateVersions;
+    private final UnreadNotificationCounters unreadNotificationCounters;
+    private final NotificationPush notificationPush;
 
+    @Transactional
     public void create(NotificationRequest request) {
         User user = userRepository.findById(request.getUserId())
                 .orElseThrow(() -> new DataNotFound("User not found"));
@@ -43,8 +61,12 @@ public class NotificationService {
                 .build();
 
         notificationRepository.save(notification);
+        unreadNotificationCounters.added(notification);
+        notificationPush.publish(notification);
+        aggregateVersions.bump(Aggregate.NOTIFICATIONS);
     }
 
+    @Transactional
     public void update(Long id, NotificationRequest request) {
         Notification notification = notificationRepository.findById(id)
                 .orElseThrow(() -> new DataNotFound("Notification not found"));
@@ -58,6 +80,9 @@ public class NotificationService {
                     .orElseThrow(() -> new DataNotFound("Asset not found"));
         }
 
+        if (!Boolean.TRUE.equals(notification.getIsRead())) {
+            unreadNotificationCounters.adjust(notification.getUser().getId(), -1);
+        }
         notification.setUser(user);
         notification.setAsset(asset);
         notification.setTitle(request.getTitle());
@@ -67,12 +92,19 @@ public class NotificationService {
         notification.setLinkUrl(request.getLinkUrl());
 
         notificationRepository.save(notification);
+        unreadNotificationCounters.added(notification);
+        aggregateVersions.bump(Aggregate.NOTIFICATIONS);
     }
 
+    @Transactional
     public void delete(Long id) {
         Notification notification = notificationRepository.findById(id)
                 .orElseThrow(() -> new DataNotFound("Notification not found"));
         notificationRepository.delete(notification);
+        if (!Boolean.TRUE.equals(notification.getIsRead())) {
+            unreadNotificationCounters.adjust(notification.getUser().getId(), -1);
+        }
+        aggregateVersions.bump(Aggregate.NOTIFICATIONS);
     }
 
     public NotificationResponse getById(Long id) {
@@ -82,18 +114,126 @@ public class NotificationService {
     }
 
     public List<NotificationResponse> getAll() {
-        return notificationRepository.findAll().stream()
-                .map(NotificationResponse::fromEntity)
-                .toList();
+        return notificationRepository.findAllResponses();
     }
 
     public List<NotificationResponse> getByUserId(Long userId) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new DataNotFound("User not found"));
-        
-        return notificationRepository.findByUser_Id(userId).stream()
-                .map(NotificationResponse::fromEntity)
-                .toList();
+        if (!userRepository.existsById(userId)) {
+            throw new DataNotFound("User not found");
+        }
+        return notificationRepository.findResponsesByUserId(userId);
+    }
+
+    /**
+     * One page of a user's notifications, newest first, optionally only the
+     * unread ones. The cursor is the (createdAt, id) key of the last row
+     * served, so each page is a bounded index range scan however large the
+     * inbox grows.
+     */
+    public CursorPage<NotificationResponse> getInbox(Long userId, boolean unreadOnly, String cursor, Integer size) {
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        if (!userRepository.existsById(userId)) {
+            throw new DataNotFound("User not found");
+        }
+
+        Instant beforeAt = null;
+        long beforeId = Long.MAX_VALUE;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = CursorPage.decodeCursor(cursor, 3);
+            try {
+                beforeAt = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+                beforeId = Long.parseLong(parts[2]);
+            } catch (NumberFormatException | DateTimeException e) {
+                throw new InvalidRequest("Invalid cursor");
+            }
+        }
+
+        // one extra row tells whether another page exists
+        List<NotificationResponse> rows = notificationRepository.findInboxPage(userId, unreadOnly, beforeAt, beforeId,
+                pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        List<NotificationResponse> page = hasMore ? rows.subList(0, pageSize) : rows;
+        NotificationResponse last = page.isEmpty() ? null : page.get(page.size() - 1);
+        return CursorPage.<NotificationResponse>builder()
+                .items(page)
+                .nextCursor(hasMore
+                        ? CursorPage.encodeCursor(last.getCreatedAt().getEpochSecond(), last.getCreatedAt().getNano(),
+                                last.getId())
+                        : null)
+                .build();
+    }
+
+    public SseEmitter subscribe(Long userId, Long lastEventId) {
+        if (!userRepository.existsById(userId)) {
+            throw new DataNotFound("User not found");
+        }
+        return notificationPush.subscribe(userId, lastEventId);
+    }
+
+    public long getUnreadCount(Long userId) {
+        return unreadNotificationCounters.get(userId);
+    }
+
+    @Transactional
+    public void markRead(Long id) {
+        Notification notification = notificationRepository.findById(id)
+                .orElseThrow(() -> new DataNotFound("Notification not found"));
+        if (notificationRepository.markRead(id) > 0) {
+            unreadNotificationCounters.adjust(notification.getUser().getId(), -1);
+            aggregateVersions.bump(Aggregate.NOTIFICATIONS);
+        }
+    }
+
+    @Transactional
+    public int markAllRead(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new DataNotFound("User not found");
+        }
+        int marked = notificationRepository.markAllRead(userId);
+        if (marked > 0) {
+            unreadNotificationCounters.adjust(userId, -marked);
+            aggregateVersions.bump(Aggregate.NOTIFICATIONS);
+        }
+        return marked;
+    }
+
+    /**
+     * Marks the listed notifications of {@code userId} read with one UPDATE.
+     * Every row it changes was unread, so the count it returns is exactly
+     * what comes off the user's unread counter.
+     */
+    @Transactional
+    public int markRead(Long userId, List<Long> ids) {
+        if (!userRepository.existsById(userId)) {
+            throw new DataNotFound("User not found");
+        }
+        int marked = notificationRepository.markReadByIds(userId, new HashSet<>(ids));
+        if (marked > 0) {
+            unreadNotificationCounters.adjust(userId, -marked);
+            aggregateVersions.bump(Aggregate.NOTIFICATIONS);
+        }
+        return marked;
+    }
+
+    /**
+     * Deletes notifications created before {@code before} with one DELETE,
+     * for one user or, with {@code userId} null, for everyone. The unread
+     * ones among them are counted per user first and taken off the counters;
+     * one marked read in between is corrected by the next reconcile.
+     */
+    @Transactional
+    public int deleteBefore(Long userId, Instant before) {
+        if (userId != null && !userRepository.existsById(userId)) {
+            throw new DataNotFound("User not found");
+        }
+        List<NotificationRepository.UnreadCount> unread = notificationRepository
+                .countUnreadByUserCreatedBefore(userId, before);
+        int deleted = notificationRepository.deleteCreatedBefore(userId, before);
+        if (deleted > 0) {
+            unread.forEach(row -> unreadNotificationCounters.adjust(row.getUserId(), -row.getTotal()));
+            aggregateVersions.bump(Aggregate.NOTIFICATIONS);
+        }
+        return deleted;
     }
 }
 
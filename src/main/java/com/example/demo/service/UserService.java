@@ -3,14 +3,18 @@ package com.example.demo.service;
 import com.example.demo.dto.user.UserRequest;
 import com.example.demo.dto.user.UserResponse;
 import com.example.demo.entity.Department;
-import com.example.demo.entity.Notification;
+import com.example.demo.entity.NotificationEvent;
 import com.example.demo.entity.User;
-import com.example.demo.enums.NotificationType;
 import com.example.demo.repository.DepartmentRepository;
-import com.example.demo.repository.NotificationRepository;
 import com.example.demo.repository.UserRepository;
+import com.example.demo.service.cache.AssetDetailCache;
+import com.example.demo.service.depreciation.DepreciationEngine;
+import com.example.demo.service.etag.AggregateVersions;
+import com.example.demo.service.etag.AggregateVersions.Aggregate;
+import com.example.demo.service.notification.NotificationOutbox;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -19,7 +23,10 @@ import java.util.List;
 public class UserService {
     private final UserRepository userRepository;
     private final DepartmentRepository departmentRepository;
-    private final NotificationRepository notificationRepository;
+    private final NotificationOutbox notificationOutbox;
+    private final AssetDetailCache assetDetailCache;
+    private final DepreciationEngine depreciationEngine;
+    private final AggregateVersions aggregateVersions;
 
     public List<UserResponse> getAll() {
         return userRepository.findAll().stream().map(UserResponse::fromUser).toList();
@@ -33,8 +40,11 @@ public class UserService {
 
     public void delete(Long id) {
         userRepository.deleteById(id);
+        // department employee counts are derived from users
+        aggregateVersions.bump(Aggregate.DEPARTMENTS);
     }
 
+    @Transactional
     public void create(UserRequest userRequest) {
 
         Department department = departmentRepository.findById(userRequest.getDepartmentId())
@@ -49,11 +59,13 @@ public class UserService {
                 .department(department)
                 .build();
         User savedUser = userRepository.save(user);
+        aggregateVersions.bump(Aggregate.DEPARTMENTS);
 
         // Gửi thông báo cho người dùng mới được tạo
-        createNotificationForUser(savedUser, NotificationType.USER_CREATED);
+        notificationOutbox.add(NotificationEvent.userCreated(savedUser.getId()));
     }
 
+    @Transactional
     public void update(Long id, UserRequest userRequest) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found"));
@@ -61,15 +73,23 @@ public class UserService {
         Department department = departmentRepository.findById(userRequest.getDepartmentId())
                 .orElseThrow(() -> new RuntimeException("Department not found"));
 
+        // cached asset details and valuations carry the assignee's department id
+        if (user.getDepartment() == null || !user.getDepartment().getId().equals(department.getId())) {
+            assetDetailCache.evictAll();
+            depreciationEngine.invalidate();
+            aggregateVersions.bump(Aggregate.ASSETS, Aggregate.ASSIGNEES);
+        }
+
         user.setName(userRequest.getName());
         user.setRole(userRequest.getRole());
         user.setDepartment(department);
         user.setActive(userRequest.getActive());
         userRepository.save(user);
         User updatedUser = userRepository.save(user);
+        aggregateVersions.bump(Aggregate.DEPARTMENTS);
 
         // Gửi thông báo cho người dùng được cập nhật
-        createNotificationForUser(updatedUser, NotificationType.USER_UPDATED);
+        notificationOutbox.add(NotificationEvent.userUpdated(updatedUser.getId()));
     }
 
     public List<UserResponse> getByDepartment(Long departmentId) {
@@ -80,43 +100,4 @@ public class UserService {
                 .map(UserResponse::fromUser)
                 .toList();
     }
-
-    /**
-     * Tạo thông báo cho người dùng khi admin thêm hoặc cập nhật thông tin
-     */
-    private void createNotificationForUser(User user, NotificationType type) {
-        String title;
-        String message;
-
-        if (type == NotificationType.USER_CREATED) {
-            title = "Tài khoản của bạn đã được tạo";
-            message = String.format("Xin chào %s, tài khoản của bạn đã được tạo thành công bởi quản trị viên. " +
-                    "Email: %s, Phòng ban: %s, Vai trò: %s",
-                    user.getName(),
-                    user.getEmail(),
-                    user.getDepartment() != null ? user.getDepartment().getName() : "N/A",
-                    user.getRole());
-        } else if (type == NotificationType.USER_UPDATED) {
-            title = "Thông tin tài khoản của bạn đã được cập nhật";
-            message = String.format("Xin chào %s, thông tin tài khoản của bạn đã được cập nhật bởi quản trị viên. " +
-                    "Phòng ban: %s, Vai trò: %s",
-                    user.getName(),
-                    user.getDepartment() != null ? user.getDepartment().getName() : "N/A",
-                    user.getRole());
-        } else {
-            return; // Không tạo thông báo cho các loại khác
-        }
-
-        Notification notification = Notification.builder()
-                .user(user)
-                .asset(null)
-                .title(title)
-                .message(message)
-                .type(type)
-                .isRead(false)
-                .linkUrl("/profile") // Link đến trang profile của user
-                .build();
-
-        notificationRepository.save(notification);
-    }
 }
@@ -0,0 +1,97 @@
+package com.example.demo.service.cache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.dto.asset.AssetResponse;
+import com.example.demo.dto.asset.CacheStatsResponse;
+import com.example.demo.util.TransactionUtils;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * Read-through cache of assembled asset details keyed by id, plus a code to id
+ * map for scanner lookups. Concurrent misses on one key share a single load,
+ * and an eviction waits for an in-flight load of that key, so a value read
+ * before a committed write is never left behind.
+ */
+@Component
+public class AssetDetailCache {
+    private final Cache<Long, AssetResponse> details;
+    private final Cache<String, Long> codes;
+
+    public AssetDetailCache(@Value("${asset.cache.max-size:10000}") long maxSize,
+            @Value("${asset.cache.ttl:10m}") Duration ttl) {
+        this.details = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.codes = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public AssetResponse getDetail(Long id, Function<Long, AssetResponse> loader) {
+        return details.get(id, loader);
+    }
+
+    /**
+     * Returns the id for {@code code}, or null when the loader finds none.
+     * Misses are not remembered, so a newly created code is visible at once.
+     */
+    public Long getIdByCode(String code, Function<String, Long> loader) {
+        return codes.get(code, loader);
+    }
+
+    /**
+     * Drops the detail of {@code id} and the given codes. Inside a transaction
+     * the entries are dropped again after commit, since a reader may have
+     * reloaded the old row before the write committed.
+     */
+    public void evict(Long id, String... assetCodes) {
+        Runnable eviction = () -> {
+            details.invalidate(id);
+            for (String code : assetCodes) {
+                if (code != null) {
+                    codes.invalidate(code);
+                }
+            }
+        };
+        eviction.run();
+        TransactionUtils.afterCommit(eviction);
+    }
+
+    public void evictAll() {
+        Runnable eviction = () -> {
+            details.invalidateAll();
+            codes.invalidateAll();
+        };
+        eviction.run();
+        TransactionUtils.afterCommit(eviction);
+    }
+
+    public List<CacheStatsResponse> stats() {
+        return List.of(toResponse("assetDetails", details), toResponse("assetCodes", codes));
+    }
+
+    private static CacheStatsResponse toResponse(String name, Cache<?, ?> cache) {
+        CacheStats stats = cache.stats();
+        return CacheStatsResponse.builder()
+                .name(name)
+                .size(cache.estimatedSize())
+                .hitCount(stats.hitCount())
+                .missCount(stats.missCount())
+                .hitRate(stats.hitRate())
+                .evictionCount(stats.evictionCount())
+                .averageLoadMillis(stats.averageLoadPenalty() / 1_000_000d)
+                .build();
+    }
+}
@@ -0,0 +1,358 @@
+package com.example.demo.service.depreciation;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.dto.asset.AssetValuationRow;
+import com.example.demo.dto.asset.BookValueResponse;
+import com.example.demo.dto.asset.ValuationRollupResponse;
+import com.example.demo.entity.AssetHistory;
+import com.example.demo.entity.AssetType;
+import com.example.demo.enums.DepreciationMethod;
+import com.example.demo.enums.ValuationGroup;
+import com.example.demo.exception.DataNotFound;
+import com.example.demo.repository.AssetHistoryRepository;
+import com.example.demo.repository.AssetRepository;
+import com.example.demo.repository.AssetTypeRepository;
+import com.example.demo.service.etag.AggregateVersions;
+import com.example.demo.service.etag.AggregateVersions.Aggregate;
+import com.example.demo.service.history.AssetHistoryListener;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Book values for the whole register as of a day. A valuation reads one narrow
+ * projection of every asset, splits it into id ranges valued in parallel on
+ * the fork-join pool, and keeps per-asset results and per-type and
+ * per-department totals in memory for that day.
+ * <p>
+ * A cached valuation records the change feed position and the
+ * {@link Aggregate#VALUATIONS} version it was built at, both read before the
+ * register. Asset writes, on any node, reach it through the feed: before
+ * serving, it re-values the assets of every entry past its position from
+ * their current rows, so a write that commits while the register is being
+ * read is applied afterwards rather than lost. Depreciation settings and
+ * department moves bump the version instead, and a valuation older than the
+ * stored version is rebuilt.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DepreciationEngine implements AssetHistoryListener {
+    // assets valued by one fork-join leaf
+    private static final int LEAF_SIZE = 10_000;
+    private static final int CATCH_UP_BATCH = 500;
+
+    private final AssetRepository assetRepository;
+    private final AssetTypeRepository assetTypeRepository;
+    private final AssetHistoryRepository assetHistoryRepository;
+    private final AggregateVersions aggregateVersions;
+    private final TransactionTemplate transactionTemplate;
+    // today plus a few back-dated reports; a day's valuation is built once
+    private final Cache<LocalDate, Valuation> valuations = Caffeine.newBuilder()
+            .maximumSize(7)
+            .expireAfterAccess(Duration.ofDays(1))
+            .build();
+    // last feed position the history writer handed over
+    private volatile long heard;
+
+    public BookValueResponse getBookValue(Long assetId, LocalDate asOf) {
+        LocalDate day = asOf == null ? LocalDate.now() : asOf;
+        Entry entry = valuation(day).entries.get(assetId);
+        if (entry == null) {
+            throw new DataNotFound("Asset not found");
+        }
+        return BookValueResponse.builder()
+                .assetId(assetId)
+                .asOf(day)
+                .method(entry.method)
+                .cost(entry.cost)
+                .bookValue(entry.bookValue)
+                .accumulatedDepreciation(entry.cost == null ? null : entry.cost.subtract(entry.bookValue))
+                .build();
+    }
+
+    public List<ValuationRollupResponse> getRollup(ValuationGroup group, LocalDate asOf) {
+        LocalDate day = asOf == null ? LocalDate.now() : asOf;
+        return valuation(day).rollup(group).stream()
+                .map(total -> ValuationRollupResponse.builder()
+                        .groupId(total.groupId)
+                        .asOf(day)
+                        .assetCount(total.count)
+                        .cost(total.cost)
+                        .bookValue(total.bookValue)
+                        .accumulatedDepreciation(total.cost.subtract(total.bookValue))
+                        .build())
+                .toList();
+    }
+
+    /**
+     * Notes how far the feed has got; valuations catch up when next read, so
+     * the writer thread never waits on a re-valuation.
+     */
+    @Override
+    public void onWritten(List<AssetHistory> histories) {
+        long last = histories.get(histories.size() - 1).getFeedSeq();
+        if (last > heard) {
+            heard = last;
+        }
+    }
+
+    /**
+     * Makes every cached valuation stale, e.g. after a type's depreciation
+     * settings change, on every node once the surrounding transaction
+     * commits; the next request re-values the register.
+     */
+    public void invalidate() {
+        aggregateVersions.bump(Aggregate.VALUATIONS);
+    }
+
+    private Valuation valuation(LocalDate asOf) {
+        long version = aggregateVersions.version(Aggregate.VALUATIONS);
+        // concurrent requests for an uncached day wait for the same revaluation
+        Valuation valuation = valuations.get(asOf, this::revalue);
+        if (valuation.version < version) {
+            valuations.asMap().remove(asOf, valuation);
+            valuation = valuations.get(asOf, this::revalue);
+        }
+        catchUp(valuation, heard);
+        return valuation;
+    }
+
+    private Valuation revalue(LocalDate asOf) {
+        long started = System.currentTimeMillis();
+        // read before the rows: a write committed after them is past both, and re-applying one the rows
+        // already show is harmless
+        long version = aggregateVersions.version(Aggregate.VALUATIONS);
+        long position = assetHistoryRepository.findMaxFeedSeq();
+        Map<Long, DepreciationPolicy> policies = new HashMap<>();
+        for (AssetType type : assetTypeRepository.findAll()) {
+            policies.put(type.getId(), DepreciationPolicy.of(type));
+        }
+        List<AssetValuationRow> rows = transactionTemplate.execute(status -> {
+            try (Stream<AssetValuationRow> stream = assetRepository.streamValuationRows()) {
+                return stream.toList();
+            }
+        });
+
+        Valuation valuation = new Valuation(asOf, version, position, policies, rows.size());
+        Partial totals = ForkJoinPool.commonPool().invoke(new ValueRange(rows, 0, rows.size(), policies, valuation));
+        valuation.byType.putAll(totals.byType);
+        valuation.byDepartment.putAll(totals.byDepartment);
+        log.info("Valued {} assets as of {} in {} ms", rows.size(), asOf, System.currentTimeMillis() - started);
+        return valuation;
+    }
+
+    /**
+     * Re-values the assets of the feed entries past the valuation's position,
+     * up to {@code upTo}, from their current rows. Entries are applied in
+     * feed order under the valuation's lock, so a later state is never
+     * overwritten by an earlier one.
+     */
+    private void catchUp(Valuation valuation, long upTo) {
+        if (valuation.position >= upTo) {
+            return;
+        }
+        synchronized (valuation) {
+            while (valuation.position < upTo) {
+                List<AssetHistory> batch = assetHistoryRepository.findFeedAfter(valuation.position,
+                        Limit.of(CATCH_UP_BATCH));
+                if (batch.isEmpty()) {
+                    return;
+                }
+                Set<Long> ids = batch.stream().map(AssetHistory::getAssetId).collect(Collectors.toSet());
+                Map<Long, AssetValuationRow> current = new HashMap<>();
+                assetRepository.findValuationRows(ids).forEach(row -> current.put(row.id(), row));
+                for (Long id : ids) {
+                    AssetValuationRow row = current.get(id);
+                    if (row == null) {
+                        valuation.remove(id);
+                    } else {
+                        valuation.put(value(row, policy(valuation, row.typeId()), valuation.asOf));
+                    }
+                }
+                valuation.position = batch.get(batch.size() - 1).getFeedSeq();
+            }
+        }
+    }
+
+    private DepreciationPolicy policy(Valuation valuation, Long typeId) {
+        if (typeId == null) {
+            return DepreciationPolicy.NONE;
+        }
+        // a type created since the valuation was built is read on first use
+        return valuation.policies.computeIfAbsent(typeId, id -> assetTypeRepository.findById(id)
+                .map(DepreciationPolicy::of)
+                .orElse(DepreciationPolicy.NONE));
+    }
+
+    private static Entry value(AssetValuationRow row, DepreciationPolicy policy, LocalDate asOf) {
+        long monthsHeld = row.purchaseDate() == null
+                ? 0
+                : ChronoUnit.MONTHS.between(row.purchaseDate().toLocalDate(), asOf);
+        return new Entry(row.id(), row.typeId(), row.departmentId(), policy.method(), row.value(),
+                policy.bookValue(row.value(), monthsHeld));
+    }
+
+    /**
+     * Values rows [from, to), which the ORDER BY makes a contiguous id range,
+     * and returns that range's totals.
+     */
+    private static class ValueRange extends RecursiveTask<Partial> {
+        private final List<AssetValuationRow> rows;
+        private final int from;
+        private final int to;
+        private final Map<Long, DepreciationPolicy> policies;
+        private final Valuation valuation;
+
+        private ValueRange(List<AssetValuationRow> rows, int from, int to, Map<Long, DepreciationPolicy> policies,
+                Valuation valuation) {
+            this.rows = rows;
+            this.from = from;
+            this.to = to;
+            this.policies = policies;
+            this.valuation = valuation;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (to - from > LEAF_SIZE) {
+                int middle = (from + to) >>> 1;
+                ValueRange left = new ValueRange(rows, from, middle, policies, valuation);
+                left.fork();
+                Partial right = new ValueRange(rows, middle, to, policies, valuation).compute();
+                return left.join().merge(right);
+            }
+            Partial partial = new Partial();
+            for (int i = from; i < to; i++) {
+                AssetValuationRow row = rows.get(i);
+                Entry entry = value(row, policies.getOrDefault(row.typeId(), DepreciationPolicy.NONE), valuation.asOf);
+                valuation.entries.put(entry.assetId, entry);
+                partial.add(entry);
+            }
+            return partial;
+        }
+    }
+
+    private static class Partial {
+        private final Map<Long, Total> byType = new HashMap<>();
+        private final Map<Long, Total> byDepartment = new HashMap<>();
+
+        private void add(Entry entry) {
+            byType.computeIfAbsent(entry.typeId, Total::new).add(entry, 1);
+            byDepartment.computeIfAbsent(entry.departmentId, Total::new).add(entry, 1);
+        }
+
+        private Partial merge(Partial other) {
+            other.byType.forEach((id, total) -> byType.merge(id, total, Total::merge));
+            other.byDepartment.forEach((id, total) -> byDepartment.merge(id, total, Total::merge));
+            return this;
+        }
+    }
+
+    private static class Valuation {
+        private final LocalDate asOf;
+        // VALUATIONS version it was built at
+        private final long version;
+        // last feed position applied; written under this
+        private volatile long position;
+        private final Map<Long, Entry> entries;
+        // by type id; guarded by this once built
+        private final Map<Long, DepreciationPolicy> policies;
+        // HashMaps because null (no type / no department) is a group; guarded by this
+        private final Map<Long, Total> byType = new HashMap<>();
+        private final Map<Long, Total> byDepartment = new HashMap<>();
+
+        private Valuation(LocalDate asOf, long version, long position, Map<Long, DepreciationPolicy> policies,
+                int size) {
+            this.asOf = asOf;
+            this.version = version;
+            this.position = position;
+            this.policies = policies;
+            this.entries = new ConcurrentHashMap<>(Math.max(16, size * 4 / 3));
+        }
+
+        private synchronized void put(Entry entry) {
+            Entry previous = entries.put(entry.assetId, entry);
+            if (previous != null) {
+                subtract(previous);
+            }
+            byType.computeIfAbsent(entry.typeId, Total::new).add(entry, 1);
+            byDepartment.computeIfAbsent(entry.departmentId, Total::new).add(entry, 1);
+        }
+
+        private synchronized void remove(Long assetId) {
+            Entry previous = entries.remove(assetId);
+            if (previous != null) {
+                subtract(previous);
+            }
+        }
+
+        private void subtract(Entry entry) {
+            byType.get(entry.typeId).add(entry, -1);
+            byDepartment.get(entry.departmentId).add(entry, -1);
+        }
+
+        private synchronized List<Total> rollup(ValuationGroup group) {
+            Collection<Total> totals = (group == ValuationGroup.DEPARTMENT ? byDepartment : byType).values();
+            List<Total> copies = new ArrayList<>(totals.size());
+            for (Total total : totals) {
+                if (total.count > 0) {
+                    copies.add(new Total(total.groupId).merge(total));
+                }
+            }
+            return copies;
+        }
+    }
+
+    private record Entry(Long assetId, Long typeId, Long departmentId, DepreciationMethod method, BigDecimal cost,
+            BigDecimal bookValue) {
+    }
+
+    private static class Total {
+        private final Long groupId;
+        private long count;
+        private BigDecimal cost = BigDecimal.ZERO;
+        private BigDecimal bookValue = BigDecimal.ZERO;
+
+        private Total(Long groupId) {
+            this.groupId = groupId;
+        }
+
+        private void add(Entry entry, int sign) {
+            count += sign;
+            if (entry.cost != null) {
+                BigDecimal signum = BigDecimal.valueOf(sign);
+                cost = cost.add(entry.cost.multiply(signum));
+                bookValue = bookValue.add(entry.bookValue.multiply(signum));
+            }
+        }
+
+        private Total merge(Total other) {
+            count += other.count;
+            cost = cost.add(other.cost);
+            bookValue = bookValue.add(other.bookValue);
+            return this;
+        }
+    }
+}
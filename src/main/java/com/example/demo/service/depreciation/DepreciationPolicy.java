@@ -0,0 +1,44 @@
+package com.example.demo.service.depreciation;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import com.example.demo.entity.AssetType;
+import com.example.demo.enums.DepreciationMethod;
+
+/**
+ * How assets of one type lose value, computed per whole month held. Declining
+ * balance is double-declining (2 / life per month, compounded); both methods
+ * stop at the residual value and reach it at the end of the useful life.
+ */
+public record DepreciationPolicy(DepreciationMethod method, int lifeMonths, BigDecimal residualRate) {
+    public static final DepreciationPolicy NONE = new DepreciationPolicy(null, 0, BigDecimal.ZERO);
+
+    public static DepreciationPolicy of(AssetType type) {
+        if (type == null || type.getDepreciationMethod() == null || type.getUsefulLifeMonths() == null
+                || type.getUsefulLifeMonths() <= 0) {
+            return NONE;
+        }
+        BigDecimal residualRate = type.getResidualRate() == null
+                ? BigDecimal.ZERO
+                : type.getResidualRate().max(BigDecimal.ZERO).min(BigDecimal.ONE);
+        return new DepreciationPolicy(type.getDepreciationMethod(), type.getUsefulLifeMonths(), residualRate);
+    }
+
+    public BigDecimal bookValue(BigDecimal cost, long monthsHeld) {
+        if (method == null || cost == null || monthsHeld <= 0) {
+            return cost;
+        }
+        BigDecimal residual = cost.multiply(residualRate);
+        if (monthsHeld >= lifeMonths) {
+            return residual.setScale(2, RoundingMode.HALF_UP);
+        }
+        BigDecimal bookValue = switch (method) {
+            case STRAIGHT_LINE -> cost.subtract(cost.subtract(residual)
+                    .multiply(BigDecimal.valueOf(monthsHeld))
+                    .divide(BigDecimal.valueOf(lifeMonths), 2, RoundingMode.HALF_UP));
+            case DECLINING_BALANCE -> cost.multiply(BigDecimal.valueOf(Math.pow(1 - 2.0 / lifeMonths, monthsHeld)));
+        };
+        return bookValue.max(residual).setScale(2, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.demo.service.etag;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.entity.AggregateVersion;
+import com.example.demo.repository.AggregateVersionRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Write counters behind the ETags of the list and detail GETs, one row per
+ * aggregate in aggregate_versions, so every node hands out the same tag and
+ * tags survive restarts. Services bump an aggregate with each write; the
+ * increment runs just before their transaction commits, so the row is locked
+ * only for the commit and the new tag becomes visible with the data. Checking
+ * {@code If-None-Match} costs one primary-key read. Detail tags are built from
+ * the row's own {@code @Version}, so a write to one asset leaves the tags of
+ * the others alone.
+ */
+@Component
+@RequiredArgsConstructor
+public class AggregateVersions implements SmartInitializingSingleton {
+
+    public enum Aggregate {
+        ASSETS,
+        ASSET_TYPES,
+        DEPARTMENTS,
+        NOTIFICATIONS,
+        // users moving department, which every asset detail naming them shows
+        ASSIGNEES,
+        // segments added to the shared history archive, which other nodes then rescan
+        HISTORY_ARCHIVE,
+        // depreciation settings or assignee departments changing, which every cached valuation depends on
+        VALUATIONS
+    }
+
+    private final AggregateVersionRepository aggregateVersionRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Set<String> existing = aggregateVersionRepository.findAll().stream()
+                        .map(AggregateVersion::getName)
+                        .collect(Collectors.toSet());
+                aggregateVersionRepository.saveAll(Arrays.stream(Aggregate.values())
+                        .map(Aggregate::name)
+                        .filter(name -> !existing.contains(name))
+                        .map(name -> AggregateVersion.builder().name(name).version(0).build())
+                        .toList());
+            });
+        } catch (DataIntegrityViolationException e) {
+            // another node starting at the same time created them
+        }
+    }
+
+    /**
+     * Counts a write to the aggregates when the caller's transaction commits,
+     * or at once when there is none. A rolled-back write changes no tag.
+     */
+    public void bump(Aggregate... aggregates) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            transactionTemplate.executeWithoutResult(status -> aggregateVersionRepository.increment(names(aggregates)));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Set<String> pending = (Set<String>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            // one sorted UPDATE per transaction, so two writers lock the rows in the same order
+            Set<String> names = new TreeSet<>();
+            TransactionSynchronizationManager.bindResource(this, names);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    aggregateVersionRepository.increment(names);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResource(AggregateVersions.this);
+                }
+            });
+            pending = names;
+        }
+        pending.addAll(names(aggregates));
+    }
+
+    /**
+     * Strong ETag over the given aggregates, quoted as the header requires.
+     */
+    public String etag(Aggregate... aggregates) {
+        return "\"" + versions(aggregates) + "\"";
+    }
+
+    /**
+     * Strong ETag of one row: its id and {@code @Version}, plus the given
+     * aggregates for what the response shows from other rows.
+     */
+    public String etag(Long id, long version, Aggregate... aggregates) {
+        return "\"" + id + "." + version + (aggregates.length == 0 ? "" : "-" + versions(aggregates)) + "\"";
+    }
+
+    public long version(Aggregate aggregate) {
+        return aggregateVersionRepository.findById(aggregate.name()).map(AggregateVersion::getVersion).orElse(0L);
+    }
+
+    private String versions(Aggregate... aggregates) {
+        List<String> names = names(aggregates);
+        Map<String, Long> versions = aggregateVersionRepository.findAllById(names).stream()
+                .collect(Collectors.toMap(AggregateVersion::getName, AggregateVersion::getVersion));
+        return names.stream()
+                .map(name -> Long.toString(versions.getOrDefault(name, 0L), Character.MAX_RADIX))
+                .collect(Collectors.joining("-"));
+    }
+
+    private static List<String> names(Aggregate... aggregates) {
+        return Arrays.stream(aggregates).map(Aggregate::name).toList();
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.demo.service.history;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.dto.asset.AssetChangesResponse;
+import com.example.demo.dto.asset.AssetHistoryResponse;
+import com.example.demo.dto.asset.AssetHistoryRow;
+import com.example.demo.entity.AssetHistory;
+import com.example.demo.repository.AssetHistoryRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * History entries after a given feed position, for systems that keep in sync
+ * by polling. Positions are handed out by the {@link AssetHistoryWriter} in
+ * commit order, so a consumer that resumes from the last position it saw
+ * never skips an entry, whichever node or transaction wrote it. When there is
+ * nothing new a poll waits: it is parked as a future, holding no request
+ * thread, until the writer reports entries past its position or the wait
+ * runs out. Waiting polls are answered from the reported entries themselves,
+ * so waking them costs no query.
+ */
+@Component
+@RequiredArgsConstructor
+public class AssetChangeFeed implements AssetHistoryListener {
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 500;
+
+    private final AssetHistoryRepository assetHistoryRepository;
+    private final Set<Waiter> waiters = ConcurrentHashMap.newKeySet();
+
+    private record Waiter(long afterSeq, int limit, CompletableFuture<AssetChangesResponse> changes) {
+    }
+
+    /**
+     * Up to {@code limit} entries after feed position {@code afterSeq}, in
+     * feed order. With none yet, completes when some are numbered or, empty,
+     * after {@code waitMillis}.
+     */
+    public CompletableFuture<AssetChangesResponse> poll(long afterSeq, Integer limit, long waitMillis) {
+        int size = limit == null ? DEFAULT_LIMIT : Math.min(Math.max(limit, 1), MAX_LIMIT);
+        Waiter waiter = new Waiter(afterSeq, size, new CompletableFuture<>());
+        // registered before reading, so an entry written in between still wakes it
+        waiters.add(waiter);
+        waiter.changes().whenComplete((changes, error) -> waiters.remove(waiter));
+
+        List<AssetHistory> entries = assetHistoryRepository.findFeedAfter(afterSeq, Limit.of(size));
+        if (!entries.isEmpty() || waitMillis <= 0) {
+            waiter.changes().complete(response(afterSeq, entries));
+        } else {
+            waiter.changes().completeOnTimeout(response(afterSeq, List.of()), waitMillis, TimeUnit.MILLISECONDS);
+        }
+        return waiter.changes();
+    }
+
+    @Override
+    public void onWritten(List<AssetHistory> histories) {
+        for (Waiter waiter : waiters) {
+            // histories come in feed order
+            List<AssetHistory> fresh = histories.stream()
+                    .filter(history -> history.getFeedSeq() > waiter.afterSeq())
+                    .limit(waiter.limit())
+                    .toList();
+            if (!fresh.isEmpty()) {
+                waiter.changes().complete(response(waiter.afterSeq(), fresh));
+            }
+        }
+    }
+
+    private static AssetChangesResponse response(long afterSeq, List<AssetHistory> entries) {
+        return AssetChangesResponse.builder()
+                .items(entries.stream().map(AssetHistoryRow::of).map(AssetHistoryResponse::fromRow).toList())
+                .lastSeq(entries.isEmpty() ? afterSeq : entries.get(entries.size() - 1).getFeedSeq())
+                .build();
+    }
+}
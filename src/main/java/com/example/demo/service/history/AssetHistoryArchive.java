@@ -0,0 +1,387 @@
+package com.example.demo.service.history;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.dto.asset.ArchivedHistoryRow;
+import com.example.demo.dto.asset.AssetHistoryFilter;
+import com.example.demo.dto.asset.AssetHistoryRow;
+import com.example.demo.repository.AssetHistoryRepository;
+import com.example.demo.service.etag.AggregateVersions;
+import com.example.demo.service.etag.AggregateVersions.Aggregate;
+import com.example.demo.service.lock.JobLocks;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cold storage for asset history. A nightly job moves entries older than
+ * {@code horizon} out of "asset_history" into one gzip-compressed JSON-lines
+ * segment per UTC day under {@code dir}, each next to a small index of its id
+ * and time range and the assets it mentions. A segment and its index are
+ * written to temporary files, forced to disk and renamed into place before
+ * the rows are deleted, and never change afterwards. History reads consult
+ * the indexes and open only the segments that can match.
+ * <p>
+ * With several nodes, {@code dir} must be one volume they all mount: the job
+ * runs on whichever node takes its lease in "job_locks", and the others read
+ * the segments it writes. Each node keeps the indexes in memory, loaded from
+ * disk at startup. Every new segment bumps the HISTORY_ARCHIVE version before
+ * its rows are deleted, and reads reaching the archive check that version and
+ * rescan the directory when it moved, so no node misses rows that have left
+ * the table. A single node can use a local directory.
+ */
+@Slf4j
+@Component
+public class AssetHistoryArchive {
+    private static final String SEGMENT_SUFFIX = ".jsonl.gz";
+    private static final String INDEX_SUFFIX = ".idx.json";
+    private static final int DELETE_CHUNK_SIZE = 1000;
+    private static final String JOB = "asset-history-archive";
+    private static final Comparator<AssetHistoryRow> NEWEST_FIRST = Comparator
+            .comparing(AssetHistoryRow::performedAt)
+            .thenComparing(AssetHistoryRow::id)
+            .reversed();
+
+    private final AssetHistoryRepository assetHistoryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final JobLocks jobLocks;
+    private final AggregateVersions aggregateVersions;
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final Duration horizon;
+    private final Duration lockAtMost;
+    // paging through a feed reads the same few days over and over
+    private final Cache<String, List<ArchivedHistoryRow>> segments = Caffeine.newBuilder()
+            .maximumSize(16)
+            .build();
+    // newest first by maxAt; replaced whole, under scanLock, when segments are added
+    private volatile List<SegmentIndex> indexes = List.of();
+    // HISTORY_ARCHIVE version the indexes were last scanned at
+    private volatile long scannedVersion;
+    private final Object scanLock = new Object();
+
+    public AssetHistoryArchive(AssetHistoryRepository assetHistoryRepository, TransactionTemplate transactionTemplate,
+            JobLocks jobLocks, AggregateVersions aggregateVersions, ObjectMapper objectMapper,
+            @Value("${asset.history.archive.dir:data/history-archive}") Path directory,
+            @Value("${asset.history.archive.horizon:P365D}") Duration horizon,
+            @Value("${asset.history.archive.lock-at-most:PT6H}") Duration lockAtMost) {
+        this.assetHistoryRepository = assetHistoryRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.jobLocks = jobLocks;
+        this.aggregateVersions = aggregateVersions;
+        this.objectMapper = objectMapper;
+        this.directory = directory;
+        this.horizon = horizon;
+        this.lockAtMost = lockAtMost;
+    }
+
+    /**
+     * What a segment holds, stored beside it so that reads can skip segments
+     * without opening them.
+     */
+    record SegmentIndex(String name, LocalDate day, int rows, long minId, long maxId, Instant minAt, Instant maxAt,
+            long[] assetIds) {
+
+        private boolean mayMatch(AssetHistoryFilter filter) {
+            return (filter.getAssetId() == null || Arrays.binarySearch(assetIds, filter.getAssetId()) >= 0)
+                    && (filter.getFrom() == null || !maxAt.isBefore(filter.getFrom()))
+                    && (filter.getTo() == null || minAt.isBefore(filter.getTo()));
+        }
+    }
+
+    @PostConstruct
+    void loadIndexes() throws IOException {
+        Files.createDirectories(directory);
+        int loaded = scan(aggregateVersions.version(Aggregate.HISTORY_ARCHIVE));
+        if (loaded > 0) {
+            log.info("Loaded {} asset history archive segments from {}", loaded, directory);
+        }
+    }
+
+    /**
+     * Archives every whole UTC day older than the horizon, oldest first, on
+     * the one node that takes the job's lease; the others skip the run.
+     */
+    @Scheduled(cron = "${asset.history.archive.cron:0 30 2 * * *}")
+    public synchronized void archive() {
+        jobLocks.runExclusively(JOB, lockAtMost, this::archiveOldDays);
+    }
+
+    private void archiveOldDays() {
+        LocalDate cutoff = LocalDate.ofInstant(Instant.now().minus(horizon), ZoneOffset.UTC);
+        int days = 0;
+        long archived = 0;
+        Instant oldest;
+        while ((oldest = assetHistoryRepository.findMinPerformedAt()) != null) {
+            LocalDate day = LocalDate.ofInstant(oldest, ZoneOffset.UTC);
+            if (!day.isBefore(cutoff)) {
+                break;
+            }
+            archived += archiveDay(day);
+            days++;
+        }
+        if (days > 0) {
+            log.info("Archived {} asset history entries from {} days before {}", archived, days, cutoff);
+        }
+    }
+
+    /**
+     * Newest-first archived entries matching {@code filter} strictly before the
+     * (beforeAt, beforeId) key, at most {@code limit}; the archive half of
+     * {@link AssetHistoryRepository#findPage}.
+     */
+    public List<AssetHistoryRow> findPage(AssetHistoryFilter filter, Instant beforeAt, long beforeId, int limit) {
+        Instant before = beforeAt == null ? AssetHistoryRepository.FIRST_PAGE_AT : beforeAt;
+        List<AssetHistoryRow> found = new ArrayList<>();
+        for (SegmentIndex index : indexes()) {
+            if (found.size() >= limit && index.maxAt().isBefore(found.get(limit - 1).performedAt())) {
+                // this and every later segment is older than the whole page
+                break;
+            }
+            if (index.minAt().isAfter(before) || !index.mayMatch(filter)) {
+                continue;
+            }
+            for (ArchivedHistoryRow row : rows(index)) {
+                if (matches(row, filter) && isBefore(row, before, beforeId)) {
+                    found.add(row.toHistoryRow());
+                }
+            }
+            found.sort(NEWEST_FIRST);
+        }
+        return found.size() > limit ? List.copyOf(found.subList(0, limit)) : found;
+    }
+
+    /**
+     * The asset's latest archived entry at or before {@code at}.
+     */
+    public Optional<ArchivedHistoryRow> findLatestAt(Long assetId, Instant at) {
+        ArchivedHistoryRow latest = null;
+        for (SegmentIndex index : indexes()) {
+            if (latest != null && index.maxAt().isBefore(latest.performedAt())) {
+                break;
+            }
+            if (index.minAt().isAfter(at) || Arrays.binarySearch(index.assetIds(), assetId) < 0) {
+                continue;
+            }
+            for (ArchivedHistoryRow row : rows(index)) {
+                if (row.assetId().equals(assetId) && !row.performedAt().isAfter(at)
+                        && (latest == null || isBefore(latest, row.performedAt(), row.id()))) {
+                    latest = row;
+                }
+            }
+        }
+        return Optional.ofNullable(latest);
+    }
+
+    /**
+     * Feeds every archived entry to {@code consumer}, a day at a time and in
+     * (performedAt, id) order within the day.
+     */
+    public void replay(Consumer<ArchivedHistoryRow> consumer) {
+        Map<LocalDate, List<SegmentIndex>> byDay = new TreeMap<>();
+        for (SegmentIndex index : indexes()) {
+            byDay.computeIfAbsent(index.day(), day -> new ArrayList<>()).add(index);
+        }
+        for (List<SegmentIndex> day : byDay.values()) {
+            Stream<ArchivedHistoryRow> rows = day.size() == 1
+                    ? rows(day.get(0)).stream()
+                    : day.stream()
+                            .flatMap(index -> rows(index).stream())
+                            .sorted(Comparator.comparing(ArchivedHistoryRow::performedAt)
+                                    .thenComparing(ArchivedHistoryRow::id));
+            rows.forEach(consumer);
+        }
+    }
+
+    public long maxAssetId() {
+        long max = 0;
+        for (SegmentIndex index : indexes()) {
+            if (index.assetIds().length > 0) {
+                max = Math.max(max, index.assetIds()[index.assetIds().length - 1]);
+            }
+        }
+        return max;
+    }
+
+    private int archiveDay(LocalDate day) {
+        Instant from = day.atStartOfDay(ZoneOffset.UTC).toInstant();
+        Instant to = day.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+        List<ArchivedHistoryRow> rows = transactionTemplate
+                .execute(status -> assetHistoryRepository.findArchivable(from, to));
+
+        // a run that stopped between writing a segment and deleting its rows left them in both
+        Set<Long> alreadyArchived = new HashSet<>();
+        for (SegmentIndex index : indexes()) {
+            if (index.day().equals(day)) {
+                rows(index).forEach(row -> alreadyArchived.add(row.id()));
+            }
+        }
+        List<ArchivedHistoryRow> fresh = rows.stream().filter(row -> !alreadyArchived.contains(row.id())).toList();
+        if (!fresh.isEmpty()) {
+            writeSegment(day, fresh);
+        }
+
+        List<Long> ids = rows.stream().map(ArchivedHistoryRow::id).toList();
+        for (int i = 0; i < ids.size(); i += DELETE_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(i, Math.min(i + DELETE_CHUNK_SIZE, ids.size()));
+            transactionTemplate.executeWithoutResult(status -> assetHistoryRepository.deleteAllByIdInBatch(chunk));
+        }
+        return fresh.size();
+    }
+
+    private void writeSegment(LocalDate day, List<ArchivedHistoryRow> rows) {
+        long minId = rows.stream().mapToLong(ArchivedHistoryRow::id).min().orElseThrow();
+        String name = "history-" + day + "-" + minId;
+        SegmentIndex index = new SegmentIndex(name, day, rows.size(), minId,
+                rows.stream().mapToLong(ArchivedHistoryRow::id).max().orElseThrow(),
+                rows.get(0).performedAt(),
+                rows.get(rows.size() - 1).performedAt(),
+                rows.stream().mapToLong(ArchivedHistoryRow::assetId).distinct().sorted().toArray());
+        try {
+            ByteArrayOutputStream segment = new ByteArrayOutputStream();
+            try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(segment), StandardCharsets.UTF_8)) {
+                for (ArchivedHistoryRow row : rows) {
+                    writer.write(objectMapper.writeValueAsString(row));
+                    writer.write('\n');
+                }
+            }
+            // the index goes last: a segment without one is ignored and rewritten by the next run
+            writeDurably(directory.resolve(name + SEGMENT_SUFFIX), segment.toByteArray());
+            writeDurably(directory.resolve(name + INDEX_SUFFIX), objectMapper.writeValueAsBytes(index));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write asset history segment " + name, e);
+        }
+
+        add(List.of(index));
+        // committed before the rows are deleted, so a node that misses them in the table rescans first
+        aggregateVersions.bump(Aggregate.HISTORY_ARCHIVE);
+    }
+
+    /**
+     * The indexes, rescanned from disk first if another node has added
+     * segments since the last scan.
+     */
+    private List<SegmentIndex> indexes() {
+        long version = aggregateVersions.version(Aggregate.HISTORY_ARCHIVE);
+        if (version != scannedVersion) {
+            try {
+                scan(version);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not scan asset history archive " + directory, e);
+            }
+        }
+        return indexes;
+    }
+
+    /**
+     * Loads the index files not known yet and returns how many.
+     */
+    private int scan(long version) throws IOException {
+        synchronized (scanLock) {
+            Set<String> known = new HashSet<>();
+            indexes.forEach(index -> known.add(index.name()));
+            List<SegmentIndex> found = new ArrayList<>();
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : files.filter(path -> path.getFileName().toString().endsWith(INDEX_SUFFIX)).toList()) {
+                    String name = file.getFileName().toString();
+                    if (!known.contains(name.substring(0, name.length() - INDEX_SUFFIX.length()))) {
+                        found.add(objectMapper.readValue(file.toFile(), SegmentIndex.class));
+                    }
+                }
+            }
+            add(found);
+            scannedVersion = version;
+            return found.size();
+        }
+    }
+
+    private void add(List<SegmentIndex> added) {
+        synchronized (scanLock) {
+            if (added.isEmpty()) {
+                return;
+            }
+            List<SegmentIndex> updated = new ArrayList<>(indexes);
+            updated.addAll(added);
+            updated.sort(Comparator.comparing(SegmentIndex::maxAt).reversed());
+            indexes = List.copyOf(updated);
+        }
+    }
+
+    private List<ArchivedHistoryRow> rows(SegmentIndex index) {
+        return segments.get(index.name(), name -> {
+            Path file = directory.resolve(name + SEGMENT_SUFFIX);
+            List<ArchivedHistoryRow> rows = new ArrayList<>(index.rows());
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    rows.add(objectMapper.readValue(line, ArchivedHistoryRow.class));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read asset history segment " + name, e);
+            }
+            return List.copyOf(rows);
+        });
+    }
+
+    private static void writeDurably(Path target, byte[] content) throws IOException {
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(content));
+            channel.force(true);
+        }
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static boolean matches(ArchivedHistoryRow row, AssetHistoryFilter filter) {
+        return (filter.getAssetId() == null || filter.getAssetId().equals(row.assetId()))
+                && (filter.getActionType() == null || filter.getActionType() == row.actionType())
+                && (filter.getPerformedBy() == null || filter.getPerformedBy().equals(row.performedBy()))
+                && (filter.getFrom() == null || !row.performedAt().isBefore(filter.getFrom()))
+                && (filter.getTo() == null || row.performedAt().isBefore(filter.getTo()));
+    }
+
+    private static boolean isBefore(ArchivedHistoryRow row, Instant beforeAt, long beforeId) {
+        int byTime = row.performedAt().compareTo(beforeAt);
+        return byTime < 0 || (byTime == 0 && row.id() < beforeId);
+    }
+}
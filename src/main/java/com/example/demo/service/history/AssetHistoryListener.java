@@ -0,0 +1,20 @@
+package com.example.demo.service.history;
+
+import java.util.List;
+
+import com.example.demo.entity.AssetHistory;
+
+/**
+ * Told about history entries passing through the {@link AssetHistoryWriter}.
+ */
+public interface AssetHistoryListener {
+
+    /**
+     * Entries once they have a change feed position, in feed order, including
+     * ones written on other nodes. Called on the writer thread, so
+     * implementations must not block; entities are detached, with lazy
+     * associations unloaded.
+     */
+    default void onWritten(List<AssetHistory> histories) {
+    }
+}
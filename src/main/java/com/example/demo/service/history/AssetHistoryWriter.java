@@ -0,0 +1,240 @@
+package com.example.demo.service.history;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.dto.asset.HistoryWriterStatsResponse;
+import com.example.demo.entity.AssetHistory;
+import com.example.demo.entity.AssetHistoryFeed;
+import com.example.demo.repository.AssetHistoryFeedRepository;
+import com.example.demo.repository.AssetHistoryRepository;
+import com.example.demo.util.TransactionUtils;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Records asset history and numbers it into the change feed. Entries are
+ * inserted in the caller's transaction, so they commit or roll back with the
+ * change they describe and a crash cannot lose them. That costs the caller one
+ * batched INSERT at flush; ids come from the pooled generator, so nothing else
+ * is read or written on its behalf. The rows still waiting for a feed
+ * position are the writer's backlog, reported as {@code pending}.
+ * <p>
+ * Pooled ids are handed out in blocks per node and commit in any order, so
+ * they cannot serve as a feed cursor. Instead one thread per node, woken when
+ * an entry commits here and every {@code poll-interval} for other nodes',
+ * locks the feed head row and gives committed entries without a position the
+ * next ones, {@code batch-size} per transaction. Positions are only handed
+ * out under that lock, so they commit in order: once position N is visible,
+ * no entry ever appears below it. After each pass the thread reads the
+ * entries past the last position it has seen, whichever node numbered them,
+ * and hands them to the {@link AssetHistoryListener}s in feed order.
+ */
+@Slf4j
+@Component
+public class AssetHistoryWriter implements SmartLifecycle {
+    private final AssetHistoryRepository assetHistoryRepository;
+    private final AssetHistoryFeedRepository assetHistoryFeedRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final List<AssetHistoryListener> listeners;
+    private final int batchSize;
+    private final Duration pollInterval;
+
+    private final Semaphore wakeups = new Semaphore(0);
+    private final LongAdder written = new LongAdder();
+    private final LongAdder sequenced = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder flushNanos = new LongAdder();
+    private volatile long lastFlushNanos;
+    // last position handed to the listeners; -1 until read at start
+    private volatile long published = -1;
+    private volatile boolean running;
+    private Thread writer;
+
+    public AssetHistoryWriter(AssetHistoryRepository assetHistoryRepository,
+            AssetHistoryFeedRepository assetHistoryFeedRepository, TransactionTemplate transactionTemplate,
+            List<AssetHistoryListener> listeners,
+            @Value("${asset.history.writer.batch-size:500}") int batchSize,
+            @Value("${asset.history.writer.poll-interval:1s}") Duration pollInterval) {
+        this.assetHistoryRepository = assetHistoryRepository;
+        this.assetHistoryFeedRepository = assetHistoryFeedRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.listeners = listeners;
+        this.batchSize = Math.max(1, batchSize);
+        this.pollInterval = pollInterval;
+    }
+
+    public void record(AssetHistory history) {
+        recordAll(List.of(history));
+    }
+
+    /**
+     * Inserts the entries in the caller's transaction, which callers are
+     * expected to have open so the history is atomic with their change.
+     */
+    public void recordAll(List<AssetHistory> histories) {
+        if (histories.isEmpty()) {
+            return;
+        }
+        assetHistoryRepository.saveAll(histories);
+        TransactionUtils.afterCommit(() -> {
+            written.add(histories.size());
+            wake();
+        });
+    }
+
+    /**
+     * Gives every committed entry without a feed position the next one, a
+     * batch per transaction, and returns how many were numbered here; entries
+     * numbered by another node meanwhile are not counted.
+     */
+    public int sequence() {
+        int total = 0;
+        int numbered;
+        do {
+            long started = System.nanoTime();
+            numbered = transactionTemplate.execute(status -> sequenceBatch());
+            long elapsed = System.nanoTime() - started;
+            flushes.increment();
+            flushNanos.add(elapsed);
+            lastFlushNanos = elapsed;
+            total += numbered;
+            // a full batch means more may be waiting
+        } while (numbered == batchSize);
+        sequenced.add(total);
+        return total;
+    }
+
+    /**
+     * Hands the listeners every entry past the last position they were given,
+     * in feed order, and returns how many.
+     */
+    public int publish() {
+        if (published < 0) {
+            // listeners only hear about what is numbered from now on
+            published = assetHistoryRepository.findMaxFeedSeq();
+        }
+        int total = 0;
+        List<AssetHistory> batch;
+        do {
+            batch = assetHistoryRepository.findFeedAfter(published, Limit.of(batchSize));
+            if (batch.isEmpty()) {
+                break;
+            }
+            notifyWritten(batch);
+            published = batch.get(batch.size() - 1).getFeedSeq();
+            total += batch.size();
+        } while (batch.size() == batchSize);
+        return total;
+    }
+
+    public HistoryWriterStatsResponse stats() {
+        long flushCount = flushes.sum();
+        return HistoryWriterStatsResponse.builder()
+                .written(written.sum())
+                .sequenced(sequenced.sum())
+                .pending(assetHistoryRepository.countByFeedSeqIsNull())
+                .lastSeq(Math.max(published, 0))
+                .flushes(flushCount)
+                .averageFlushMillis(flushCount == 0 ? 0 : flushNanos.sum() / 1e6 / flushCount)
+                .lastFlushMillis(lastFlushNanos / 1e6)
+                .build();
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::sequenceLoop, "asset-history-writer");
+        writer.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        wake();
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private int sequenceBatch() {
+        AssetHistoryFeed head = assetHistoryFeedRepository.findHeadForUpdate()
+                .orElseGet(() -> assetHistoryFeedRepository.save(AssetHistoryFeed.builder()
+                        .id(AssetHistoryFeed.ID)
+                        .lastSeq(assetHistoryRepository.findMaxFeedSeq())
+                        .build()));
+        // read under the lock, so it sees every batch numbered before this one
+        List<AssetHistory> pending = assetHistoryRepository.findUnsequenced(Limit.of(batchSize));
+        long seq = head.getLastSeq();
+        for (AssetHistory history : pending) {
+            history.setFeedSeq(++seq);
+        }
+        head.setLastSeq(seq);
+        return pending.size();
+    }
+
+    private void wake() {
+        if (wakeups.availablePermits() == 0) {
+            wakeups.release();
+        }
+    }
+
+    private void sequenceLoop() {
+        while (running) {
+            try {
+                if (published < 0) {
+                    published = assetHistoryRepository.findMaxFeedSeq();
+                }
+                sequence();
+                publish();
+                wakeups.tryAcquire(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+                wakeups.drainPermits();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // e.g. the database is unreachable; committed entries wait for the next pass
+                log.warn("Asset history sequencing failed: {}", e.getMessage());
+                try {
+                    Thread.sleep(Math.min(pollInterval.toMillis(), 5_000));
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void notifyWritten(List<AssetHistory> histories) {
+        for (AssetHistoryListener listener : listeners) {
+            try {
+                listener.onWritten(histories);
+            } catch (RuntimeException e) {
+                // the entries are numbered; one listener must not hold up the others
+                log.warn("Asset history listener {} failed", listener.getClass().getSimpleName(), e);
+            }
+        }
+    }
+}
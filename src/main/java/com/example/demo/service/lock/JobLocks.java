@@ -0,0 +1,64 @@
+package com.example.demo.service.lock;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.entity.JobLock;
+import com.example.demo.repository.JobLockRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Leases in "job_locks" that let a scheduled job which every node triggers run
+ * on only one of them. The lease is taken with one conditional UPDATE and
+ * given back when the job ends; if the node dies instead, it runs out after
+ * {@code lockAtMost}, which must outlast the longest run. Expiry is compared
+ * against the nodes' own clocks, so they are assumed to be roughly in sync.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class JobLocks {
+    private static final String OWNER = ManagementFactory.getRuntimeMXBean().getName();
+
+    private final JobLockRepository jobLockRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Runs {@code job} if no other node holds {@code name}, and returns
+     * whether it ran.
+     */
+    public boolean runExclusively(String name, Duration lockAtMost, Runnable job) {
+        if (!acquire(name, lockAtMost)) {
+            log.debug("Skipped {}, another node holds its lock", name);
+            return false;
+        }
+        try {
+            job.run();
+        } finally {
+            transactionTemplate.executeWithoutResult(status -> jobLockRepository.release(name, OWNER, Instant.now()));
+        }
+        return true;
+    }
+
+    private boolean acquire(String name, Duration lockAtMost) {
+        if (!jobLockRepository.existsById(name)) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> jobLockRepository.save(
+                        JobLock.builder().name(name).lockedUntil(Instant.EPOCH).build()));
+            } catch (DataIntegrityViolationException e) {
+                // another node created it at the same time
+            }
+        }
+        Instant now = Instant.now();
+        Integer taken = transactionTemplate.execute(status -> jobLockRepository.acquire(name, OWNER, now,
+                now.plus(lockAtMost)));
+        return taken != null && taken == 1;
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.demo.service.notification;
+
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.Period;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+
+import org.springframework.scheduling.support.CronExpression;
+
+import com.example.demo.exception.InvalidRequest;
+
+/**
+ * How a notification marker repeats after its reminder milestone: an ISO-8601
+ * interval ({@code P3M}, {@code P1Y}, {@code P14D}, {@code PT12H}) counted
+ * from the milestone, or a six-field cron expression ({@code 0 0 8 1 * *}).
+ * Both are evaluated in UTC. The next occurrence is computed directly from
+ * the milestone, so a marker that missed many occurrences, e.g. while the
+ * server was down, jumps to the next one instead of replaying them, and
+ * monthly steps do not drift (Jan 31, Feb 28, Mar 31).
+ */
+public final class MarkerRecurrence {
+    private static final Duration MIN_INTERVAL = Duration.ofMinutes(1);
+    // mean Gregorian month
+    private static final double DAYS_PER_MONTH = 365.2425 / 12;
+
+    private final Duration duration;
+    private final Period period;
+    private final CronExpression cron;
+
+    private MarkerRecurrence(Duration duration, Period period, CronExpression cron) {
+        this.duration = duration;
+        this.period = period;
+        this.cron = cron;
+    }
+
+    /** The parsed rule, or null for a one-shot marker. */
+    public static MarkerRecurrence parse(String recurrence) {
+        if (recurrence == null || recurrence.isBlank()) {
+            return null;
+        }
+        String rule = recurrence.trim();
+        try {
+            if (rule.startsWith("P") && rule.contains("T")) {
+                Duration duration = Duration.parse(rule);
+                if (duration.compareTo(MIN_INTERVAL) < 0) {
+                    throw new InvalidRequest("Recurrence must be at least one minute");
+                }
+                return new MarkerRecurrence(duration, null, null);
+            }
+            if (rule.startsWith("P")) {
+                Period period = Period.parse(rule).normalized();
+                if (period.isNegative() || period.isZero()) {
+                    throw new InvalidRequest("Recurrence must be at least one minute");
+                }
+                // whole days are fixed lengths in UTC
+                return period.toTotalMonths() == 0
+                        ? new MarkerRecurrence(Duration.ofDays(period.getDays()), null, null)
+                        : new MarkerRecurrence(null, period, null);
+            }
+            return new MarkerRecurrence(null, null, CronExpression.parse(rule));
+        } catch (DateTimeException | IllegalArgumentException e) {
+            throw new InvalidRequest("Invalid recurrence: " + rule);
+        }
+    }
+
+    /**
+     * The first occurrence strictly after {@code after}, counting from
+     * {@code milestone}; the milestone itself when it is still ahead.
+     */
+    public Instant next(Instant milestone, Instant after) {
+        if (milestone.isAfter(after)) {
+            return milestone;
+        }
+        if (duration != null) {
+            long steps = Duration.between(milestone, after).dividedBy(duration) + 1;
+            return milestone.plus(duration.multipliedBy(steps));
+        }
+        ZonedDateTime start = milestone.atZone(ZoneOffset.UTC);
+        ZonedDateTime end = after.atZone(ZoneOffset.UTC);
+        if (period != null) {
+            // estimated from the average step length, which can land a step or so either side
+            double stepDays = period.toTotalMonths() * DAYS_PER_MONTH + period.getDays();
+            long steps = (long) (ChronoUnit.DAYS.between(start, end) / stepDays);
+            ZonedDateTime next = start.plus(period.multipliedBy(Math.toIntExact(steps)));
+            while (steps > 0 && next.isAfter(end)) {
+                next = start.plus(period.multipliedBy(Math.toIntExact(--steps)));
+            }
+            while (!next.isAfter(end)) {
+                next = start.plus(period.multipliedBy(Math.toIntExact(++steps)));
+            }
+            return next.toInstant();
+        }
+        ZonedDateTime next = cron.next(end);
+        return next == null ? null : next.toInstant();
+    }
+}
@@ -0,0 +1,233 @@
+package com.example.demo.service.notification;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.entity.Notification;
+import com.example.demo.entity.NotificationEvent;
+import com.example.demo.repository.NotificationEventRepository;
+import com.example.demo.repository.NotificationRepository;
+import com.example.demo.service.etag.AggregateVersions;
+import com.example.demo.service.etag.AggregateVersions.Aggregate;
+import com.example.demo.util.TransactionUtils;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Transactional outbox for notifications. Services add an event in the same
+ * transaction as the change it describes and return; deciding who is told and
+ * inserting their notifications happens on a dispatcher thread, so a request
+ * costs one outbox row however many recipients the event has. The dispatcher
+ * is woken when an event commits and also polls every {@code poll-interval},
+ * which picks up events left by a restart or added on another node. Each
+ * batch is claimed with SKIP LOCKED, rendered and inserted, and removed from
+ * the outbox in one transaction, so an event yields its notifications once.
+ * <p>
+ * When a batch fails its events are retried one by one, and one that fails on
+ * its own stays in the outbox: its attempt is counted and it is skipped for
+ * {@code retry-backoff}, doubling with each attempt up to
+ * {@code max-backoff}, so a passing fault delays it and a bad row does not
+ * hold up the rest. After {@code max-attempts} it is dead-lettered, kept
+ * with its last error but no longer dispatched.
+ */
+@Slf4j
+@Component
+public class NotificationOutbox implements SmartLifecycle {
+    private final NotificationEventRepository notificationEventRepository;
+    private final NotificationRepository notificationRepository;
+    private final NotificationRenderer notificationRenderer;
+    private final UnreadNotificationCounters unreadNotificationCounters;
+    private final NotificationPush notificationPush;
+    private final AggregateVersions aggregateVersions;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long pollMillis;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final Duration maxBackoff;
+
+    private final Semaphore wakeups = new Semaphore(0);
+    private volatile boolean running;
+    private Thread dispatcher;
+
+    public NotificationOutbox(NotificationEventRepository notificationEventRepository,
+            NotificationRepository notificationRepository, NotificationRenderer notificationRenderer,
+            UnreadNotificationCounters unreadNotificationCounters, NotificationPush notificationPush,
+            AggregateVersions aggregateVersions, TransactionTemplate transactionTemplate,
+            @Value("${notification.outbox.batch-size:100}") int batchSize,
+            @Value("${notification.outbox.poll-interval:PT5S}") Duration pollInterval,
+            @Value("${notification.outbox.max-attempts:10}") int maxAttempts,
+            @Value("${notification.outbox.retry-backoff:PT30S}") Duration retryBackoff,
+            @Value("${notification.outbox.max-backoff:PT1H}") Duration maxBackoff) {
+        this.notificationEventRepository = notificationEventRepository;
+        this.notificationRepository = notificationRepository;
+        this.notificationRenderer = notificationRenderer;
+        this.unreadNotificationCounters = unreadNotificationCounters;
+        this.notificationPush = notificationPush;
+        this.aggregateVersions = aggregateVersions;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = Math.max(1, batchSize);
+        this.pollMillis = pollInterval.toMillis();
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBackoff = retryBackoff;
+        this.maxBackoff = maxBackoff;
+    }
+
+    public void add(NotificationEvent event) {
+        addAll(List.of(event));
+    }
+
+    /**
+     * Saves the events in the caller's transaction; the dispatcher is woken
+     * once it commits. Rolled-back events never notify anyone.
+     */
+    public void addAll(Collection<NotificationEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        notificationEventRepository.saveAll(events);
+        TransactionUtils.afterCommit(this::wake);
+    }
+
+    /**
+     * Dispatches one batch of events and returns how many were taken from
+     * the outbox.
+     */
+    public int dispatch() {
+        try {
+            return transactionTemplate.execute(status -> {
+                List<NotificationEvent> events = notificationEventRepository.findNextBatch(Instant.now(),
+                        Limit.of(batchSize));
+                deliver(events);
+                return events.size();
+            });
+        } catch (RuntimeException e) {
+            log.warn("Notification outbox batch failed, dispatching one by one: {}", e.getMessage());
+            return dispatchOneByOne();
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        dispatcher = new Thread(this::dispatchLoop, "notification-dispatcher");
+        dispatcher.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        wake();
+        try {
+            dispatcher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void wake() {
+        if (wakeups.availablePermits() == 0) {
+            wakeups.release();
+        }
+    }
+
+    private void dispatchLoop() {
+        while (running) {
+            try {
+                // a full batch means more may be waiting
+                int dispatched;
+                do {
+                    dispatched = dispatch();
+                } while (running && dispatched == batchSize);
+                wakeups.tryAcquire(pollMillis, TimeUnit.MILLISECONDS);
+                wakeups.drainPermits();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // e.g. the database is unreachable; the events stay in the outbox until the next poll
+                log.warn("Notification outbox dispatch failed: {}", e.getMessage());
+                try {
+                    Thread.sleep(pollMillis);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private int dispatchOneByOne() {
+        List<Long> ids = transactionTemplate.execute(status -> notificationEventRepository
+                .findNextBatch(Instant.now(), Limit.of(batchSize)).stream().map(NotificationEvent::getId).toList());
+        for (Long id : ids) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> notificationEventRepository.findClaimableById(id)
+                        .ifPresent(event -> deliver(List.of(event))));
+            } catch (RuntimeException e) {
+                // it failed on its own; keep it, but out of the way of the rest for a while
+                transactionTemplate.executeWithoutResult(status -> notificationEventRepository.findClaimableById(id)
+                        .ifPresent(event -> recordFailure(event, e)));
+            }
+        }
+        return ids.size();
+    }
+
+    private void recordFailure(NotificationEvent event, RuntimeException error) {
+        int attempts = event.getAttempts() + 1;
+        Instant now = Instant.now();
+        event.setAttempts(attempts);
+        String message = String.valueOf(error);
+        event.setLastError(message.length() > 500 ? message.substring(0, 500) : message);
+        if (attempts >= maxAttempts) {
+            event.setDeadLetteredAt(now);
+            log.error("Dead-lettered notification event {} after {} attempts", event.getId(), attempts, error);
+            return;
+        }
+        Instant next = now.plus(backoff(attempts));
+        event.setNextAttemptAt(next);
+        log.warn("Notification event {} failed (attempt {}), retrying at {}: {}", event.getId(), attempts, next,
+                error.getMessage());
+    }
+
+    private Duration backoff(int attempts) {
+        // doubles per attempt; the shift is bounded so it cannot overflow
+        Duration delay = retryBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private void deliver(List<NotificationEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        List<Notification> notifications = notificationRenderer.render(events);
+        notificationRepository.saveAll(notifications);
+        notificationEventRepository.deleteAllInBatch(events);
+        if (!notifications.isEmpty()) {
+            unreadNotificationCounters.added(notifications);
+            notificationPush.publish(notifications);
+            aggregateVersions.bump(Aggregate.NOTIFICATIONS);
+        }
+    }
+}
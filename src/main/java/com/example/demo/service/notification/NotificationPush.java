@@ -0,0 +1,387 @@
+package com.example.demo.service.notification;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+import com.example.demo.dto.notification.NotificationResponse;
+import com.example.demo.entity.Notification;
+import com.example.demo.entity.NotificationFeed;
+import com.example.demo.repository.NotificationFeedRepository;
+import com.example.demo.repository.NotificationRepository;
+import com.example.demo.util.TransactionUtils;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Server-Sent Event streams of new notifications, per connected user. An idle
+ * stream is an async request holding a socket but no thread; events are
+ * written by a small sender pool. Each connection buffers at most
+ * {@code buffer} unsent events: a client that falls further behind is
+ * disconnected rather than queued for, and catches up when it reconnects.
+ * <p>
+ * Streams are fed from the table, not from the node that created the
+ * notification, so a user hears of every notification whichever node they are
+ * connected to. Like the asset history feed, committed notifications are given
+ * positions under a lock on the feed head row, so positions commit in order,
+ * and one thread per node, woken when a notification commits here and every
+ * {@code poll-interval} for other nodes', numbers them and then pushes
+ * everything past the last position it has seen to its local streams. Events
+ * carry the position as their id, so the last one a browser saw is a cursor
+ * that no later commit can fall behind.
+ */
+@Slf4j
+@Component
+public class NotificationPush implements SmartLifecycle {
+    static final String EVENT = "notification";
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationFeedRepository notificationFeedRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long timeoutMillis;
+    private final int buffer;
+    private final int batchSize;
+    private final Duration pollInterval;
+    private final Executor sender;
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final Semaphore wakeups = new Semaphore(0);
+    // last position pushed to the local streams; -1 until read at start
+    private volatile long published = -1;
+    private volatile boolean running;
+    private Thread feeder;
+
+    public NotificationPush(NotificationRepository notificationRepository,
+            NotificationFeedRepository notificationFeedRepository, TransactionTemplate transactionTemplate,
+            @Value("${notification.push.timeout:PT30M}") Duration timeout,
+            @Value("${notification.push.buffer:64}") int buffer,
+            @Value("${notification.push.batch-size:500}") int batchSize,
+            @Value("${notification.push.poll-interval:1s}") Duration pollInterval,
+            @Value("${notification.push.sender-threads:4}") int senderThreads) {
+        this(notificationRepository, notificationFeedRepository, transactionTemplate, timeout, buffer, batchSize,
+                pollInterval, Executors.newFixedThreadPool(Math.max(1, senderThreads)));
+    }
+
+    NotificationPush(NotificationRepository notificationRepository,
+            NotificationFeedRepository notificationFeedRepository, TransactionTemplate transactionTemplate,
+            Duration timeout, int buffer, int batchSize, Duration pollInterval, Executor sender) {
+        this.notificationRepository = notificationRepository;
+        this.notificationFeedRepository = notificationFeedRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.timeoutMillis = timeout.toMillis();
+        this.buffer = Math.max(1, buffer);
+        this.batchSize = Math.max(1, batchSize);
+        this.pollInterval = pollInterval;
+        this.sender = sender;
+    }
+
+    /**
+     * Opens a stream for {@code userId}. With {@code lastEventId}, the user's
+     * notifications past that feed position are sent first, up to one
+     * buffer's worth; older gaps are left to the paginated inbox.
+     */
+    public SseEmitter subscribe(Long userId, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        attach(userId, lastEventId, emitter);
+        return emitter;
+    }
+
+    void attach(Long userId, Long lastEventId, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(userId, emitter);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        // registered before replaying, so a notification numbered in between is buffered, not missed
+        subscribers.compute(userId, (id, listening) -> {
+            Set<Subscriber> set = listening == null ? ConcurrentHashMap.newKeySet() : listening;
+            set.add(subscriber);
+            return set;
+        });
+        connections.incrementAndGet();
+
+        List<Notification> missed = lastEventId == null
+                ? List.of()
+                : notificationRepository.findByUserIdAfterSeq(userId, lastEventId, Limit.of(buffer));
+        subscriber.replay(missed);
+    }
+
+    /**
+     * Wakes this node's feed thread once the surrounding transaction commits,
+     * so newly saved notifications are numbered and pushed without waiting
+     * for the next poll.
+     */
+    public void publish(Collection<Notification> notifications) {
+        if (!notifications.isEmpty()) {
+            TransactionUtils.afterCommit(this::wake);
+        }
+    }
+
+    public void publish(Notification notification) {
+        publish(List.of(notification));
+    }
+
+    /**
+     * Gives every committed notification without a feed position the next
+     * one, a batch per transaction, and returns how many were numbered here.
+     */
+    public int sequence() {
+        int total = 0;
+        int numbered;
+        do {
+            numbered = transactionTemplate.execute(status -> sequenceBatch());
+            total += numbered;
+            // a full batch means more may be waiting
+        } while (numbered == batchSize);
+        return total;
+    }
+
+    /**
+     * Pushes every notification past the last position seen here to its
+     * recipient's streams on this node, in feed order, and returns how many
+     * were read.
+     */
+    public int deliver() {
+        if (published < 0) {
+            // streams only hear about what is numbered from now on
+            published = notificationRepository.findMaxFeedSeq();
+        }
+        int total = 0;
+        List<Notification> batch;
+        do {
+            batch = notificationRepository.findFeedAfter(published, Limit.of(batchSize));
+            for (Notification notification : batch) {
+                Set<Subscriber> listening = subscribers.get(notification.getUser().getId());
+                if (listening != null) {
+                    NotificationResponse event = NotificationResponse.fromEntity(notification);
+                    listening.forEach(subscriber -> subscriber.offer(notification.getFeedSeq(), event));
+                }
+                published = notification.getFeedSeq();
+            }
+            total += batch.size();
+        } while (batch.size() == batchSize);
+        return total;
+    }
+
+    public int getConnections() {
+        return connections.get();
+    }
+
+    /**
+     * A comment line on every idle stream, so proxies keep it open and dead
+     * connections surface as write errors.
+     */
+    @Scheduled(fixedDelayString = "${notification.push.heartbeat:PT20S}",
+            initialDelayString = "${notification.push.heartbeat:PT20S}")
+    public void heartbeat() {
+        subscribers.values().forEach(listening -> listening.forEach(Subscriber::heartbeat));
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        feeder = new Thread(this::feedLoop, "notification-push");
+        feeder.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        wake();
+        try {
+            feeder.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        subscribers.values().forEach(listening -> listening.forEach(subscriber -> subscriber.emitter.complete()));
+        if (sender instanceof ExecutorService pool) {
+            pool.shutdown();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private int sequenceBatch() {
+        NotificationFeed head = notificationFeedRepository.findHeadForUpdate()
+                .orElseGet(() -> notificationFeedRepository.save(NotificationFeed.builder()
+                        .id(NotificationFeed.ID)
+                        .lastSeq(notificationRepository.findMaxFeedSeq())
+                        .build()));
+        // read under the lock, so it sees every batch numbered before this one
+        List<Notification> pending = notificationRepository.findUnsequenced(Limit.of(batchSize));
+        long seq = head.getLastSeq();
+        for (Notification notification : pending) {
+            notification.setFeedSeq(++seq);
+        }
+        head.setLastSeq(seq);
+        return pending.size();
+    }
+
+    private void wake() {
+        if (wakeups.availablePermits() == 0) {
+            wakeups.release();
+        }
+    }
+
+    private void feedLoop() {
+        while (running) {
+            try {
+                if (published < 0) {
+                    published = notificationRepository.findMaxFeedSeq();
+                }
+                sequence();
+                deliver();
+                wakeups.tryAcquire(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+                wakeups.drainPermits();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // e.g. the database is unreachable; committed notifications wait for the next pass
+                log.warn("Notification push feed failed: {}", e.getMessage());
+                try {
+                    Thread.sleep(Math.min(pollInterval.toMillis(), 5_000));
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    // a heartbeat has no position
+    private record Outgoing(long seq, SseEventBuilder event) {
+    }
+
+    private class Subscriber {
+        private final Long userId;
+        private final SseEmitter emitter;
+        // events and heartbeats not yet written; pending counts them
+        private final Queue<Outgoing> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        // highest position written, so a live event the replay already sent is skipped
+        private long sent = -1;
+
+        private Subscriber(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+            // held back until the replay is written, so live events cannot overtake it
+            draining.set(true);
+        }
+
+        private void replay(List<Notification> missed) {
+            try {
+                for (Notification notification : missed) {
+                    emitter.send(event(notification.getFeedSeq(), NotificationResponse.fromEntity(notification)));
+                    sent = notification.getFeedSeq();
+                }
+            } catch (IOException | IllegalStateException e) {
+                close();
+                return;
+            }
+            draining.set(false);
+            schedule();
+        }
+
+        private void offer(long seq, NotificationResponse event) {
+            enqueue(new Outgoing(seq, event(seq, event)));
+        }
+
+        private void heartbeat() {
+            if (pending.get() == 0) {
+                enqueue(new Outgoing(-1, SseEmitter.event().comment("heartbeat")));
+            }
+        }
+
+        private void enqueue(Outgoing outgoing) {
+            if (closed.get()) {
+                return;
+            }
+            if (pending.incrementAndGet() > buffer) {
+                log.debug("Notification stream of user {} fell {} events behind, disconnecting", userId, buffer);
+                emitter.complete();
+                close();
+                return;
+            }
+            queue.add(outgoing);
+            schedule();
+        }
+
+        private void schedule() {
+            if (!queue.isEmpty() && draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                Outgoing outgoing;
+                while (!closed.get() && (outgoing = queue.poll()) != null) {
+                    pending.decrementAndGet();
+                    if (outgoing.seq() < 0) {
+                        emitter.send(outgoing.event());
+                    } else if (outgoing.seq() > sent) {
+                        emitter.send(outgoing.event());
+                        sent = outgoing.seq();
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                // the client went away; the container reports it through onError/onCompletion too
+                close();
+            } finally {
+                draining.set(false);
+            }
+            if (!closed.get()) {
+                schedule();
+            }
+        }
+
+        private void close() {
+            if (closed.compareAndSet(false, true)) {
+                queue.clear();
+                connections.decrementAndGet();
+                subscribers.computeIfPresent(userId, (id, listening) -> {
+                    listening.remove(this);
+                    return listening.isEmpty() ? null : listening;
+                });
+            }
+        }
+    }
+
+    private static SseEventBuilder event(long seq, NotificationResponse notification) {
+        return SseEmitter.event().id(String.valueOf(seq)).name(EVENT).data(notification);
+    }
+}
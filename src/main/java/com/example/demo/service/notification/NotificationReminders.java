@@ -0,0 +1,249 @@
+package com.example.demo.service.notification;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.entity.NotificationEvent;
+import com.example.demo.entity.NotificationMarker;
+import com.example.demo.exception.InvalidRequest;
+import com.example.demo.repository.NotificationMarkerRepository;
+import com.example.demo.util.TransactionUtils;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Fires notification markers at their next fire time: the reminder milestone,
+ * then each occurrence of a recurring marker's rule. The fire times within
+ * {@code horizon} are kept in a priority queue, loaded from the next_fire_at
+ * index and reloaded as the horizon runs out, so the scheduler thread sleeps until the next one is due instead
+ * of polling the table. Markers created or moved on this node are queued when
+ * they commit; ones from other nodes are picked up by the next reload.
+ * <p>
+ * Firing claims due markers in batches with SKIP LOCKED, stamps them fired
+ * with their next fire time (none for one-shot markers), one UPDATE per
+ * schedule, and adds an outbox event for each in one transaction, so every marker fires once
+ * across nodes and the holder and department manager notifications are
+ * rendered by the outbox dispatcher. An overdue backlog is drained batch after
+ * batch before the thread sleeps again.
+ */
+@Slf4j
+@Component
+public class NotificationReminders implements SmartLifecycle {
+    private final NotificationMarkerRepository notificationMarkerRepository;
+    private final NotificationOutbox notificationOutbox;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration horizon;
+
+    private final Semaphore wakeups = new Semaphore(0);
+    // guarded by this
+    private final PriorityQueue<Instant> upcoming = new PriorityQueue<>();
+    // guarded by this; milestones before it are all in the queue
+    private Instant loadedUntil = Instant.MIN;
+    private volatile boolean running;
+    private Thread scheduler;
+    // scheduler thread only
+    private boolean armed;
+
+    public NotificationReminders(NotificationMarkerRepository notificationMarkerRepository,
+            NotificationOutbox notificationOutbox, TransactionTemplate transactionTemplate,
+            @Value("${notification.reminder.batch-size:500}") int batchSize,
+            @Value("${notification.reminder.horizon:PT10M}") Duration horizon) {
+        this.notificationMarkerRepository = notificationMarkerRepository;
+        this.notificationOutbox = notificationOutbox;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = Math.max(1, batchSize);
+        this.horizon = horizon;
+    }
+
+    /**
+     * Queues a marker's next fire time once the caller's transaction commits,
+     * if it falls within what is loaded; later ones come with a reload.
+     */
+    public void scheduled(NotificationMarker marker) {
+        if (marker.getNextFireAt() != null) {
+            queue(List.of(marker.getNextFireAt()));
+        }
+    }
+
+    /**
+     * Fires every marker due by {@code now} and returns how many fired here;
+     * markers taken by another node meanwhile are skipped.
+     */
+    public int fireDue(Instant now) {
+        int fired = 0;
+        int claimed;
+        do {
+            claimed = transactionTemplate.execute(status -> claim(now));
+            fired += claimed;
+            // a full batch means more may be overdue
+        } while (claimed == batchSize);
+        synchronized (this) {
+            while (!upcoming.isEmpty() && !upcoming.peek().isAfter(now)) {
+                upcoming.poll();
+            }
+        }
+        return fired;
+    }
+
+    /**
+     * Replaces the queue with the fire times before {@code now + horizon}. When more are pending than a batch, only a
+     * batch is held and the next reload comes at its last milestone.
+     */
+    public void reload(Instant now) {
+        Instant until = now.plus(horizon);
+        List<Instant> milestones = notificationMarkerRepository.findNextFireTimesBefore(until, Limit.of(batchSize));
+        synchronized (this) {
+            upcoming.clear();
+            upcoming.addAll(milestones);
+            loadedUntil = milestones.size() == batchSize ? milestones.get(milestones.size() - 1) : until;
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        scheduler = new Thread(this::schedulerLoop, "notification-reminders");
+        scheduler.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        wake();
+        try {
+            scheduler.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private int claim(Instant now) {
+        List<NotificationMarker> due = notificationMarkerRepository.findDueBatch(now, Limit.of(batchSize));
+        if (due.isEmpty()) {
+            return 0;
+        }
+        // HashMap: null is the group of markers that are done
+        Map<Instant, List<Long>> byNextFire = new HashMap<>();
+        for (NotificationMarker marker : due) {
+            Instant next = nextFire(marker, now);
+            byNextFire.computeIfAbsent(next, key -> new ArrayList<>()).add(marker.getId());
+        }
+        byNextFire.forEach((next, ids) -> notificationMarkerRepository.markFired(ids, now, next));
+        notificationOutbox.addAll(due.stream()
+                .map(marker -> NotificationEvent.assetReminder(marker.getAsset().getId()))
+                .toList());
+        queue(byNextFire.keySet().stream().filter(Objects::nonNull).toList());
+        return due.size();
+    }
+
+    private static Instant nextFire(NotificationMarker marker, Instant now) {
+        try {
+            MarkerRecurrence recurrence = MarkerRecurrence.parse(marker.getRecurrence());
+            return recurrence == null ? null : recurrence.next(marker.getReminderMilestone(), now);
+        } catch (InvalidRequest e) {
+            // validated when saved, so only a hand-edited row gets here; fire it this once
+            log.warn("Notification marker {} has an invalid recurrence: {}", marker.getId(), e.getMessage());
+            return null;
+        }
+    }
+
+    private void queue(Collection<Instant> fireTimes) {
+        if (fireTimes.isEmpty()) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> {
+            synchronized (this) {
+                fireTimes.stream().filter(at -> at.isBefore(loadedUntil)).forEach(upcoming::add);
+            }
+            wake();
+        });
+    }
+
+    private void wake() {
+        if (wakeups.availablePermits() == 0) {
+            wakeups.release();
+        }
+    }
+
+    private void schedulerLoop() {
+        while (running) {
+            try {
+                if (!armed) {
+                    int armedCount = transactionTemplate.execute(status -> notificationMarkerRepository
+                            .armUnscheduled());
+                    if (armedCount > 0) {
+                        log.info("Armed {} notification markers saved without a fire time", armedCount);
+                    }
+                    armed = true;
+                }
+                Instant now = Instant.now();
+                boolean reload;
+                boolean due;
+                synchronized (this) {
+                    reload = !now.isBefore(loadedUntil);
+                }
+                if (reload) {
+                    reload(now);
+                }
+                synchronized (this) {
+                    due = !upcoming.isEmpty() && !upcoming.peek().isAfter(now);
+                }
+                if (due) {
+                    int fired = fireDue(now);
+                    if (fired > 0) {
+                        log.info("Fired {} notification reminders", fired);
+                    }
+                }
+                wakeups.tryAcquire(millisUntilNext(), TimeUnit.MILLISECONDS);
+                wakeups.drainPermits();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // e.g. the database is unreachable; unfired markers stay pending until the next reload
+                log.warn("Notification reminders failed: {}", e.getMessage());
+                synchronized (this) {
+                    loadedUntil = Instant.MIN;
+                }
+                try {
+                    Thread.sleep(Math.min(horizon.toMillis(), 5_000));
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private synchronized long millisUntilNext() {
+        Instant next = upcoming.isEmpty() || upcoming.peek().isAfter(loadedUntil) ? loadedUntil : upcoming.peek();
+        return Math.max(1, Duration.between(Instant.now(), next).toMillis());
+    }
+}
@@ -0,0 +1,266 @@
+package com.example.demo.service.notification;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Component;
+
+import com.example.demo.entity.Asset;
+import com.example.demo.entity.Department;
+import com.example.demo.entity.Notification;
+import com.example.demo.entity.NotificationEvent;
+import com.example.demo.entity.User;
+import com.example.demo.enums.NotificationEventType;
+import com.example.demo.enums.NotificationType;
+import com.example.demo.repository.AssetRepository;
+import com.example.demo.repository.DepartmentRepository;
+import com.example.demo.repository.UserRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Turns a batch of outbox events into the notifications they fan out to.
+ * Assets, users, departments and managers are each loaded with one query for
+ * the whole batch, however many events or recipients it holds. Events whose
+ * asset, user or department is gone by now render nothing, and so does a
+ * reminder for an asset nobody holds.
+ */
+@Component
+@RequiredArgsConstructor
+public class NotificationRenderer {
+    private final AssetRepository assetRepository;
+    private final UserRepository userRepository;
+    private final DepartmentRepository departmentRepository;
+
+    public List<Notification> render(List<NotificationEvent> events) {
+        Map<Long, Asset> assets = load(ids(events, NotificationEvent::getAssetId),
+                assetRepository::findDetailedByIdIn, Asset::getId);
+        // reminders go to whoever holds the asset now, loaded with the other users
+        Set<Long> userIds = new HashSet<>(ids(events, NotificationEvent::getUserId));
+        for (NotificationEvent event : events) {
+            Asset asset = assets.get(event.getAssetId());
+            if (event.getType() == NotificationEventType.ASSET_REMINDER && asset != null
+                    && asset.getAssignedTo() != null) {
+                userIds.add(asset.getAssignedTo().getId());
+            }
+        }
+        Map<Long, User> users = load(userIds, userRepository::findWithDepartmentByIdIn, User::getId);
+        Map<Long, Department> departments = load(ids(events, NotificationEvent::getDepartmentId),
+                departmentRepository::findAllById, Department::getId);
+
+        Set<Long> managerIds = new HashSet<>();
+        for (NotificationEvent event : events) {
+            Department department = switch (event.getType()) {
+                case DEPARTMENT_UPDATED -> departments.get(event.getDepartmentId());
+                case ASSET_ASSIGNED -> users.containsKey(event.getUserId())
+                        ? users.get(event.getUserId()).getDepartment()
+                        : null;
+                case ASSET_REMINDER -> {
+                    User holder = holder(assets.get(event.getAssetId()), users);
+                    yield holder == null ? null : holder.getDepartment();
+                }
+                default -> null;
+            };
+            if (department != null && department.getManagerId() != null) {
+                managerIds.add(department.getManagerId());
+            }
+        }
+        Map<Long, User> managers = load(managerIds, userRepository::findAllById, User::getId);
+
+        List<Notification> notifications = new ArrayList<>();
+        for (NotificationEvent event : events) {
+            Asset asset = assets.get(event.getAssetId());
+            User user = users.get(event.getUserId());
+            switch (event.getType()) {
+                case ASSET_ASSIGNED -> {
+                    if (asset == null || user == null) {
+                        break;
+                    }
+                    // Tạo notification cho user được assign
+                    notifications.add(assignedNotification(asset, user));
+                    // Tạo notification cho manager của department (nếu có)
+                    Department department = user.getDepartment();
+                    User manager = department == null ? null : managers.get(department.getManagerId());
+                    if (manager != null) {
+                        notifications.add(managerAssignedNotification(asset, user, manager));
+                    }
+                }
+                case ASSET_REVOKED -> {
+                    if (asset != null && user != null) {
+                        // Tạo notification cho user bị thu hồi
+                        notifications.add(revokedNotification(asset, user));
+                    }
+                }
+                case USER_CREATED, USER_UPDATED -> {
+                    if (user != null) {
+                        notifications.add(userNotification(user, event.getType()));
+                    }
+                }
+                case DEPARTMENT_UPDATED -> {
+                    Department department = departments.get(event.getDepartmentId());
+                    User manager = department == null ? null : managers.get(department.getManagerId());
+                    if (manager != null) {
+                        notifications.add(departmentUpdatedNotification(department, manager));
+                    }
+                }
+                case ASSET_REMINDER -> {
+                    User holder = holder(asset, users);
+                    if (holder == null) {
+                        break;
+                    }
+                    notifications.add(reminderNotification(asset, holder));
+                    Department department = holder.getDepartment();
+                    User manager = department == null ? null : managers.get(department.getManagerId());
+                    if (manager != null && !manager.getId().equals(holder.getId())) {
+                        notifications.add(managerReminderNotification(asset, holder, manager));
+                    }
+                }
+            }
+        }
+        return notifications;
+    }
+
+    private Notification assignedNotification(Asset asset, User user) {
+        return Notification.builder()
+                .user(user)
+                .asset(asset)
+                .title("Tài sản đã được gán cho bạn")
+                .message(String.format("Tài sản %s (%s) đã được gán cho bạn. Mã tài sản: %s",
+                        asset.getName(), asset.getType().getName(), asset.getCode()))
+                .type(NotificationType.INFO)
+                .isRead(false)
+                .build();
+    }
+
+    private Notification managerAssignedNotification(Asset asset, User user, User manager) {
+        Department department = user.getDepartment();
+        return Notification.builder()
+                .user(manager)
+                .asset(asset)
+                .title("Tài sản đã được gán cho nhân viên trong phòng ban")
+                .message(String.format(
+                        "Tài sản %s (%s) đã được gán cho %s trong phòng ban %s. Mã tài sản: %s",
+                        asset.getName(), asset.getType().getName(),
+                        user.getName(), department.getName(),
+                        asset.getCode()))
+                .type(NotificationType.INFO)
+                .isRead(false)
+                .build();
+    }
+
+    private Notification revokedNotification(Asset asset, User currentUser) {
+        return Notification.builder()
+                .user(currentUser)
+                .asset(asset)
+                .title("Tài sản đã được thu hồi")
+                .message(String.format("Tài sản %s (%s) đã được thu hồi từ bạn. Mã tài sản: %s",
+                        asset.getName(), asset.getType().getName(), asset.getCode()))
+                .type(NotificationType.WARNING)
+                .isRead(false)
+                .build();
+    }
+
+    /**
+     * Tạo thông báo cho người dùng khi admin thêm hoặc cập nhật thông tin
+     */
+    private Notification userNotification(User user, NotificationEventType event) {
+        String title;
+        String message;
+        NotificationType type;
+
+        if (event == NotificationEventType.USER_CREATED) {
+            title = "Tài khoản của bạn đã được tạo";
+            message = String.format("Xin chào %s, tài khoản của bạn đã được tạo thành công bởi quản trị viên. " +
+                    "Email: %s, Phòng ban: %s, Vai trò: %s",
+                    user.getName(),
+                    user.getEmail(),
+                    user.getDepartment() != null ? user.getDepartment().getName() : "N/A",
+                    user.getRole());
+            type = NotificationType.USER_CREATED;
+        } else {
+            title = "Thông tin tài khoản của bạn đã được cập nhật";
+            message = String.format("Xin chào %s, thông tin tài khoản của bạn đã được cập nhật bởi quản trị viên. " +
+                    "Phòng ban: %s, Vai trò: %s",
+                    user.getName(),
+                    user.getDepartment() != null ? user.getDepartment().getName() : "N/A",
+                    user.getRole());
+            type = NotificationType.USER_UPDATED;
+        }
+
+        return Notification.builder()
+                .user(user)
+                .asset(null)
+                .title(title)
+                .message(message)
+                .type(type)
+                .isRead(false)
+                .linkUrl("/profile") // Link đến trang profile của user
+                .build();
+    }
+
+    private Notification departmentUpdatedNotification(Department department, User manager) {
+        return Notification.builder()
+                .user(manager)
+                .asset(null)
+                .title("Phòng ban đã được cập nhật")
+                .message(String.format(
+                        "Phòng ban %s đã được cập nhật thông tin. Tên phòng ban: %s, Mô tả: %s, Số nhân viên: %d",
+                        department.getName(), department.getName(),
+                        department.getDescription() != null ? department.getDescription() : "Không có mô tả",
+                        department.getEmployeeCount()))
+                .type(NotificationType.INFO)
+                .isRead(false)
+                .build();
+    }
+
+    private Notification reminderNotification(Asset asset, User holder) {
+        return Notification.builder()
+                .user(holder)
+                .asset(asset)
+                .title("Nhắc nhở về tài sản")
+                .message(String.format("Tài sản %s (%s) bạn đang giữ đã đến mốc nhắc nhở. Mã tài sản: %s",
+                        asset.getName(), asset.getType().getName(), asset.getCode()))
+                .type(NotificationType.WARNING)
+                .isRead(false)
+                .build();
+    }
+
+    private Notification managerReminderNotification(Asset asset, User holder, User manager) {
+        return Notification.builder()
+                .user(manager)
+                .asset(asset)
+                .title("Nhắc nhở về tài sản trong phòng ban")
+                .message(String.format(
+                        "Tài sản %s (%s) do %s trong phòng ban %s đang giữ đã đến mốc nhắc nhở. Mã tài sản: %s",
+                        asset.getName(), asset.getType().getName(),
+                        holder.getName(), holder.getDepartment().getName(),
+                        asset.getCode()))
+                .type(NotificationType.WARNING)
+                .isRead(false)
+                .build();
+    }
+
+    private static User holder(Asset asset, Map<Long, User> users) {
+        return asset == null || asset.getAssignedTo() == null ? null : users.get(asset.getAssignedTo().getId());
+    }
+
+    private static Set<Long> ids(List<NotificationEvent> events, Function<NotificationEvent, Long> id) {
+        return events.stream().map(id).filter(Objects::nonNull).collect(Collectors.toSet());
+    }
+
+    private static <T> Map<Long, T> load(Set<Long> ids, Function<Set<Long>, ? extends Collection<T>> loader,
+            Function<T, Long> id) {
+        if (ids.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return loader.apply(ids).stream().collect(Collectors.toMap(id, Function.identity()));
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.demo.service.notification;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.entity.Notification;
+import com.example.demo.entity.NotificationUnreadCount;
+import com.example.demo.repository.NotificationRepository;
+import com.example.demo.repository.NotificationUnreadCountRepository;
+import com.example.demo.service.lock.JobLocks;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Unread notifications per user, one row each in notification_unread_counts,
+ * so the inbox badge is one primary-key read and every node serves the same
+ * count. Services report each change in the transaction that makes it; the
+ * deltas are added just before it commits, one statement per user in user id
+ * order, so the rows are locked only for the commit and two writers lock them
+ * in the same order.
+ * <p>
+ * A periodic recount, run by one node at a time, corrects drift such as a
+ * notification marked read while a bulk delete was counting. It locks a batch
+ * of counters before counting, so a change that commits first is in both the
+ * count and the counter, and one that commits later waits and lands on top.
+ */
+@Slf4j
+@Component
+public class UnreadNotificationCounters implements SmartInitializingSingleton {
+    private static final String RECONCILE_JOB = "unread-notification-reconcile";
+    private static final int RECONCILE_BATCH = 500;
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationUnreadCountRepository notificationUnreadCountRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final JobLocks jobLocks;
+    private final Duration reconcileLockAtMost;
+
+    public UnreadNotificationCounters(NotificationRepository notificationRepository,
+            NotificationUnreadCountRepository notificationUnreadCountRepository,
+            TransactionTemplate transactionTemplate, JobLocks jobLocks,
+            @Value("${notification.unread.reconcile-lock-at-most:PT30M}") Duration reconcileLockAtMost) {
+        this.notificationRepository = notificationRepository;
+        this.notificationUnreadCountRepository = notificationUnreadCountRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.jobLocks = jobLocks;
+        this.reconcileLockAtMost = reconcileLockAtMost;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        // fills the table on first start; later starts find nothing to correct
+        reconcile();
+    }
+
+    public long get(Long userId) {
+        return notificationUnreadCountRepository.findById(userId)
+                .map(count -> Math.max(0, count.getUnread()))
+                .orElse(0L);
+    }
+
+    /**
+     * Counts the unread ones among newly saved notifications when the
+     * surrounding transaction commits. Call it inside that transaction.
+     */
+    public void added(Collection<Notification> notifications) {
+        Map<Long, Long> unread = new HashMap<>();
+        for (Notification notification : notifications) {
+            if (!Boolean.TRUE.equals(notification.getIsRead())) {
+                unread.merge(notification.getUser().getId(), 1L, Long::sum);
+            }
+        }
+        apply(unread);
+    }
+
+    public void added(Notification notification) {
+        added(List.of(notification));
+    }
+
+    /**
+     * Moves {@code userId}'s count by {@code delta} when the surrounding
+     * transaction commits. Call it inside that transaction.
+     */
+    public void adjust(Long userId, long delta) {
+        apply(Map.of(userId, delta));
+    }
+
+    /**
+     * Recounts every user with unread notifications or a non-zero counter,
+     * a batch per transaction, on one node at a time.
+     */
+    @Scheduled(fixedDelayString = "${notification.unread.reconcile-interval:PT10M}",
+            initialDelayString = "${notification.unread.reconcile-interval:PT10M}")
+    public void reconcile() {
+        jobLocks.runExclusively(RECONCILE_JOB, reconcileLockAtMost, this::recount);
+    }
+
+    private void apply(Map<Long, Long> deltas) {
+        if (deltas.values().stream().allMatch(delta -> delta == 0)) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            transactionTemplate.executeWithoutResult(status -> write(new TreeMap<>(deltas)));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Map<Long, Long> pending = (Map<Long, Long>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Map<Long, Long> sorted = new TreeMap<>();
+            TransactionSynchronizationManager.bindResource(this, sorted);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    write(sorted);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResource(UnreadNotificationCounters.this);
+                }
+            });
+            pending = sorted;
+        }
+        Map<Long, Long> target = pending;
+        deltas.forEach((userId, delta) -> target.merge(userId, delta, Long::sum));
+    }
+
+    private void write(Map<Long, Long> deltas) {
+        deltas.forEach((userId, delta) -> {
+            if (delta != 0) {
+                notificationUnreadCountRepository.add(userId, delta);
+            }
+        });
+    }
+
+    private void recount() {
+        TreeSet<Long> userIds = new TreeSet<>(notificationUnreadCountRepository.findNonZeroUserIds());
+        notificationRepository.countUnreadByUser().forEach(row -> userIds.add(row.getUserId()));
+        List<Long> ids = new ArrayList<>(userIds);
+        int corrected = 0;
+        for (int from = 0; from < ids.size(); from += RECONCILE_BATCH) {
+            List<Long> batch = ids.subList(from, Math.min(from + RECONCILE_BATCH, ids.size()));
+            corrected += transactionTemplate.execute(status -> recount(batch));
+        }
+        if (corrected > 0) {
+            log.info("Reconciled unread notification counters, corrected {} of {}", corrected, ids.size());
+        }
+    }
+
+    private int recount(List<Long> userIds) {
+        // creates missing counters; like every writer, locks them in user id order
+        userIds.forEach(userId -> notificationUnreadCountRepository.add(userId, 0));
+        List<NotificationUnreadCount> counts = notificationUnreadCountRepository.findAllForUpdate(userIds);
+        // counted under the locks, so no change is in one but not the other
+        Map<Long, Long> expected = new HashMap<>();
+        notificationRepository.countUnreadByUserIn(userIds)
+                .forEach(row -> expected.put(row.getUserId(), row.getTotal()));
+        int corrected = 0;
+        for (NotificationUnreadCount count : counts) {
+            long target = expected.getOrDefault(count.getUserId(), 0L);
+            if (count.getUnread() != target) {
+                count.setUnread(target);
+                corrected++;
+            }
+        }
+        return corrected;
+    }
+}
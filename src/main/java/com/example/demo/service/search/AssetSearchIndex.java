@@ -0,0 +1,240 @@
+package com.example.demo.service.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.dto.asset.AssetSearchResult;
+import com.example.demo.entity.Asset;
+import com.example.demo.entity.AssetType;
+import com.example.demo.repository.AssetRepository;
+import com.example.demo.repository.AssetTypeRepository;
+import com.example.demo.util.TransactionUtils;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-process inverted index over asset code, name, description and type name.
+ * Terms are lower-cased and stripped of Vietnamese diacritics, so "may tinh"
+ * finds "Máy tính"; every query term matches as a prefix. Built once before
+ * the web server starts and kept current by the services that write assets;
+ * their changes are applied once the transaction commits.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AssetSearchIndex implements SmartInitializingSingleton {
+    private static final int DEFAULT_LIMIT = 20;
+    private static final int MAX_LIMIT = 100;
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private final AssetRepository assetRepository;
+    private final AssetTypeRepository assetTypeRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // term -> ids of the assets containing it; sorted so a prefix is a sub-map range
+    private final ConcurrentSkipListMap<String, Set<Long>> postings = new ConcurrentSkipListMap<>();
+    private final Map<Long, IndexedAsset> documents = new ConcurrentHashMap<>();
+    private final Map<Long, String> typeNames = new ConcurrentHashMap<>();
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        assetTypeRepository.findAll().forEach(type -> typeNames.put(type.getId(), nullToEmpty(type.getName())));
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<AssetRepository.SearchRow> rows = assetRepository.streamSearchRows()) {
+                rows.forEach(row -> put(new IndexedAsset(row.getId(), row.getCode(), row.getName(),
+                        row.getDescription(), row.getTypeId())));
+            }
+        });
+        log.info("Asset search index built with {} assets in {} ms", documents.size(),
+                System.currentTimeMillis() - started);
+    }
+
+    /**
+     * Adds or replaces an asset once the surrounding transaction commits, so
+     * a rolled-back write leaves the index as it was. Only the type id is read
+     * from the association, so an uninitialized proxy is fine.
+     */
+    public void index(Asset asset) {
+        IndexedAsset document = new IndexedAsset(asset.getId(), asset.getCode(), asset.getName(),
+                asset.getDescription(), asset.getType() == null ? null : asset.getType().getId());
+        TransactionUtils.afterCommit(() -> put(document));
+    }
+
+    public void remove(Long assetId) {
+        TransactionUtils.afterCommit(() -> {
+            synchronized (this) {
+                IndexedAsset previous = documents.remove(assetId);
+                if (previous != null) {
+                    unlink(previous);
+                }
+            }
+        });
+    }
+
+    /**
+     * Records a created or renamed type and re-indexes the assets carrying it,
+     * once the surrounding transaction commits.
+     */
+    public void onTypeSaved(AssetType type) {
+        Long typeId = type.getId();
+        String name = nullToEmpty(type.getName());
+        TransactionUtils.afterCommit(() -> {
+            synchronized (this) {
+                String previous = typeNames.put(typeId, name);
+                if (previous != null && !previous.equals(name)) {
+                    documents.values().stream()
+                            .filter(document -> typeId.equals(document.typeId))
+                            .toList()
+                            .forEach(this::put);
+                }
+            }
+        });
+    }
+
+    public List<AssetSearchResult> search(String query, Integer limit) {
+        int max = limit == null ? DEFAULT_LIMIT : Math.min(Math.max(limit, 1), MAX_LIMIT);
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        Set<Long> candidates = null;
+        for (String term : terms) {
+            Set<Long> matches = new HashSet<>();
+            postings.subMap(term, true, term + Character.MAX_VALUE, true).values().forEach(matches::addAll);
+            if (candidates == null) {
+                candidates = matches;
+            } else {
+                candidates.retainAll(matches);
+            }
+            if (candidates.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        String foldedQuery = fold(query.trim());
+        return candidates.stream()
+                .map(documents::get)
+                .filter(document -> document != null)
+                .sorted(Comparator.comparingInt((IndexedAsset document) -> -score(document, terms, foldedQuery))
+                        .thenComparing(document -> document.id, Comparator.reverseOrder()))
+                .limit(max)
+                .map(document -> AssetSearchResult.builder()
+                        .id(document.id)
+                        .code(document.code)
+                        .name(document.name)
+                        .typeId(document.typeId)
+                        .typeName(document.typeId == null ? null : typeNames.get(document.typeId))
+                        .build())
+                .toList();
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    static String fold(String text) {
+        String lower = text.toLowerCase(Locale.ROOT).replace('đ', 'd');
+        return COMBINING_MARKS.matcher(Normalizer.normalize(lower, Normalizer.Form.NFD)).replaceAll("");
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(fold(text))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    // exact code hits first, then assets whose terms match whole words rather than prefixes
+    private int score(IndexedAsset document, List<String> terms, String foldedQuery) {
+        int score = 0;
+        if (document.code != null && fold(document.code).equals(foldedQuery)) {
+            score += 100;
+        }
+        for (String term : terms) {
+            if (document.terms.contains(term)) {
+                score += 10;
+            }
+        }
+        return score;
+    }
+
+    private synchronized void put(IndexedAsset document) {
+        Set<String> terms = new HashSet<>();
+        terms.addAll(tokenize(document.code));
+        terms.addAll(tokenize(document.name));
+        terms.addAll(tokenize(document.description));
+        if (document.typeId != null) {
+            terms.addAll(tokenize(typeNames.get(document.typeId)));
+        }
+
+        // unlink first: a type rename re-puts the same document, whose old terms are about to be replaced
+        IndexedAsset previous = documents.get(document.id);
+        if (previous != null) {
+            unlink(previous);
+        }
+        document.terms = terms;
+        documents.put(document.id, document);
+        for (String term : terms) {
+            postings.computeIfAbsent(term, key -> ConcurrentHashMap.newKeySet()).add(document.id);
+        }
+    }
+
+    private void unlink(IndexedAsset document) {
+        for (String term : document.terms) {
+            postings.computeIfPresent(term, (key, ids) -> {
+                ids.remove(document.id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    private static class IndexedAsset {
+        private final Long id;
+        private final String code;
+        private final String name;
+        private final String description;
+        private final Long typeId;
+        private Set<String> terms = Set.of();
+
+        private IndexedAsset(Long id, String code, String name, String description, Long typeId) {
+            this.id = id;
+            this.code = code;
+            this.name = name;
+            this.description = description;
+            this.typeId = typeId;
+        }
+    }
+}
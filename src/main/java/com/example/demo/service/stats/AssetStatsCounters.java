@@ -0,0 +1,191 @@
+package com.example.demo.service.stats;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.dto.asset.AssetStatsResponse;
+import com.example.demo.entity.Asset;
+import com.example.demo.entity.AssetStatCount;
+import com.example.demo.enums.AssetCondition;
+import com.example.demo.enums.AssetStatus;
+import com.example.demo.repository.AssetRepository;
+import com.example.demo.repository.AssetStatCountRepository;
+import com.example.demo.util.DeltaCounters;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Dashboard totals by status, condition, type and department, kept in memory
+ * and moved by deltas as assets change, so reading them never touches the
+ * database. A periodic recount corrects drift, e.g. from assignees changing
+ * department, and optionally saves the result to "asset_stat_counts" so a
+ * restart can start from it instead of recounting.
+ */
+@Slf4j
+@Component
+public class AssetStatsCounters implements SmartInitializingSingleton {
+    static final String NONE = "none";
+    private static final String TOTAL = "total";
+    private static final String STATUS = "status";
+    private static final String CONDITION = "condition";
+    private static final String TYPE = "type";
+    private static final String DEPARTMENT = "department";
+
+    private final AssetRepository assetRepository;
+    private final AssetStatCountRepository assetStatCountRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean persist;
+
+    // "status:IN_USE" -> count; one flat map so a change touches at most ten keys
+    private final DeltaCounters<String> counters = new DeltaCounters<>();
+    private volatile Instant reconciledAt;
+
+    public AssetStatsCounters(AssetRepository assetRepository, AssetStatCountRepository assetStatCountRepository,
+            TransactionTemplate transactionTemplate, @Value("${asset.stats.persist:true}") boolean persist) {
+        this.assetRepository = assetRepository;
+        this.assetStatCountRepository = assetStatCountRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.persist = persist;
+    }
+
+    /**
+     * The dimensions of one asset that the counters are keyed on.
+     */
+    public record Snapshot(AssetStatus status, AssetCondition condition, Long typeId, Long departmentId) {
+        public static Snapshot of(Asset asset) {
+            Long departmentId = asset.getAssignedTo() == null || asset.getAssignedTo().getDepartment() == null
+                    ? null
+                    : asset.getAssignedTo().getDepartment().getId();
+            return new Snapshot(asset.getStatus(), asset.getCondition(),
+                    asset.getType() == null ? null : asset.getType().getId(), departmentId);
+        }
+
+        private List<String> keys() {
+            return List.of(TOTAL,
+                    key(STATUS, status),
+                    key(CONDITION, condition),
+                    key(TYPE, typeId),
+                    key(DEPARTMENT, departmentId));
+        }
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (persist) {
+            List<AssetStatCount> saved = assetStatCountRepository.findAll();
+            if (!saved.isEmpty()) {
+                counters.apply(saved.stream()
+                        .collect(Collectors.toMap(AssetStatCount::getStatKey, AssetStatCount::getTotal)));
+                reconciledAt = saved.stream().map(AssetStatCount::getUpdatedAt).max(Instant::compareTo).orElse(null);
+                log.info("Loaded {} asset counters saved at {}", saved.size(), reconciledAt);
+                return;
+            }
+        }
+        reconcile();
+    }
+
+    /**
+     * Moves the counters from {@code before} to {@code after}; either is null
+     * for a create or delete. Call it inside the transaction that makes the
+     * change; it is applied only once that commits.
+     */
+    public void applyChange(Snapshot before, Snapshot after) {
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        Map<String, Long> deltas = new HashMap<>();
+        if (before != null) {
+            before.keys().forEach(key -> deltas.merge(key, -1L, Long::sum));
+        }
+        if (after != null) {
+            after.keys().forEach(key -> deltas.merge(key, 1L, Long::sum));
+        }
+        counters.apply(deltas);
+    }
+
+    public AssetStatsResponse getStats() {
+        Map<String, Map<String, Long>> dimensions = new HashMap<>();
+        counters.forEach((key, count) -> {
+            if (!key.equals(TOTAL) && count != 0) {
+                int separator = key.indexOf(':');
+                dimensions.computeIfAbsent(key.substring(0, separator), dimension -> new TreeMap<>())
+                        .put(key.substring(separator + 1), count);
+            }
+        });
+        return AssetStatsResponse.builder()
+                .total(counters.get(TOTAL))
+                .byStatus(dimensions.getOrDefault(STATUS, Map.of()))
+                .byCondition(dimensions.getOrDefault(CONDITION, Map.of()))
+                .byType(dimensions.getOrDefault(TYPE, Map.of()))
+                .byDepartment(dimensions.getOrDefault(DEPARTMENT, Map.of()))
+                .reconciledAt(reconciledAt)
+                .build();
+    }
+
+    /**
+     * Recounts everything with four GROUP BY queries and corrects each counter
+     * that no change moved while the queries ran. Counters that changes were
+     * moving keep their value until a later recount finds them quiet, so a
+     * change is never lost or counted twice; see {@link DeltaCounters}.
+     */
+    @Scheduled(fixedDelayString = "${asset.stats.reconcile-interval:PT5M}",
+            initialDelayString = "${asset.stats.reconcile-interval:PT5M}")
+    public void reconcile() {
+        Map<String, Long> recount = new HashMap<>();
+        DeltaCounters.Reconciled result = counters.reconcile(() -> {
+            recount.putAll(transactionTemplate.execute(status -> recount()));
+            return recount;
+        });
+        reconciledAt = Instant.now();
+        if (result.corrected() > 0 || result.busy() > 0) {
+            log.info("Reconciled asset counters, corrected {} of {}, {} left for the next run as they were changing",
+                    result.corrected(), result.keys(), result.busy());
+        }
+
+        if (persist) {
+            Instant now = reconciledAt;
+            List<AssetStatCount> rows = recount.entrySet().stream()
+                    .map(entry -> AssetStatCount.builder()
+                            .statKey(entry.getKey())
+                            .total(entry.getValue())
+                            .updatedAt(now)
+                            .build())
+                    .toList();
+            transactionTemplate.executeWithoutResult(status -> {
+                assetStatCountRepository.deleteAllInBatch();
+                assetStatCountRepository.saveAll(rows);
+            });
+        }
+    }
+
+    private Map<String, Long> recount() {
+        Map<String, Long> counts = new HashMap<>();
+        long total = 0;
+        for (AssetRepository.BucketCount row : assetRepository.countByStatus()) {
+            counts.put(key(STATUS, row.getBucket()), row.getTotal());
+            total += row.getTotal();
+        }
+        counts.put(TOTAL, total);
+        assetRepository.countByCondition().forEach(row -> counts.put(key(CONDITION, row.getBucket()), row.getTotal()));
+        assetRepository.countByType().forEach(row -> counts.put(key(TYPE, row.getBucket()), row.getTotal()));
+        assetRepository.countByDepartment()
+                .forEach(row -> counts.put(key(DEPARTMENT, row.getBucket()), row.getTotal()));
+        return counts;
+    }
+
+    private static String key(String dimension, Object bucket) {
+        String name = bucket == null ? NONE : bucket instanceof Enum<?> value ? value.name() : bucket.toString();
+        return dimension + ":" + name;
+    }
+}
@@ -0,0 +1,379 @@
+package com.example.demo.service.utilization;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.dto.asset.AssetUtilizationResponse;
+import com.example.demo.dto.asset.AssetUtilizationRow;
+import com.example.demo.dto.asset.UtilizationRollupResponse;
+import com.example.demo.entity.AssetHistory;
+import com.example.demo.enums.AssetHistoryAction;
+import com.example.demo.enums.AssetStatus;
+import com.example.demo.enums.UtilizationGroup;
+import com.example.demo.exception.DataNotFound;
+import com.example.demo.repository.AssetHistoryRepository;
+import com.example.demo.service.history.AssetHistoryArchive;
+import com.example.demo.service.history.AssetHistoryListener;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Time each asset has spent in each status, derived from its history entries
+ * in change feed order, whichever node wrote them: an entry closes the asset's
+ * open interval and opens the next one in the entry's new status. The
+ * interval counts towards the type and assignee department recorded with the
+ * entry that opened it, both live and when replaying, so a user moving
+ * department later does not move time already spent. Per-type and
+ * per-department totals are kept as closed time plus the count and summed
+ * start of the intervals still open, so a report at any instant is arithmetic
+ * per group and never reads history.
+ * <p>
+ * The ledger is built at startup by replaying history up to a feed position,
+ * over asset id ranges in parallel, and rebuilt every
+ * {@code reconcile-interval} the same way. Live entries past that position are
+ * applied exactly once, so a rebuilt ledger agrees with one kept up live.
+ */
+@Slf4j
+@Component
+public class AssetUtilization implements AssetHistoryListener, SmartInitializingSingleton {
+    private static final double MILLIS_PER_DAY = 86_400_000d;
+    private static final int CATCH_UP_BATCH = 500;
+
+    private final AssetHistoryRepository assetHistoryRepository;
+    private final AssetHistoryArchive assetHistoryArchive;
+    private final TransactionTemplate transactionTemplate;
+    private final int backfillPartitions;
+
+    // guarded by this
+    private Ledger ledger = new Ledger();
+
+    public AssetUtilization(AssetHistoryRepository assetHistoryRepository, AssetHistoryArchive assetHistoryArchive,
+            TransactionTemplate transactionTemplate,
+            @Value("${asset.utilization.backfill-partitions:4}") int backfillPartitions) {
+        this.assetHistoryRepository = assetHistoryRepository;
+        this.assetHistoryArchive = assetHistoryArchive;
+        this.transactionTemplate = transactionTemplate;
+        this.backfillPartitions = Math.max(1, backfillPartitions);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        backfill();
+    }
+
+    /**
+     * Applies the entries past the ledger's position. A position the writer
+     * has not handed over, e.g. numbered before it started, is read from the
+     * table first.
+     */
+    @Override
+    public synchronized void onWritten(List<AssetHistory> histories) {
+        for (AssetHistory history : histories) {
+            long seq = history.getFeedSeq();
+            if (seq <= ledger.position) {
+                continue;
+            }
+            if (seq > ledger.position + 1) {
+                catchUp(ledger, seq - 1);
+            }
+            ledger.apply(history);
+        }
+    }
+
+    public synchronized AssetUtilizationResponse getAssetUtilization(Long assetId) {
+        Interval interval = ledger.assets.get(assetId);
+        if (interval == null) {
+            throw new DataNotFound("Asset not found");
+        }
+        long now = System.currentTimeMillis();
+        long inUse = interval.millis(AssetStatus.IN_USE, now);
+        long idle = interval.millis(AssetStatus.IN_STOCK, now);
+        long repair = interval.millis(AssetStatus.REPAIR, now);
+        return AssetUtilizationResponse.builder()
+                .assetId(assetId)
+                .asOf(Instant.ofEpochMilli(now))
+                .status(interval.status)
+                .statusSince(Instant.ofEpochMilli(interval.since))
+                .inUseDays(days(inUse))
+                .idleDays(days(idle))
+                .repairDays(days(repair))
+                .utilization(percent(inUse, idle, repair))
+                .build();
+    }
+
+    public synchronized List<UtilizationRollupResponse> getRollup(UtilizationGroup group) {
+        long now = System.currentTimeMillis();
+        Map<Long, Totals> totals = group == UtilizationGroup.DEPARTMENT ? ledger.byDepartment : ledger.byType;
+        List<UtilizationRollupResponse> rollup = new ArrayList<>(totals.size());
+        for (Totals total : totals.values()) {
+            long inUse = total.millis(AssetStatus.IN_USE, now);
+            long idle = total.millis(AssetStatus.IN_STOCK, now);
+            long repair = total.millis(AssetStatus.REPAIR, now);
+            rollup.add(UtilizationRollupResponse.builder()
+                    .groupId(total.groupId)
+                    .asOf(Instant.ofEpochMilli(now))
+                    .assetCount(total.assetCount())
+                    .inUseDays(days(inUse))
+                    .idleDays(days(idle))
+                    .repairDays(days(repair))
+                    .utilization(percent(inUse, idle, repair))
+                    .build());
+        }
+        rollup.sort(Comparator.comparing(UtilizationRollupResponse::getGroupId,
+                Comparator.nullsFirst(Comparator.naturalOrder())));
+        return rollup;
+    }
+
+    /**
+     * Replaces the ledger with one replayed from stored history.
+     */
+    public void backfill() {
+        Ledger replayed = replay();
+        synchronized (this) {
+            ledger = replayed;
+        }
+    }
+
+    /**
+     * Rebuilds the ledger from stored history and swaps it in, correcting any
+     * drift of the live one. Entries applied live past the rebuild's position
+     * are read again from the table before the swap.
+     */
+    @Scheduled(fixedDelayString = "${asset.utilization.reconcile-interval:PT1H}",
+            initialDelayString = "${asset.utilization.reconcile-interval:PT1H}")
+    public void reconcile() {
+        Ledger replayed = replay();
+        synchronized (this) {
+            catchUp(replayed, ledger.position);
+            ledger = replayed;
+        }
+    }
+
+    /**
+     * Replays all stored history up to the current feed position into a new
+     * ledger. Each partition owns one asset id range: archived entries, all
+     * older than the table's, are routed to it first, then it streams its
+     * range of the table in (asset, time) order on its own connection. Ranges
+     * hold disjoint assets, so the partition ledgers just add up.
+     */
+    private Ledger replay() {
+        long started = System.currentTimeMillis();
+        // every position up to it has committed, so the table holds all of them
+        long upToSeq = assetHistoryRepository.findMaxFeedSeq();
+        Ledger replayed = new Ledger();
+        replayed.position = upToSeq;
+        Long maxStored = assetHistoryRepository.findMaxAssetId();
+        long maxAssetId = Math.max(maxStored == null ? 0 : maxStored, assetHistoryArchive.maxAssetId());
+        if (maxAssetId == 0) {
+            return replayed;
+        }
+        long span = maxAssetId / backfillPartitions + 1;
+        List<Ledger> ledgers = new ArrayList<>(backfillPartitions);
+        for (int i = 0; i < backfillPartitions; i++) {
+            ledgers.add(new Ledger());
+        }
+        assetHistoryArchive.replay(row -> ledgers.get((int) (row.assetId() / span)).apply(row.toUtilizationRow()));
+
+        ExecutorService pool = Executors.newFixedThreadPool(backfillPartitions);
+        try {
+            List<Future<Ledger>> partitions = new ArrayList<>(backfillPartitions);
+            for (int i = 0; i < backfillPartitions; i++) {
+                Ledger partition = ledgers.get(i);
+                long fromId = i * span;
+                long toId = fromId + span;
+                partitions.add(pool.submit(() -> replay(partition, fromId, toId, upToSeq)));
+            }
+            for (Future<Ledger> partition : partitions) {
+                replayed.merge(partition.get());
+            }
+            log.info("Replayed utilization of {} assets up to feed position {} in {} ms", replayed.assets.size(),
+                    upToSeq, System.currentTimeMillis() - started);
+            return replayed;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Utilization backfill interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Utilization backfill failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private Ledger replay(Ledger partition, long fromId, long toId, long upToSeq) {
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<AssetUtilizationRow> rows = assetHistoryRepository.streamUtilizationRows(fromId, toId,
+                    upToSeq)) {
+                rows.forEach(partition::apply);
+            }
+        });
+        return partition;
+    }
+
+    /**
+     * Applies the stored entries after {@code target}'s position up to
+     * {@code upToSeq}, in feed order.
+     */
+    private void catchUp(Ledger target, long upToSeq) {
+        while (target.position < upToSeq) {
+            List<AssetHistory> batch = assetHistoryRepository.findFeedAfter(target.position,
+                    Limit.of(CATCH_UP_BATCH));
+            if (batch.isEmpty()) {
+                return;
+            }
+            for (AssetHistory history : batch) {
+                if (history.getFeedSeq() > upToSeq) {
+                    return;
+                }
+                target.apply(history);
+            }
+        }
+    }
+
+    private static double days(long millis) {
+        return Math.round(millis / MILLIS_PER_DAY * 100) / 100d;
+    }
+
+    private static double percent(long inUse, long idle, long repair) {
+        long inService = inUse + idle + repair;
+        return inService == 0 ? 0 : Math.round(inUse * 1000d / inService) / 10d;
+    }
+
+    private static class Ledger {
+        private final Map<Long, Interval> assets = new HashMap<>();
+        // HashMaps because null (no type / no department) is a group
+        private final Map<Long, Totals> byType = new HashMap<>();
+        private final Map<Long, Totals> byDepartment = new HashMap<>();
+        // last feed position applied
+        private long position;
+
+        private void apply(AssetHistory history) {
+            if (history.getAssetId() != null) {
+                apply(new AssetUtilizationRow(history.getAssetId(), history.getTypeId(),
+                        history.getDepartmentId(), history.getActionType(), history.getNewStatus(),
+                        history.getPerformedAt()));
+            }
+            position = history.getFeedSeq();
+        }
+
+        private void apply(AssetUtilizationRow row) {
+            Interval interval = assets.get(row.assetId());
+            long at = row.at().toEpochMilli();
+            AssetStatus status = row.status();
+            if (interval != null) {
+                // commits can land slightly out of performedAt order; never run time backwards
+                at = Math.max(at, interval.since);
+                interval.closed[interval.status.ordinal()] += at - interval.since;
+                byType.get(interval.typeId).close(interval.status, interval.since, at);
+                byDepartment.get(interval.departmentId).close(interval.status, interval.since, at);
+                if (status == null) {
+                    status = interval.status;
+                }
+            }
+            if (row.action() == AssetHistoryAction.DELETED) {
+                assets.remove(row.assetId());
+                return;
+            }
+            if (status == null) {
+                // an entry without a status, and none known yet to carry on
+                return;
+            }
+            if (interval == null) {
+                interval = new Interval();
+                assets.put(row.assetId(), interval);
+            }
+            interval.status = status;
+            interval.since = at;
+            interval.typeId = row.typeId();
+            interval.departmentId = row.departmentId();
+            byType.computeIfAbsent(interval.typeId, Totals::new).open(status, at);
+            byDepartment.computeIfAbsent(interval.departmentId, Totals::new).open(status, at);
+        }
+
+        private void merge(Ledger other) {
+            assets.putAll(other.assets);
+            other.byType.forEach((id, total) -> byType.merge(id, total, Totals::merge));
+            other.byDepartment.forEach((id, total) -> byDepartment.merge(id, total, Totals::merge));
+        }
+    }
+
+    /**
+     * One asset: the status it is in since when, and the time already spent in
+     * each status, indexed by ordinal.
+     */
+    private static class Interval {
+        private final long[] closed = new long[AssetStatus.values().length];
+        private AssetStatus status;
+        private long since;
+        private Long typeId;
+        private Long departmentId;
+
+        private long millis(AssetStatus of, long now) {
+            return closed[of.ordinal()] + (of == status ? now - since : 0);
+        }
+    }
+
+    /**
+     * One type or department, per status: time of closed intervals, and the
+     * number and summed epoch-milli start of open ones, so the open time at
+     * {@code now} is {@code count * now - startSum}.
+     */
+    private static class Totals {
+        private final Long groupId;
+        private final long[] closed = new long[AssetStatus.values().length];
+        private final long[] openCount = new long[AssetStatus.values().length];
+        private final long[] openStartSum = new long[AssetStatus.values().length];
+
+        private Totals(Long groupId) {
+            this.groupId = groupId;
+        }
+
+        private void open(AssetStatus status, long at) {
+            openCount[status.ordinal()]++;
+            openStartSum[status.ordinal()] += at;
+        }
+
+        private void close(AssetStatus status, long since, long at) {
+            closed[status.ordinal()] += at - since;
+            openCount[status.ordinal()]--;
+            openStartSum[status.ordinal()] -= since;
+        }
+
+        private long millis(AssetStatus status, long now) {
+            int i = status.ordinal();
+            return closed[i] + openCount[i] * now - openStartSum[i];
+        }
+
+        private long assetCount() {
+            long count = 0;
+            for (long open : openCount) {
+                count += open;
+            }
+            return count;
+        }
+
+        private Totals merge(Totals other) {
+            for (int i = 0; i < closed.length; i++) {
+                closed[i] += other.closed[i];
+                openCount[i] += other.openCount[i];
+                openStartSum[i] += other.openStartSum[i];
+            }
+            return this;
+        }
+    }
+}
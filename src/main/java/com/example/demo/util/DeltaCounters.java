@@ -0,0 +1,124 @@
+package com.example.demo.util;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Counters kept in memory and moved by deltas as transactions commit, with a
+ * recount that corrects drift without losing or double-counting a delta that
+ * lands while it runs.
+ * <p>
+ * A delta marks its keys in flight when it is registered and applies when its
+ * transaction commits. The recount only corrects keys that had nothing in
+ * flight and nothing applied from just before its query until it reads them:
+ * for those, the query saw exactly what the counter holds. Busy keys keep
+ * their value and are corrected by a later recount that finds them quiet, so a
+ * key that never stops changing can keep its drift, but no recount ever makes
+ * a counter wrong.
+ */
+public class DeltaCounters<K> {
+
+    private static final class Counter {
+        private final LongAdder value = new LongAdder();
+        // advanced after each applied delta, before it leaves flight
+        private final AtomicLong generation = new AtomicLong();
+        private final AtomicInteger inFlight = new AtomicInteger();
+    }
+
+    /**
+     * Outcome of a recount: how many keys it covered, corrected, and left to
+     * a later one because deltas were moving them.
+     */
+    public record Reconciled(int keys, int corrected, int busy) {
+    }
+
+    private final Map<K, Counter> counters = new ConcurrentHashMap<>();
+
+    public long get(K key) {
+        Counter counter = counters.get(key);
+        return counter == null ? 0 : counter.value.sum();
+    }
+
+    public void forEach(BiConsumer<K, Long> action) {
+        counters.forEach((key, counter) -> action.accept(key, counter.value.sum()));
+    }
+
+    /**
+     * Moves the counters by {@code deltas} once the surrounding transaction
+     * commits, or at once when there is none. Callers must register the delta
+     * inside the transaction that makes the change, so a recount can see it
+     * coming.
+     */
+    public void apply(Map<K, Long> deltas) {
+        Map<K, Long> moved = new HashMap<>();
+        deltas.forEach((key, delta) -> {
+            if (delta != 0) {
+                moved.put(key, delta);
+            }
+        });
+        if (moved.isEmpty()) {
+            return;
+        }
+        moved.keySet().forEach(key -> counter(key).inFlight.incrementAndGet());
+        TransactionUtils.afterCompletion(committed -> moved.forEach((key, delta) -> {
+            Counter counter = counter(key);
+            if (committed) {
+                counter.value.add(delta);
+            }
+            counter.generation.incrementAndGet();
+            counter.inFlight.decrementAndGet();
+        }));
+    }
+
+    /**
+     * Sets the counters to {@code recount}'s result, key by key, where no
+     * delta raced the query; see the class comment.
+     */
+    public Reconciled reconcile(Supplier<Map<K, Long>> recount) {
+        Set<K> busyAtStart = new HashSet<>();
+        Map<K, Long> generations = new HashMap<>();
+        counters.forEach((key, counter) -> {
+            if (counter.inFlight.get() > 0) {
+                busyAtStart.add(key);
+            }
+            generations.put(key, counter.generation.get());
+        });
+
+        Map<K, Long> expected = recount.get();
+
+        Set<K> keys = new HashSet<>(counters.keySet());
+        keys.addAll(expected.keySet());
+        int corrected = 0;
+        int busy = 0;
+        for (K key : keys) {
+            Counter counter = counter(key);
+            // value first: a delta already in it has either left flight and
+            // advanced the generation, or is still in flight
+            long current = counter.value.sum();
+            if (busyAtStart.contains(key) || counter.inFlight.get() > 0
+                    || counter.generation.get() != generations.getOrDefault(key, 0L)) {
+                busy++;
+                continue;
+            }
+            long target = expected.getOrDefault(key, 0L);
+            if (current != target) {
+                // relative, so a delta registered after the checks still lands on top
+                counter.value.add(target - current);
+                corrected++;
+            }
+        }
+        return new Reconciled(keys.size(), corrected, busy);
+    }
+
+    private Counter counter(K key) {
+        return counters.computeIfAbsent(key, ignored -> new Counter());
+    }
+}
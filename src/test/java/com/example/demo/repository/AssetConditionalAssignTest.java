@@ -0,0 +1,75 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.Asset;
+import com.example.demo.entity.AssetType;
+import com.example.demo.entity.User;
+import com.example.demo.enums.AssetCondition;
+import com.example.demo.enums.AssetStatus;
+import com.example.demo.enums.Role;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class AssetConditionalAssignTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private AssetRepository assetRepository;
+
+    private Asset asset;
+    private User first;
+    private User second;
+
+    @BeforeEach
+    void setUp() {
+        AssetType type = entityManager.persist(AssetType.builder().name("Laptop").isActive(true).build());
+        first = entityManager.persist(User.builder()
+                .name("First").email("first@company.com").role(Role.STAFF).active(true).build());
+        second = entityManager.persist(User.builder()
+                .name("Second").email("second@company.com").role(Role.STAFF).active(true).build());
+        asset = entityManager.persist(Asset.builder()
+                .code("AS-1").name("Asset").type(type)
+                .status(AssetStatus.IN_STOCK).condition(AssetCondition.GOOD).build());
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void assignIfInStock_ShouldLetOnlyOneCallerWin() {
+        long version = assetRepository.findById(asset.getId()).orElseThrow().getVersion();
+
+        int won = assetRepository.assignIfInStock(asset.getId(), version, first);
+        int lost = assetRepository.assignIfInStock(asset.getId(), version, second);
+
+        assertThat(won).isEqualTo(1);
+        assertThat(lost).isZero();
+        Asset reloaded = assetRepository.findById(asset.getId()).orElseThrow();
+        assertThat(reloaded.getStatus()).isEqualTo(AssetStatus.IN_USE);
+        assertThat(reloaded.getAssignedTo().getId()).isEqualTo(first.getId());
+        assertThat(reloaded.getVersion()).isEqualTo(version + 1);
+    }
+
+    @Test
+    void assignIfInStock_ShouldRejectStaleVersion() {
+        Asset loaded = assetRepository.findById(asset.getId()).orElseThrow();
+        long staleVersion = loaded.getVersion();
+        loaded.setCondition(AssetCondition.DAMAGED);
+        assetRepository.saveAndFlush(loaded);
+        entityManager.clear();
+
+        assertThat(assetRepository.assignIfInStock(asset.getId(), staleVersion, first)).isZero();
+        assertThat(assetRepository.findById(asset.getId()).orElseThrow().getStatus())
+                .isEqualTo(AssetStatus.IN_STOCK);
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.Asset;
+import com.example.demo.entity.AssetHistory;
+import com.example.demo.entity.AssetType;
+import com.example.demo.entity.Notification;
+import com.example.demo.entity.NotificationMarker;
+import com.example.demo.entity.User;
+import com.example.demo.enums.AssetCondition;
+import com.example.demo.enums.AssetHistoryAction;
+import com.example.demo.enums.AssetStatus;
+import com.example.demo.enums.NotificationType;
+import com.example.demo.enums.Role;
+import com.example.demo.service.AssetService;
+import com.example.demo.service.cache.AssetDetailCache;
+import com.example.demo.service.etag.AggregateVersions;
+import com.example.demo.service.history.AssetHistoryArchive;
+import com.example.demo.service.history.AssetHistoryWriter;
+import com.example.demo.service.notification.NotificationOutbox;
+import com.example.demo.service.search.AssetSearchIndex;
+import com.example.demo.service.stats.AssetStatsCounters;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Deletes through the service against the schema, which a mocked repository
+ * cannot check. Runs without the test transaction so the delete commits.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AssetDeleteTest {
+
+    @Autowired
+    private AssetRepository assetRepository;
+
+    @Autowired
+    private AssetTypeRepository assetTypeRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AssetHistoryRepository assetHistoryRepository;
+
+    @Autowired
+    private AssetHistoryFeedRepository assetHistoryFeedRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private NotificationMarkerRepository notificationMarkerRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private AssetService assetService;
+    private Asset asset;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        AssetHistoryWriter writer = new AssetHistoryWriter(assetHistoryRepository, assetHistoryFeedRepository,
+                transactionTemplate, List.of(), 50, Duration.ofSeconds(1));
+        assetService = new AssetService(assetRepository, assetTypeRepository, userRepository,
+                assetHistoryRepository, writer, mock(AssetHistoryArchive.class), mock(NotificationOutbox.class),
+                mock(AssetSearchIndex.class), mock(AssetDetailCache.class), mock(AssetStatsCounters.class),
+                mock(AggregateVersions.class));
+
+        AssetType type = assetTypeRepository.save(AssetType.builder().name("Laptop").isActive(true).build());
+        User user = userRepository.save(User.builder()
+                .name("Owner").email("owner@company.com").role(Role.STAFF).active(true).build());
+        asset = assetRepository.save(Asset.builder()
+                .code("AS-1").name("Asset").type(type)
+                .status(AssetStatus.IN_STOCK).condition(AssetCondition.GOOD).build());
+        transactionTemplate.executeWithoutResult(status -> writer.record(AssetHistory.builder()
+                .asset(asset)
+                .actionType(AssetHistoryAction.CREATED)
+                .performedAt(Instant.now())
+                .details("Created")
+                .after(asset)
+                .build()));
+        notificationRepository.save(Notification.builder()
+                .user(user).asset(asset).title("Assigned").message("Assigned")
+                .type(NotificationType.INFO).isRead(false).build());
+        notificationMarkerRepository.save(NotificationMarker.builder()
+                .asset(asset).reminderMilestone(Instant.now().plusSeconds(3600)).build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        notificationMarkerRepository.deleteAll();
+        notificationRepository.deleteAll();
+        assetHistoryRepository.deleteAll();
+        assetRepository.deleteAll();
+        userRepository.deleteAll();
+        assetTypeRepository.deleteAll();
+    }
+
+    @Test
+    void delete_ShouldRemoveTheAssetAndKeepItsHistory() {
+        transactionTemplate.executeWithoutResult(status -> assetService.delete(asset.getId()));
+
+        assertThat(assetRepository.findById(asset.getId())).isEmpty();
+        assertThat(assetHistoryRepository.findAll())
+                .allSatisfy(history -> assertThat(history.getAssetId()).isEqualTo(asset.getId()))
+                .extracting(AssetHistory::getActionType)
+                .containsExactlyInAnyOrder(AssetHistoryAction.CREATED, AssetHistoryAction.DELETED);
+        assertThat(notificationRepository.findAll()).singleElement()
+                .satisfies(notification -> assertThat(notification.getAsset()).isNull());
+        assertThat(notificationMarkerRepository.count()).isZero();
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.asset.AssetHistoryFilter;
+import com.example.demo.dto.asset.AssetHistoryRow;
+import com.example.demo.entity.Asset;
+import com.example.demo.entity.AssetHistory;
+import com.example.demo.entity.AssetType;
+import com.example.demo.entity.User;
+import com.example.demo.enums.AssetCondition;
+import com.example.demo.enums.AssetHistoryAction;
+import com.example.demo.enums.AssetStatus;
+import com.example.demo.enums.Role;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class AssetHistoryPageTest {
+
+    private static final Instant START = Instant.parse("2025-01-01T00:00:00Z");
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private AssetHistoryRepository assetHistoryRepository;
+
+    private Asset first;
+    private Asset second;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        AssetType type = entityManager.persist(AssetType.builder().name("Laptop").isActive(true).build());
+        user = entityManager.persist(User.builder()
+                .name("User").email("user@company.com").role(Role.STAFF).active(true).build());
+        first = entityManager.persist(Asset.builder().code("AS-1").name("First").type(type)
+                .status(AssetStatus.IN_STOCK).condition(AssetCondition.GOOD).build());
+        second = entityManager.persist(Asset.builder().code("AS-2").name("Second").type(type)
+                .status(AssetStatus.IN_STOCK).condition(AssetCondition.GOOD).build());
+        for (int i = 0; i < 10; i++) {
+            AssetHistory history = entityManager.persist(history(i % 2 == 0 ? first : second,
+                    i % 3 == 0 ? AssetHistoryAction.ASSIGNED : AssetHistoryAction.UPDATED, i % 3 == 0 ? user : null));
+            entityManager.flush();
+            // auditing stamps performedAt with the current time; pairs share a timestamp so paging breaks ties on id
+            entityManager.getEntityManager()
+                    .createNativeQuery("UPDATE asset_history SET performed_at = ?1 WHERE id = ?2")
+                    .setParameter(1, START.plusSeconds(i / 2))
+                    .setParameter(2, history.getId())
+                    .executeUpdate();
+        }
+        entityManager.clear();
+    }
+
+    @Test
+    void findPage_ShouldWalkAllRowsNewestFirstAcrossEqualTimestamps() {
+        List<AssetHistoryRow> seen = new ArrayList<>();
+        Instant beforeAt = null;
+        long beforeId = Long.MAX_VALUE;
+        List<AssetHistoryRow> page;
+        do {
+            page = assetHistoryRepository.findPage(new AssetHistoryFilter(), beforeAt, beforeId, 3);
+            seen.addAll(page);
+            if (!page.isEmpty()) {
+                beforeAt = page.get(page.size() - 1).performedAt();
+                beforeId = page.get(page.size() - 1).id();
+            }
+        } while (page.size() == 3);
+
+        assertThat(seen).hasSize(10);
+        assertThat(seen).extracting(AssetHistoryRow::id).doesNotHaveDuplicates();
+        for (int i = 1; i < seen.size(); i++) {
+            AssetHistoryRow previous = seen.get(i - 1);
+            AssetHistoryRow current = seen.get(i);
+            assertThat(current.performedAt()).isBeforeOrEqualTo(previous.performedAt());
+            if (current.performedAt().equals(previous.performedAt())) {
+                assertThat(current.id()).isLessThan(previous.id());
+            }
+        }
+    }
+
+    @Test
+    void findPage_ShouldApplyFiltersWithOneStatementAndNoEntities() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<AssetHistoryRow> rows = assetHistoryRepository.findPage(AssetHistoryFilter.builder()
+                .assetId(first.getId())
+                .from(START.plusSeconds(1))
+                .to(START.plusSeconds(4))
+                .build(), null, Long.MAX_VALUE, 50);
+
+        assertThat(rows).extracting(AssetHistoryRow::performedAt)
+                .containsExactly(START.plusSeconds(3), START.plusSeconds(2), START.plusSeconds(1));
+        assertThat(rows).allSatisfy(row -> assertThat(row.assetId()).isEqualTo(first.getId()));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+
+        List<AssetHistoryRow> assigned = assetHistoryRepository.findPage(AssetHistoryFilter.builder()
+                .actionType(AssetHistoryAction.ASSIGNED)
+                .performedBy(user.getId())
+                .build(), null, Long.MAX_VALUE, 50);
+
+        assertThat(assigned).hasSize(4);
+        assertThat(assigned).allSatisfy(row -> assertThat(row.performedBy()).isEqualTo(user.getId()));
+    }
+
+    @Test
+    void findLatestAt_ShouldReturnEntryInForceAtThatMoment() {
+        List<AssetHistory> latest = assetHistoryRepository.findLatestAt(first.getId(), START.plusMillis(3500),
+                Limit.of(1));
+
+        assertThat(latest).singleElement().satisfies(history -> {
+            assertThat(history.getPerformedAt()).isEqualTo(START.plusSeconds(3));
+            assertThat(history.getNewAssigneeId()).isEqualTo(user.getId());
+            assertThat(history.getNewCondition()).isEqualTo(AssetCondition.GOOD);
+        });
+        assertThat(assetHistoryRepository.findLatestAt(first.getId(), START.minusSeconds(1), Limit.of(1))).isEmpty();
+    }
+
+    private AssetHistory history(Asset asset, AssetHistoryAction action, User performedBy) {
+        return AssetHistory.builder()
+                .asset(asset)
+                .actionType(action)
+                .performedBy(performedBy)
+                .details("History of " + asset.getCode())
+                .before(new AssetHistory.State(AssetStatus.IN_STOCK, AssetCondition.GOOD, null))
+                .newStatus(AssetStatus.IN_USE)
+                .newCondition(AssetCondition.GOOD)
+                .newAssigneeId(performedBy == null ? null : performedBy.getId())
+                .build();
+    }
+}
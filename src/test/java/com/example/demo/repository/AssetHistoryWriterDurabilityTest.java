@@ -0,0 +1,158 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.Asset;
+import com.example.demo.entity.AssetHistory;
+import com.example.demo.entity.AssetType;
+import com.example.demo.enums.AssetCondition;
+import com.example.demo.enums.AssetHistoryAction;
+import com.example.demo.enums.AssetStatus;
+import com.example.demo.service.history.AssetHistoryListener;
+import com.example.demo.service.history.AssetHistoryWriter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs without the test transaction, so the writer's transactions commit as
+ * they do in production. The writer thread is not started; passes are run by
+ * hand.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AssetHistoryWriterDurabilityTest {
+
+    @Autowired
+    private AssetHistoryRepository assetHistoryRepository;
+
+    @Autowired
+    private AssetHistoryFeedRepository assetHistoryFeedRepository;
+
+    @Autowired
+    private AssetRepository assetRepository;
+
+    @Autowired
+    private AssetTypeRepository assetTypeRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private AssetHistoryWriter writer;
+    private Asset asset;
+    private final List<Long> published = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        AssetType type = assetTypeRepository.save(AssetType.builder().name("Laptop").isActive(true).build());
+        asset = assetRepository.save(Asset.builder()
+                .code("AS-1").name("Asset").type(type)
+                .status(AssetStatus.IN_STOCK).condition(AssetCondition.GOOD).build());
+        AssetHistoryListener listener = new AssetHistoryListener() {
+            @Override
+            public void onWritten(List<AssetHistory> histories) {
+                histories.forEach(history -> published.add(history.getId()));
+            }
+        };
+        writer = new AssetHistoryWriter(assetHistoryRepository, assetHistoryFeedRepository, transactionTemplate,
+                List.of(listener), 2, Duration.ofSeconds(1));
+        writer.publish();
+    }
+
+    @AfterEach
+    void tearDown() {
+        assetHistoryRepository.deleteAll();
+        assetHistoryFeedRepository.deleteAll();
+        assetRepository.deleteAll();
+        assetTypeRepository.deleteAll();
+    }
+
+    @Test
+    void recordAll_ShouldStoreEntriesWithTheCaller() {
+        record(3);
+
+        assertThat(assetHistoryRepository.count()).isEqualTo(3);
+        assertThat(assetHistoryRepository.findUnsequenced(Limit.of(10))).hasSize(3);
+    }
+
+    @Test
+    void recordAll_ShouldRollBackWithTheCaller() {
+        transactionTemplate.executeWithoutResult(status -> {
+            writer.recordAll(List.of(history()));
+            status.setRollbackOnly();
+        });
+
+        assertThat(assetHistoryRepository.count()).isZero();
+    }
+
+    @Test
+    void feed_ShouldNotSkipAnEntryWhoseLowerIdCommitsLater() throws Exception {
+        // the slow transaction takes its id first and commits last
+        CountDownLatch idTaken = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        CompletableFuture<Long> slow = CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status -> {
+            AssetHistory history = history();
+            writer.record(history);
+            idTaken.countDown();
+            try {
+                commit.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return history.getId();
+        }));
+        assertThat(idTaken.await(5, TimeUnit.SECONDS)).isTrue();
+        Long fast = record(1).get(0);
+
+        assertThat(writer.sequence()).isOne();
+        writer.publish();
+        assertThat(published).containsExactly(fast);
+
+        commit.countDown();
+        Long slowId = slow.get(5, TimeUnit.SECONDS);
+        assertThat(slowId).isLessThan(fast);
+        assertThat(writer.sequence()).isOne();
+        writer.publish();
+
+        assertThat(published).containsExactly(fast, slowId);
+        assertThat(assetHistoryRepository.findFeedAfter(1, Limit.of(10)))
+                .extracting(AssetHistory::getId).containsExactly(slowId);
+    }
+
+    private List<Long> record(int entries) {
+        List<AssetHistory> histories = IntStream.range(0, entries).mapToObj(i -> history()).toList();
+        transactionTemplate.executeWithoutResult(status -> writer.recordAll(histories));
+        return histories.stream().map(AssetHistory::getId).toList();
+    }
+
+    private AssetHistory history() {
+        return AssetHistory.builder()
+                .asset(asset)
+                .actionType(AssetHistoryAction.UPDATED)
+                .performedAt(Instant.now())
+                .details("Updated")
+                .build();
+    }
+}
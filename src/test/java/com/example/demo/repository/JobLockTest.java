@@ -0,0 +1,40 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.JobLock;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class JobLockTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T02:30:00Z");
+
+    @Autowired
+    private JobLockRepository jobLockRepository;
+
+    @Test
+    void acquire_ShouldLetOneNodeHoldTheLeaseUntilReleasedOrExpired() {
+        jobLockRepository.saveAndFlush(JobLock.builder().name("job").lockedUntil(Instant.EPOCH).build());
+        Instant until = NOW.plus(Duration.ofHours(6));
+
+        assertThat(jobLockRepository.acquire("job", "node-a", NOW, until)).isOne();
+        assertThat(jobLockRepository.acquire("job", "node-b", NOW.plusSeconds(1), until)).isZero();
+        // only the holder gives it back
+        assertThat(jobLockRepository.release("job", "node-b", NOW.plusSeconds(2))).isZero();
+        assertThat(jobLockRepository.acquire("job", "node-b", until, until.plus(Duration.ofHours(6)))).isOne();
+
+        assertThat(jobLockRepository.release("job", "node-b", until.plusSeconds(60))).isOne();
+        assertThat(jobLockRepository.acquire("job", "node-a", until.plusSeconds(60), until.plusSeconds(120)))
+                .isOne();
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.asset.AssetResponse;
+import com.example.demo.dto.department.DepartmentResponse;
+import com.example.demo.dto.notification.NotificationResponse;
+import com.example.demo.dto.user.UserResponse;
+import com.example.demo.entity.Asset;
+import com.example.demo.entity.AssetType;
+import com.example.demo.entity.Department;
+import com.example.demo.entity.Notification;
+import com.example.demo.entity.User;
+import com.example.demo.enums.AssetCondition;
+import com.example.demo.enums.AssetStatus;
+import com.example.demo.enums.NotificationType;
+import com.example.demo.enums.Role;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ListReadPathStatementCountTest {
+
+    private static final int ROWS = 20;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private AssetRepository assetRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    private Statistics statistics;
+    private User firstUser;
+
+    @BeforeEach
+    void setUp() {
+        AssetType type = entityManager.persist(AssetType.builder().name("Laptop").isActive(true).build());
+        for (int i = 0; i < ROWS; i++) {
+            Department department = entityManager.persist(Department.builder()
+                    .name("Dept " + i).isActive(true).employeeCount(0).build());
+            User user = entityManager.persist(User.builder()
+                    .name("User " + i).email("user" + i + "@company.com").role(i == 0 ? Role.MANAGER : Role.STAFF)
+                    .active(true).department(department).build());
+            if (firstUser == null) {
+                firstUser = user;
+            }
+            Asset asset = entityManager.persist(Asset.builder()
+                    .code("AS-" + i).name("Asset " + i).type(type).assignedTo(user)
+                    .status(AssetStatus.IN_USE).condition(AssetCondition.GOOD).build());
+            entityManager.persist(Notification.builder()
+                    .user(firstUser).asset(asset).title("Title " + i).message("Message " + i)
+                    .type(NotificationType.INFO).isRead(false).build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void assetPage_ShouldUseSingleStatement() {
+        List<AssetResponse> responses = assetRepository
+                .findPage(AssetSpecifications.matching(null), ROWS + 1).stream()
+                .map(AssetResponse::fromEntity)
+                .toList();
+
+        assertThat(responses).hasSize(ROWS);
+        assertThat(responses).allSatisfy(response -> assertThat(response.getDepartmentId()).isNotNull());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void assetDetail_ShouldUseSingleStatement() {
+        Long id = assetRepository.findPage(AssetSpecifications.matching(null), 1).get(0).getId();
+        entityManager.clear();
+        statistics.clear();
+
+        AssetResponse response = AssetResponse.fromEntity(assetRepository.findDetailedById(id).orElseThrow());
+
+        assertThat(response.getDepartmentId()).isNotNull();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void userList_ShouldUseSingleStatement() {
+        List<UserResponse> responses = userRepository.findAll().stream()
+                .map(UserResponse::fromUser)
+                .toList();
+
+        assertThat(responses).hasSize(ROWS);
+        assertThat(responses).allSatisfy(response -> assertThat(response.getDepartmentId()).isNotNull());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void departmentList_ShouldCountEmployeesAndResolveManagersInSingleStatement() {
+        List<DepartmentResponse> responses = departmentRepository.findAllResponses();
+
+        assertThat(responses).hasSize(ROWS);
+        assertThat(responses).allSatisfy(response -> assertThat(response.getEmployeeCount()).isEqualTo(1));
+        assertThat(responses.get(0).getManagerId()).isEqualTo(firstUser.getId());
+        assertThat(responses.subList(1, ROWS)).allSatisfy(response -> assertThat(response.getManagerId()).isNull());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        assertThat(departmentRepository.findResponseById(responses.get(0).getId())).get()
+                .satisfies(response -> assertThat(response.getEmployeeCount()).isEqualTo(1));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void notificationLists_ShouldUseSingleStatementEach() {
+        List<NotificationResponse> all = notificationRepository.findAllResponses();
+        assertThat(all).hasSize(ROWS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        List<NotificationResponse> byUser = notificationRepository.findResponsesByUserId(firstUser.getId());
+        assertThat(byUser).hasSize(ROWS);
+        assertThat(byUser).allSatisfy(response -> assertThat(response.getAssetId()).isNotNull());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void dashboardRecount_ShouldUseOneStatementPerDimension() {
+        List<AssetRepository.BucketCount> byStatus = assetRepository.countByStatus();
+        List<AssetRepository.BucketCount> byType = assetRepository.countByType();
+        List<AssetRepository.BucketCount> byDepartment = assetRepository.countByDepartment();
+
+        assertThat(byStatus).singleElement().satisfies(row -> {
+            assertThat(row.getBucket()).isEqualTo(AssetStatus.IN_USE);
+            assertThat(row.getTotal()).isEqualTo(ROWS);
+        });
+        assertThat(byType).singleElement().satisfies(row -> assertThat(row.getTotal()).isEqualTo(ROWS));
+        assertThat(byDepartment).hasSize(ROWS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+}
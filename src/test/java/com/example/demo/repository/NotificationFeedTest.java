@@ -0,0 +1,105 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.Notification;
+import com.example.demo.entity.User;
+import com.example.demo.enums.NotificationType;
+import com.example.demo.enums.Role;
+import com.example.demo.service.notification.NotificationPush;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Runs without the test transaction, so each node's numbering commits as it
+ * does in production. The feed threads are not started; passes are run by
+ * hand.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class NotificationFeedTest {
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private NotificationFeedRepository notificationFeedRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User user;
+    private User other;
+    private NotificationPush nodeA;
+    private NotificationPush nodeB;
+
+    @BeforeEach
+    void setUp() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        user = userRepository.save(User.builder()
+                .name("User").email("user@company.com").role(Role.STAFF).active(true).build());
+        other = userRepository.save(User.builder()
+                .name("Other").email("other@company.com").role(Role.STAFF).active(true).build());
+        nodeA = new NotificationPush(notificationRepository, notificationFeedRepository, transactionTemplate,
+                Duration.ofMinutes(1), 64, 2, Duration.ofSeconds(1), 1);
+        nodeB = new NotificationPush(notificationRepository, notificationFeedRepository, transactionTemplate,
+                Duration.ofMinutes(1), 64, 2, Duration.ofSeconds(1), 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        notificationRepository.deleteAll();
+        notificationFeedRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void sequence_ShouldNumberCommittedNotificationsOnceAcrossNodes() {
+        Notification first = notificationRepository.save(notification(user));
+        Notification second = notificationRepository.save(notification(other));
+        Notification third = notificationRepository.save(notification(user));
+
+        // batches of two; the second node finds nothing left to number
+        assertThat(nodeA.sequence()).isEqualTo(3);
+        assertThat(nodeB.sequence()).isZero();
+
+        Notification fourth = notificationRepository.save(notification(user));
+        assertThat(nodeB.sequence()).isOne();
+
+        assertThat(notificationRepository.findFeedAfter(0, Limit.of(10)))
+                .extracting(Notification::getId, Notification::getFeedSeq)
+                .containsExactly(
+                        tuple(first.getId(), 1L),
+                        tuple(second.getId(), 2L),
+                        tuple(third.getId(), 3L),
+                        tuple(fourth.getId(), 4L));
+        // a stream that saw position 1 resumes with the user's later ones
+        assertThat(notificationRepository.findByUserIdAfterSeq(user.getId(), 1, Limit.of(10)))
+                .extracting(Notification::getFeedSeq)
+                .containsExactly(3L, 4L);
+        assertThat(notificationRepository.findMaxFeedSeq()).isEqualTo(4);
+    }
+
+    private Notification notification(User recipient) {
+        return Notification.builder()
+                .user(recipient).title("Title").message("Message").type(NotificationType.INFO).isRead(false).build();
+    }
+}
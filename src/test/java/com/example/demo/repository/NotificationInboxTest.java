@@ -0,0 +1,133 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.notification.NotificationResponse;
+import com.example.demo.entity.Notification;
+import com.example.demo.entity.User;
+import com.example.demo.enums.NotificationType;
+import com.example.demo.enums.Role;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class NotificationInboxTest {
+
+    private static final Instant START = Instant.parse("2025-01-01T00:00:00Z");
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = entityManager.persist(User.builder()
+                .name("User").email("user@company.com").role(Role.STAFF).active(true).build());
+        User other = entityManager.persist(User.builder()
+                .name("Other").email("other@company.com").role(Role.STAFF).active(true).build());
+        for (int i = 0; i < 9; i++) {
+            Notification notification = entityManager.persist(notification(i % 4 == 0 ? other : user, i % 3 == 0));
+            entityManager.flush();
+            // auditing stamps createdAt with the current time; pairs share a timestamp so paging breaks ties on id
+            entityManager.getEntityManager()
+                    .createNativeQuery("UPDATE notifications SET created_at = ?1 WHERE id = ?2")
+                    .setParameter(1, START.plusSeconds(i / 2))
+                    .setParameter(2, notification.getId())
+                    .executeUpdate();
+        }
+        entityManager.clear();
+    }
+
+    @Test
+    void findInboxPage_ShouldWalkOneUsersNotificationsNewestFirst() {
+        List<NotificationResponse> seen = walk(false);
+
+        assertThat(seen).extracting(NotificationResponse::getUserId).containsOnly(user.getId());
+        assertThat(seen).extracting(NotificationResponse::getId).doesNotHaveDuplicates().hasSize(6);
+        for (int i = 1; i < seen.size(); i++) {
+            NotificationResponse previous = seen.get(i - 1);
+            NotificationResponse current = seen.get(i);
+            assertThat(current.getCreatedAt()).isBeforeOrEqualTo(previous.getCreatedAt());
+            if (current.getCreatedAt().equals(previous.getCreatedAt())) {
+                assertThat(current.getId()).isLessThan(previous.getId());
+            }
+        }
+    }
+
+    @Test
+    void findInboxPage_ShouldFilterUnreadAndMarkReadShouldMatchTheCount() {
+        List<NotificationResponse> unread = walk(true);
+
+        assertThat(unread).hasSize(4).allSatisfy(row -> assertThat(row.getIsRead()).isFalse());
+        assertThat(notificationRepository.countUnreadByUser())
+                .filteredOn(row -> row.getUserId().equals(user.getId()))
+                .singleElement()
+                .satisfies(row -> assertThat(row.getTotal()).isEqualTo(4));
+
+        assertThat(notificationRepository.markRead(unread.get(0).getId())).isEqualTo(1);
+        assertThat(notificationRepository.markRead(unread.get(0).getId())).isZero();
+        assertThat(notificationRepository.markAllRead(user.getId())).isEqualTo(3);
+        assertThat(walk(true)).isEmpty();
+    }
+
+    @Test
+    void bulkStatements_ShouldOnlyTouchMatchingRowsAndReportCounts() {
+        List<NotificationResponse> unread = walk(true);
+        List<Long> ids = List.of(unread.get(0).getId(), unread.get(1).getId());
+
+        assertThat(notificationRepository.markReadByIds(user.getId(), ids)).isEqualTo(2);
+        // already read now, and not this user's to mark
+        assertThat(notificationRepository.markReadByIds(user.getId(), ids)).isZero();
+        assertThat(notificationRepository.markReadByIds(user.getId() + 1, List.of(unread.get(2).getId()))).isZero();
+
+        Instant before = START.plusSeconds(2);
+        assertThat(notificationRepository.countUnreadByUserCreatedBefore(user.getId(), before))
+                .singleElement()
+                .satisfies(row -> assertThat(row.getTotal()).isEqualTo(2));
+        assertThat(notificationRepository.deleteCreatedBefore(user.getId(), before)).isEqualTo(3);
+        assertThat(walk(false)).hasSize(3)
+                .allSatisfy(row -> assertThat(row.getCreatedAt()).isAfterOrEqualTo(before));
+        assertThat(notificationRepository.deleteCreatedBefore(null, START.plusSeconds(10))).isEqualTo(6);
+    }
+
+    private List<NotificationResponse> walk(boolean unreadOnly) {
+        List<NotificationResponse> seen = new ArrayList<>();
+        Instant beforeAt = null;
+        long beforeId = Long.MAX_VALUE;
+        List<NotificationResponse> page;
+        do {
+            page = notificationRepository.findInboxPage(user.getId(), unreadOnly, beforeAt, beforeId, 2);
+            seen.addAll(page);
+            if (!page.isEmpty()) {
+                beforeAt = page.get(page.size() - 1).getCreatedAt();
+                beforeId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == 2);
+        return seen;
+    }
+
+    private Notification notification(User recipient, boolean isRead) {
+        return Notification.builder()
+                .user(recipient)
+                .title("Title")
+                .message("Message")
+                .type(NotificationType.INFO)
+                .isRead(isRead)
+                .build();
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.Asset;
+import com.example.demo.entity.AssetType;
+import com.example.demo.entity.NotificationMarker;
+import com.example.demo.enums.AssetCondition;
+import com.example.demo.enums.AssetStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class NotificationMarkerScheduleTest {
+
+    private static final Instant NOW = Instant.parse("2025-06-01T08:00:00Z");
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private NotificationMarkerRepository notificationMarkerRepository;
+
+    private final List<NotificationMarker> markers = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        AssetType type = entityManager.persist(AssetType.builder().name("Laptop").isActive(true).build());
+        Asset asset = entityManager.persist(Asset.builder()
+                .code("AS-1").name("Asset").type(type)
+                .status(AssetStatus.IN_STOCK).condition(AssetCondition.GOOD).build());
+        // two overdue sharing a fire time, one later today, one next month, one done
+        for (Instant nextFireAt : new Instant[] { NOW.minusSeconds(60), NOW.minusSeconds(60), NOW.plusSeconds(3600),
+                NOW.plusSeconds(30L * 86400), null }) {
+            markers.add(entityManager.persist(NotificationMarker.builder()
+                    .asset(asset)
+                    .reminderMilestone(NOW.minusSeconds(3600))
+                    .nextFireAt(nextFireAt)
+                    .firedAt(nextFireAt == null ? NOW.minusSeconds(3600) : null)
+                    .build()));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findDuePage_ShouldWalkFireTimesWithinRangeSoonestFirst() {
+        Instant until = NOW.plusSeconds(86400);
+        List<NotificationMarker> first = notificationMarkerRepository.findDuePage(until,
+                NotificationMarkerRepository.FIRST_PAGE_AT, 0, Limit.of(2));
+        NotificationMarker last = first.get(1);
+        List<NotificationMarker> second = notificationMarkerRepository.findDuePage(until, last.getNextFireAt(),
+                last.getId(), Limit.of(2));
+
+        assertThat(first).extracting(NotificationMarker::getId)
+                .containsExactly(markers.get(0).getId(), markers.get(1).getId());
+        assertThat(second).extracting(NotificationMarker::getId).containsExactly(markers.get(2).getId());
+        assertThat(notificationMarkerRepository.findNextFireTimesBefore(until, Limit.of(10))).hasSize(3);
+    }
+
+    @Test
+    void markFired_ShouldRescheduleOrRetireWholeGroupsInOneStatement() {
+        List<NotificationMarker> due = notificationMarkerRepository.findDueBatch(NOW, Limit.of(10));
+        assertThat(due).hasSize(2);
+
+        Instant nextQuarter = NOW.plusSeconds(90L * 86400);
+        assertThat(notificationMarkerRepository.markFired(List.of(due.get(0).getId()), NOW, nextQuarter)).isOne();
+        assertThat(notificationMarkerRepository.markFired(List.of(due.get(1).getId()), NOW, null)).isOne();
+        entityManager.clear();
+
+        assertThat(notificationMarkerRepository.findDueBatch(NOW, Limit.of(10))).isEmpty();
+        NotificationMarker recurring = notificationMarkerRepository.findById(due.get(0).getId()).orElseThrow();
+        assertThat(recurring.getNextFireAt()).isEqualTo(nextQuarter);
+        assertThat(recurring.getFiredAt()).isEqualTo(NOW);
+        assertThat(notificationMarkerRepository.findById(due.get(1).getId()).orElseThrow().getNextFireAt()).isNull();
+        // a fired one-shot is not armed again
+        assertThat(notificationMarkerRepository.armUnscheduled()).isZero();
+    }
+}
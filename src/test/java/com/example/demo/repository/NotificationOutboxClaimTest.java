@@ -0,0 +1,56 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.NotificationEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class NotificationOutboxClaimTest {
+
+    @Autowired
+    private NotificationEventRepository notificationEventRepository;
+
+    @Test
+    void findNextBatch_ShouldClaimOldestEventsFirst() {
+        List<NotificationEvent> saved = notificationEventRepository.saveAllAndFlush(List.of(
+                NotificationEvent.userCreated(1L), NotificationEvent.assetAssigned(3L, 1L),
+                NotificationEvent.departmentUpdated(2L)));
+
+        List<NotificationEvent> batch = notificationEventRepository.findNextBatch(Instant.now(), Limit.of(2));
+
+        assertThat(batch).extracting(NotificationEvent::getId)
+                .containsExactly(saved.get(0).getId(), saved.get(1).getId());
+        assertThat(notificationEventRepository.findClaimableById(saved.get(2).getId())).isPresent();
+    }
+
+    @Test
+    void findNextBatch_ShouldSkipEventsBackingOffOrDeadLettered() {
+        Instant now = Instant.now();
+        NotificationEvent due = NotificationEvent.userCreated(1L);
+        due.setAttempts(2);
+        due.setNextAttemptAt(now.minusSeconds(1));
+        NotificationEvent waiting = NotificationEvent.userCreated(2L);
+        waiting.setAttempts(1);
+        waiting.setNextAttemptAt(now.plusSeconds(30));
+        NotificationEvent dead = NotificationEvent.userCreated(3L);
+        dead.setAttempts(10);
+        dead.setDeadLetteredAt(now);
+        List<NotificationEvent> saved = notificationEventRepository.saveAllAndFlush(List.of(
+                due, waiting, dead, NotificationEvent.userCreated(4L)));
+
+        assertThat(notificationEventRepository.findNextBatch(now, Limit.of(10)))
+                .extracting(NotificationEvent::getId)
+                .containsExactly(saved.get(0).getId(), saved.get(3).getId());
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.Notification;
+import com.example.demo.entity.NotificationUnreadCount;
+import com.example.demo.entity.User;
+import com.example.demo.enums.NotificationType;
+import com.example.demo.enums.Role;
+import com.example.demo.service.lock.JobLocks;
+import com.example.demo.service.notification.UnreadNotificationCounters;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs without the test transaction, so counts move as transactions commit
+ * or roll back. Two counters over one database stand for two nodes.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class NotificationUnreadCountTest {
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private NotificationUnreadCountRepository notificationUnreadCountRepository;
+
+    @Autowired
+    private JobLockRepository jobLockRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private UnreadNotificationCounters nodeA;
+    private UnreadNotificationCounters nodeB;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        JobLocks jobLocks = new JobLocks(jobLockRepository, transactionTemplate);
+        nodeA = new UnreadNotificationCounters(notificationRepository, notificationUnreadCountRepository,
+                transactionTemplate, jobLocks, Duration.ofMinutes(30));
+        nodeB = new UnreadNotificationCounters(notificationRepository, notificationUnreadCountRepository,
+                transactionTemplate, jobLocks, Duration.ofMinutes(30));
+        user = userRepository.save(User.builder()
+                .name("User").email("user@company.com").role(Role.STAFF).active(true).build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        notificationUnreadCountRepository.deleteAll();
+        notificationRepository.deleteAll();
+        jobLockRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void added_ShouldCountOnCommitForEveryNodeAndNotOnRollback() {
+        transactionTemplate.executeWithoutResult(status -> nodeA.added(notificationRepository.saveAll(List.of(
+                notification(false), notification(false), notification(true)))));
+        transactionTemplate.executeWithoutResult(status -> {
+            nodeA.added(notificationRepository.save(notification(false)));
+            status.setRollbackOnly();
+        });
+
+        assertThat(nodeA.get(user.getId())).isEqualTo(2);
+        assertThat(nodeB.get(user.getId())).isEqualTo(2);
+
+        transactionTemplate.executeWithoutResult(status -> nodeB.adjust(user.getId(),
+                -notificationRepository.markAllRead(user.getId())));
+
+        assertThat(nodeA.get(user.getId())).isZero();
+    }
+
+    @Test
+    void reconcile_ShouldCreateMissingCountersAndCorrectDrift() {
+        // saved without telling the counters, as before the table existed
+        notificationRepository.saveAll(List.of(notification(false), notification(false)));
+
+        nodeA.reconcile();
+        assertThat(nodeB.get(user.getId())).isEqualTo(2);
+
+        notificationUnreadCountRepository.save(NotificationUnreadCount.builder().userId(user.getId()).unread(5).build());
+        nodeB.reconcile();
+
+        assertThat(nodeA.get(user.getId())).isEqualTo(2);
+    }
+
+    private Notification notification(boolean isRead) {
+        return Notification.builder()
+                .user(user).title("Title").message("Message").type(NotificationType.INFO).isRead(isRead).build();
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.asset.AssetImportResponse;
+import com.example.demo.entity.Asset;
+import com.example.demo.entity.AssetHistory;
+import com.example.demo.entity.AssetType;
+import com.example.demo.enums.AssetHistoryAction;
+import com.example.demo.enums.AssetStatus;
+import com.example.demo.repository.AssetRepository;
+import com.example.demo.repository.AssetTypeRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.service.etag.AggregateVersions;
+import com.example.demo.service.history.AssetHistoryWriter;
+import com.example.demo.service.search.AssetSearchIndex;
+import com.example.demo.service.stats.AssetStatsCounters;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AssetImportServiceTest {
+
+    @Mock
+    private AssetRepository assetRepository;
+
+    @Mock
+    private AssetTypeRepository assetTypeRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private AssetHistoryWriter assetHistoryWriter;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private AssetSearchIndex assetSearchIndex;
+
+    @Mock
+    private AssetStatsCounters assetStatsCounters;
+
+    @Mock
+    private AggregateVersions aggregateVersions;
+
+    private AssetImportService assetImportService;
+
+    @BeforeEach
+    void setUp() {
+        assetImportService = new AssetImportService(assetRepository, assetTypeRepository, userRepository,
+                assetHistoryWriter, Validation.buildDefaultValidatorFactory().getValidator(),
+                transactionTemplate, entityManager, assetSearchIndex, assetStatsCounters,
+                aggregateVersions);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testImportCsv_ShouldInsertValidRowsAndReportInvalidOnes() throws Exception {
+        AssetType laptop = AssetType.builder().id(1L).name("Laptop").build();
+        when(assetTypeRepository.findAllById(any())).thenReturn(List.of(laptop));
+        when(assetRepository.findExistingCodes(anyCollection())).thenReturn(List.of("AS-EXISTS"));
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+
+        String csv = String.join("\n",
+                "code,name,typeId,value,status",
+                "AS-1,\"Laptop, 14 inch\",1,1200.50,in_stock",
+                "AS-2,Monitor,99,,",
+                "AS-1,Duplicate,1,,",
+                "AS-EXISTS,Old,1,,",
+                ",Missing code,1,,",
+                "AS-3,Bad value,1,abc,");
+
+        AssetImportResponse response = assetImportService
+                .importCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(response.getTotal()).isEqualTo(6);
+        assertThat(response.getCreated()).isEqualTo(1);
+        assertThat(response.getErrors()).extracting("row").containsExactly(2, 3, 4, 5, 6);
+        assertThat(response.getErrors().get(0).getMessage()).isEqualTo("Asset type not found");
+        assertThat(response.getErrors().get(1).getMessage()).isEqualTo("Duplicate asset code in upload");
+        assertThat(response.getErrors().get(2).getMessage()).isEqualTo("Asset code already exists");
+
+        ArgumentCaptor<List<Asset>> assets = ArgumentCaptor.forClass(List.class);
+        verify(assetRepository).saveAll(assets.capture());
+        assertThat(assets.getValue()).singleElement().satisfies(asset -> {
+            assertThat(asset.getName()).isEqualTo("Laptop, 14 inch");
+            assertThat(asset.getType()).isSameAs(laptop);
+            assertThat(asset.getStatus()).isEqualTo(AssetStatus.IN_STOCK);
+        });
+
+        ArgumentCaptor<List<AssetHistory>> histories = ArgumentCaptor.forClass(List.class);
+        verify(assetHistoryWriter).recordAll(histories.capture());
+        assertThat(histories.getValue()).singleElement()
+                .extracting(AssetHistory::getActionType).isEqualTo(AssetHistoryAction.CREATED);
+        verify(userRepository, never()).findAllById(any());
+        verify(assetSearchIndex).index(assets.getValue().get(0));
+    }
+}
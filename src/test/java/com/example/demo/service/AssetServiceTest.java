@@ -0,0 +1,222 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.CursorPage;
+import com.example.demo.dto.asset.AssetHistoryFilter;
+import com.example.demo.dto.asset.AssetHistoryResponse;
+import com.example.demo.dto.asset.AssetHistoryRow;
+import com.example.demo.dto.asset.AssetPatchRequest;
+import com.example.demo.dto.asset.AssetStateResponse;
+import com.example.demo.entity.Asset;
+import com.example.demo.entity.AssetHistory;
+import com.example.demo.entity.AssetType;
+import com.example.demo.entity.User;
+import com.example.demo.enums.AssetCondition;
+import com.example.demo.enums.AssetHistoryAction;
+import com.example.demo.enums.AssetStatus;
+import com.example.demo.exception.DataNotFound;
+import com.example.demo.repository.AssetHistoryRepository;
+import com.example.demo.repository.AssetRepository;
+import com.example.demo.repository.AssetTypeRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.service.cache.AssetDetailCache;
+import com.example.demo.service.etag.AggregateVersions;
+import com.example.demo.service.history.AssetHistoryArchive;
+import com.example.demo.service.history.AssetHistoryWriter;
+import com.example.demo.service.notification.NotificationOutbox;
+import com.example.demo.service.search.AssetSearchIndex;
+import com.example.demo.service.stats.AssetStatsCounters;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AssetServiceTest {
+
+    @Mock
+    private AssetRepository assetRepository;
+
+    @Mock
+    private AssetTypeRepository assetTypeRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private AssetHistoryRepository assetHistoryRepository;
+
+    @Mock
+    private AssetHistoryWriter assetHistoryWriter;
+
+    @Mock
+    private AssetHistoryArchive assetHistoryArchive;
+
+    @Mock
+    private NotificationOutbox notificationOutbox;
+
+    @Mock
+    private AssetSearchIndex assetSearchIndex;
+
+    @Mock
+    private AssetDetailCache assetDetailCache;
+
+    @Mock
+    private AssetStatsCounters assetStatsCounters;
+
+    @Mock
+    private AggregateVersions aggregateVersions;
+
+    @InjectMocks
+    private AssetService assetService;
+
+    private Asset asset;
+
+    @BeforeEach
+    void setUp() {
+        AssetType laptop = AssetType.builder().id(3L).name("Laptop").build();
+        User owner = User.builder().id(5L).name("Jane Doe").build();
+        asset = Asset.builder()
+                .id(12L)
+                .code("AS-001")
+                .name("MacBook Pro")
+                .type(laptop)
+                .assignedTo(owner)
+                .value(new BigDecimal("2499.99"))
+                .status(AssetStatus.IN_USE)
+                .condition(AssetCondition.GOOD)
+                .build();
+        lenient().when(assetRepository.findDetailedById(12L)).thenReturn(Optional.of(asset));
+    }
+
+    @Test
+    void testPatch_ShouldApplyOnlyProvidedFieldsAndRecordRealStatusChange() {
+        AssetPatchRequest request = AssetPatchRequest.builder()
+                .typeId(3L)
+                .assignedTo(5L)
+                .value(new BigDecimal("2499.990"))
+                .status(AssetStatus.IN_STOCK)
+                .description("Returned to IT")
+                .build();
+
+        assetService.patch(12L, request);
+
+        assertThat(asset.getStatus()).isEqualTo(AssetStatus.IN_STOCK);
+        assertThat(asset.getDescription()).isEqualTo("Returned to IT");
+        assertThat(asset.getName()).isEqualTo("MacBook Pro");
+        verify(assetTypeRepository, never()).findById(any());
+        verify(userRepository, never()).findWithDepartmentById(any());
+        verify(assetRepository).save(asset);
+
+        ArgumentCaptor<AssetHistory> history = ArgumentCaptor.forClass(AssetHistory.class);
+        verify(assetHistoryWriter).record(history.capture());
+        assertThat(history.getValue().getActionType()).isEqualTo(AssetHistoryAction.UPDATED);
+        assertThat(history.getValue().getPreviousStatus()).isEqualTo(AssetStatus.IN_USE);
+        assertThat(history.getValue().getNewStatus()).isEqualTo(AssetStatus.IN_STOCK);
+        assertThat(history.getValue().getDetails()).endsWith("status, description");
+    }
+
+    @Test
+    void testPatch_ShouldResolveChangedReferencesAndUnassign() {
+        AssetType monitor = AssetType.builder().id(4L).name("Monitor").build();
+        when(assetTypeRepository.findById(4L)).thenReturn(Optional.of(monitor));
+
+        assetService.patch(12L, AssetPatchRequest.builder().typeId(4L).assignedTo(0L).build());
+
+        assertThat(asset.getType()).isSameAs(monitor);
+        assertThat(asset.getAssignedTo()).isNull();
+        verify(userRepository, never()).findWithDepartmentById(any());
+        verify(assetDetailCache).evict(12L, "AS-001");
+
+        ArgumentCaptor<AssetHistory> history = ArgumentCaptor.forClass(AssetHistory.class);
+        verify(assetHistoryWriter).record(history.capture());
+        assertThat(history.getValue().getPreviousAssigneeId()).isEqualTo(5L);
+        assertThat(history.getValue().getNewAssigneeId()).isNull();
+        assertThat(history.getValue().getNewCondition()).isEqualTo(AssetCondition.GOOD);
+    }
+
+    @Test
+    void testPatch_ShouldWriteNothingWhenNothingChanges() {
+        assetService.patch(12L, AssetPatchRequest.builder().code("AS-001").condition(AssetCondition.GOOD).build());
+
+        verify(assetRepository, never()).save(any());
+        verifyNoInteractions(assetHistoryWriter, assetSearchIndex, assetDetailCache, assetStatsCounters,
+                aggregateVersions);
+    }
+
+    @Test
+    void testGetHistoryPage_ShouldContinueFromLastRowOfPreviousPage() {
+        Instant at = Instant.parse("2025-03-04T05:06:07.123456Z");
+        AssetHistoryFilter filter = AssetHistoryFilter.builder().assetId(12L).build();
+        when(assetRepository.existsById(12L)).thenReturn(true);
+        when(assetHistoryRepository.findPage(filter, null, Long.MAX_VALUE, 3)).thenReturn(List.of(
+                row(9L, at.plusSeconds(1)), row(8L, at), row(7L, at)));
+
+        CursorPage<AssetHistoryResponse> first = assetService.getHistoryPage(filter, null, 2);
+
+        assertThat(first.getItems()).extracting(AssetHistoryResponse::getId).containsExactly(9L, 8L);
+        assertThat(first.getNextCursor()).isNotNull();
+
+        when(assetHistoryRepository.findPage(eq(filter), eq(at), eq(8L), eq(3))).thenReturn(List.of(row(7L, at)));
+
+        CursorPage<AssetHistoryResponse> second = assetService.getHistoryPage(filter, first.getNextCursor(), 2);
+
+        assertThat(second.getItems()).extracting(AssetHistoryResponse::getId).containsExactly(7L);
+        assertThat(second.getNextCursor()).isNull();
+    }
+
+    @Test
+    void testGetHistoryPage_ShouldContinueIntoArchiveWhenTableRunsOut() {
+        Instant at = Instant.parse("2024-01-01T00:00:00Z");
+        AssetHistoryFilter filter = AssetHistoryFilter.builder().build();
+        when(assetHistoryRepository.findPage(filter, null, Long.MAX_VALUE, 3)).thenReturn(List.of(
+                row(9L, at.plusSeconds(60)), row(3L, at)));
+        // entry 3 is also still in the table while the archive job deletes it
+        when(assetHistoryArchive.findPage(filter, null, Long.MAX_VALUE, 3)).thenReturn(List.of(
+                row(3L, at), row(2L, at.minusSeconds(60)), row(1L, at.minusSeconds(120))));
+
+        CursorPage<AssetHistoryResponse> page = assetService.getHistoryPage(filter, null, 2);
+
+        assertThat(page.getItems()).extracting(AssetHistoryResponse::getId).containsExactly(9L, 3L);
+        assertThat(page.getNextCursor()).isNotNull();
+    }
+
+    @Test
+    void testGetStateAt_ShouldReadLatestEntryAndRejectDeletedAssets() {
+        Instant at = Instant.parse("2025-06-01T00:00:00Z");
+        AssetHistory evaluated = AssetHistory.builder()
+                .id(40L)
+                .actionType(AssetHistoryAction.EVALUATED)
+                .performedAt(at.minusSeconds(60))
+                .after(asset)
+                .build();
+        when(assetHistoryRepository.findLatestAt(eq(12L), eq(at), any())).thenReturn(List.of(evaluated));
+
+        AssetStateResponse state = assetService.getStateAt(12L, at);
+
+        assertThat(state.getStatus()).isEqualTo(AssetStatus.IN_USE);
+        assertThat(state.getCondition()).isEqualTo(AssetCondition.GOOD);
+        assertThat(state.getAssignedTo()).isEqualTo(5L);
+        assertThat(state.getHistoryId()).isEqualTo(40L);
+
+        evaluated.setActionType(AssetHistoryAction.DELETED);
+        assertThatThrownBy(() -> assetService.getStateAt(12L, at)).isInstanceOf(DataNotFound.class);
+    }
+
+    private AssetHistoryRow row(Long id, Instant performedAt) {
+        return new AssetHistoryRow(id, 12L, AssetHistoryAction.UPDATED, null, performedAt, null, null,
+                AssetStatus.IN_USE, AssetStatus.IN_USE);
+    }
+}
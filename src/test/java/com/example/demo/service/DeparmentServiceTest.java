@@ -5,6 +5,8 @@ import com.example.demo.dto.department.DepartmentResponse;
 import com.example.demo.entity.Department;
 import com.example.demo.exception.DataNotFound;
 import com.example.demo.repository.DepartmentRepository;
+import com.example.demo.service.etag.AggregateVersions;
+import com.example.demo.service.notification.NotificationOutbox;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -26,6 +28,12 @@ class DepartmentServiceTest {
     @Mock
     private DepartmentRepository departmentRepository;
 
+    @Mock
+    private NotificationOutbox notificationOutbox;
+
+    @Mock
+    private AggregateVersions aggregateVersions;
+
     @InjectMocks
     private DepartmentService departmentService;
 
@@ -85,6 +93,7 @@ class DepartmentServiceTest {
         assertThat(existing.getEmployeeCount()).isEqualTo(15);
 
         verify(departmentRepository, times(1)).save(existing);
+        verify(notificationOutbox).add(any());
     }
 
     @Test
@@ -121,7 +130,7 @@ class DepartmentServiceTest {
 
     @Test
     void testGetById_ShouldReturnDepartmentResponse() {
-        Department department = Department.builder()
+        DepartmentResponse department = DepartmentResponse.builder()
                 .id(1L)
                 .name("Finance")
                 .description("Finance Dept")
@@ -130,7 +139,7 @@ class DepartmentServiceTest {
                 .employeeCount(20)
                 .build();
 
-        when(departmentRepository.findById(1L)).thenReturn(Optional.of(department));
+        when(departmentRepository.findResponseById(1L)).thenReturn(Optional.of(department));
 
         DepartmentResponse response = departmentService.getById(1L);
 
@@ -143,7 +152,7 @@ class DepartmentServiceTest {
 
     @Test
     void testGetById_ShouldThrowDataNotFound_WhenNotFound() {
-        when(departmentRepository.findById(2L)).thenReturn(Optional.empty());
+        when(departmentRepository.findResponseById(2L)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> departmentService.getById(2L))
                 .isInstanceOf(DataNotFound.class)
@@ -152,10 +161,10 @@ class DepartmentServiceTest {
 
     @Test
     void testGetAll_ShouldReturnListOfResponses() {
-        Department d1 = Department.builder().id(1L).name("IT").build();
-        Department d2 = Department.builder().id(2L).name("HR").build();
+        DepartmentResponse d1 = DepartmentResponse.builder().id(1L).name("IT").build();
+        DepartmentResponse d2 = DepartmentResponse.builder().id(2L).name("HR").build();
 
-        when(departmentRepository.findAll()).thenReturn(Arrays.asList(d1, d2));
+        when(departmentRepository.findAllResponses()).thenReturn(Arrays.asList(d1, d2));
 
         List<DepartmentResponse> responses = departmentService.getAll();
 
@@ -7,6 +7,9 @@ import com.example.demo.entity.User;
 import com.example.demo.enums.Role;
 import com.example.demo.repository.DepartmentRepository;
 import com.example.demo.repository.UserRepository;
+import com.example.demo.service.cache.AssetDetailCache;
+import com.example.demo.service.depreciation.DepreciationEngine;
+import com.example.demo.service.etag.AggregateVersions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -32,6 +35,15 @@ class UserServiceTest {
     @Mock
     private DepartmentRepository departmentRepository;
 
+    @Mock
+    private AssetDetailCache assetDetailCache;
+
+    @Mock
+    private DepreciationEngine depreciationEngine;
+
+    @Mock
+    private AggregateVersions aggregateVersions;
+
     @InjectMocks
     private UserService userService;
 
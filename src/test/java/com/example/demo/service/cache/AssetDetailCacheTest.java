@@ -0,0 +1,102 @@
+package com.example.demo.service.cache;
+
+import com.example.demo.dto.asset.AssetResponse;
+import com.example.demo.dto.asset.CacheStatsResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+class AssetDetailCacheTest {
+
+    private AssetDetailCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new AssetDetailCache(100, Duration.ofMinutes(10));
+    }
+
+    @Test
+    void testGetDetail_ShouldCollapseConcurrentMissesIntoOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<AssetResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> cache.getDetail(1L, id -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return AssetResponse.builder().id(id).build();
+                })));
+            }
+            Thread.sleep(100);
+            release.countDown();
+
+            for (Future<AssetResponse> future : futures) {
+                assertThat(future.get(5, TimeUnit.SECONDS).getId()).isEqualTo(1L);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void testEvict_ShouldReloadDetailAndCode() {
+        AtomicInteger loads = new AtomicInteger();
+        cache.getDetail(1L, id -> response(id, loads));
+        cache.getIdByCode("AS-001", code -> 1L);
+        cache.getDetail(1L, id -> response(id, loads));
+
+        cache.evict(1L, "AS-001");
+
+        cache.getDetail(1L, id -> response(id, loads));
+        assertThat(loads).hasValue(2);
+        assertThat(cache.getIdByCode("AS-001", code -> 2L)).isEqualTo(2L);
+    }
+
+    @Test
+    void testGetIdByCode_ShouldNotRememberMisses() {
+        assertThat(cache.getIdByCode("AS-404", code -> null)).isNull();
+        assertThat(cache.getIdByCode("AS-404", code -> 7L)).isEqualTo(7L);
+    }
+
+    @Test
+    void testStats_ShouldCountHitsAndMisses() {
+        AtomicInteger loads = new AtomicInteger();
+        cache.getDetail(1L, id -> response(id, loads));
+        cache.getDetail(1L, id -> response(id, loads));
+
+        CacheStatsResponse details = cache.stats().get(0);
+
+        assertThat(details.getName()).isEqualTo("assetDetails");
+        assertThat(details.getHitCount()).isEqualTo(1);
+        assertThat(details.getMissCount()).isEqualTo(1);
+        assertThat(details.getSize()).isEqualTo(1);
+    }
+
+    private AssetResponse response(Long id, AtomicInteger loads) {
+        loads.incrementAndGet();
+        return AssetResponse.builder().id(id).build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
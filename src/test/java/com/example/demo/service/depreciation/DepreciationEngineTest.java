@@ -0,0 +1,148 @@
+package com.example.demo.service.depreciation;
+
+import com.example.demo.dto.asset.AssetValuationRow;
+import com.example.demo.dto.asset.BookValueResponse;
+import com.example.demo.dto.asset.ValuationRollupResponse;
+import com.example.demo.entity.AssetHistory;
+import com.example.demo.entity.AssetType;
+import com.example.demo.enums.DepreciationMethod;
+import com.example.demo.enums.ValuationGroup;
+import com.example.demo.exception.DataNotFound;
+import com.example.demo.repository.AssetHistoryRepository;
+import com.example.demo.repository.AssetRepository;
+import com.example.demo.repository.AssetTypeRepository;
+import com.example.demo.service.etag.AggregateVersions;
+import com.example.demo.service.etag.AggregateVersions.Aggregate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DepreciationEngineTest {
+
+    private static final int ASSETS = 25_000;
+    private static final LocalDate AS_OF = LocalDate.of(2025, 1, 1);
+
+    @Mock
+    private AssetRepository assetRepository;
+
+    @Mock
+    private AssetTypeRepository assetTypeRepository;
+
+    @Mock
+    private AssetHistoryRepository assetHistoryRepository;
+
+    @Mock
+    private AggregateVersions aggregateVersions;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private DepreciationEngine depreciationEngine;
+
+    private AssetType laptop;
+
+    @BeforeEach
+    void setUp() {
+        laptop = AssetType.builder().id(1L).depreciationMethod(DepreciationMethod.STRAIGHT_LINE)
+                .usefulLifeMonths(12).residualRate(BigDecimal.ZERO).build();
+        when(assetTypeRepository.findAll()).thenReturn(List.of(laptop));
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+        // odd ids are laptops bought six months earlier, even ids are untyped
+        when(assetRepository.streamValuationRows()).thenAnswer(invocation -> LongStream.rangeClosed(1, ASSETS)
+                .mapToObj(id -> new AssetValuationRow(id, new BigDecimal("100.00"), Date.valueOf(AS_OF.minusMonths(6)),
+                        id % 2 == 1 ? 1L : null, id % 2 == 1 ? 7L : null)));
+    }
+
+    @Test
+    void testRollup_ShouldSumEveryRangeOfTheRegister() {
+        List<ValuationRollupResponse> byType = depreciationEngine.getRollup(ValuationGroup.TYPE, AS_OF);
+
+        ValuationRollupResponse laptops = byType.stream().filter(row -> Long.valueOf(1L).equals(row.getGroupId()))
+                .findFirst().orElseThrow();
+        ValuationRollupResponse untyped = byType.stream().filter(row -> row.getGroupId() == null)
+                .findFirst().orElseThrow();
+        assertThat(laptops.getAssetCount()).isEqualTo(ASSETS / 2);
+        assertThat(laptops.getBookValue()).isEqualByComparingTo(BigDecimal.valueOf(50L * ASSETS / 2));
+        assertThat(untyped.getBookValue()).isEqualByComparingTo(BigDecimal.valueOf(100L * ASSETS / 2));
+        assertThat(depreciationEngine.getRollup(ValuationGroup.DEPARTMENT, AS_OF)).hasSize(2);
+        verify(assetRepository, times(1)).streamValuationRows();
+    }
+
+    @Test
+    void testCatchUp_ShouldReapplyFeedEntriesFromCurrentRows() {
+        BookValueResponse before = depreciationEngine.getBookValue(1L, AS_OF);
+        assertThat(before.getBookValue()).isEqualByComparingTo("50.00");
+        assertThat(before.getAccumulatedDepreciation()).isEqualByComparingTo("50.00");
+
+        // asset 1 was re-priced and asset 3 deleted, possibly on another node
+        List<AssetHistory> feed = List.of(history(1, 1L), history(2, 3L), history(3, 1L));
+        when(assetHistoryRepository.findFeedAfter(0L, Limit.of(500))).thenReturn(feed);
+        when(assetRepository.findValuationRows(Set.of(1L, 3L))).thenReturn(List.of(new AssetValuationRow(1L,
+                new BigDecimal("300.00"), Date.valueOf(AS_OF.minusMonths(3)), 1L, 7L)));
+        depreciationEngine.onWritten(feed);
+
+        assertThat(depreciationEngine.getBookValue(1L, AS_OF).getBookValue()).isEqualByComparingTo("225.00");
+        assertThatThrownBy(() -> depreciationEngine.getBookValue(3L, AS_OF)).isInstanceOf(DataNotFound.class);
+        ValuationRollupResponse laptops = depreciationEngine.getRollup(ValuationGroup.TYPE, AS_OF).stream()
+                .filter(row -> Long.valueOf(1L).equals(row.getGroupId())).findFirst().orElseThrow();
+        assertThat(laptops.getAssetCount()).isEqualTo(ASSETS / 2 - 1);
+        assertThat(laptops.getBookValue()).isEqualByComparingTo(BigDecimal.valueOf(50L * ASSETS / 2 - 100 + 225));
+        verify(assetRepository, times(1)).streamValuationRows();
+        verify(assetHistoryRepository, times(1)).findFeedAfter(anyLong(), any());
+    }
+
+    @Test
+    void testCatchUp_ShouldApplyAWriteThatCommitsWhileTheRegisterIsRead() {
+        // the write lands after the feed position is read but is not in the rows
+        when(assetHistoryRepository.findMaxFeedSeq()).thenReturn(4L);
+        List<AssetHistory> feed = List.of(history(5, 1L));
+        when(assetHistoryRepository.findFeedAfter(4L, Limit.of(500))).thenReturn(feed);
+        when(assetRepository.findValuationRows(Set.of(1L))).thenReturn(List.of(new AssetValuationRow(1L,
+                new BigDecimal("300.00"), Date.valueOf(AS_OF.minusMonths(3)), 1L, 7L)));
+        depreciationEngine.onWritten(feed);
+
+        assertThat(depreciationEngine.getBookValue(1L, AS_OF).getBookValue()).isEqualByComparingTo("225.00");
+    }
+
+    @Test
+    void testValuation_ShouldRebuildWhenTheStoredVersionMoves() {
+        when(aggregateVersions.version(Aggregate.VALUATIONS)).thenReturn(3L);
+        depreciationEngine.getBookValue(1L, AS_OF);
+        depreciationEngine.getBookValue(1L, AS_OF);
+        verify(assetRepository, times(1)).streamValuationRows();
+
+        // a type's settings changed, here or on another node
+        depreciationEngine.invalidate();
+        verify(aggregateVersions).bump(Aggregate.VALUATIONS);
+        when(aggregateVersions.version(Aggregate.VALUATIONS)).thenReturn(4L);
+        depreciationEngine.getBookValue(1L, AS_OF);
+        depreciationEngine.getBookValue(1L, AS_OF);
+
+        verify(assetRepository, times(2)).streamValuationRows();
+    }
+
+    private AssetHistory history(long seq, Long assetId) {
+        return AssetHistory.builder().id(seq).feedSeq(seq).assetId(assetId).build();
+    }
+}
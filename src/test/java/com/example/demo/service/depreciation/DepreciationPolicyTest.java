@@ -0,0 +1,53 @@
+package com.example.demo.service.depreciation;
+
+import com.example.demo.entity.AssetType;
+import com.example.demo.enums.DepreciationMethod;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.*;
+
+class DepreciationPolicyTest {
+
+    private static final BigDecimal COST = new BigDecimal("1200.00");
+
+    @Test
+    void testStraightLine_ShouldDepreciateEvenlyDownToResidual() {
+        DepreciationPolicy policy = DepreciationPolicy.of(type(DepreciationMethod.STRAIGHT_LINE, 12, "0.25"));
+
+        assertThat(policy.bookValue(COST, 0)).isEqualByComparingTo("1200.00");
+        assertThat(policy.bookValue(COST, 6)).isEqualByComparingTo("750.00");
+        assertThat(policy.bookValue(COST, 12)).isEqualByComparingTo("300.00");
+        assertThat(policy.bookValue(COST, 40)).isEqualByComparingTo("300.00");
+    }
+
+    @Test
+    void testDecliningBalance_ShouldFallFasterEarlyAndStopAtResidual() {
+        DepreciationPolicy declining = DepreciationPolicy.of(type(DepreciationMethod.DECLINING_BALANCE, 20, "0.10"));
+        DepreciationPolicy straight = DepreciationPolicy.of(type(DepreciationMethod.STRAIGHT_LINE, 20, "0.10"));
+
+        assertThat(declining.bookValue(COST, 1)).isEqualByComparingTo("1080.00");
+        assertThat(declining.bookValue(COST, 5)).isLessThan(straight.bookValue(COST, 5));
+        assertThat(declining.bookValue(COST, 19)).isGreaterThan(new BigDecimal("120.00"));
+        assertThat(declining.bookValue(COST, 20)).isEqualByComparingTo("120.00");
+    }
+
+    @Test
+    void testOf_ShouldCarryAtCostWithoutSettings() {
+        assertThat(DepreciationPolicy.of(null)).isEqualTo(DepreciationPolicy.NONE);
+        assertThat(DepreciationPolicy.of(type(null, 12, null))).isEqualTo(DepreciationPolicy.NONE);
+        assertThat(DepreciationPolicy.of(type(DepreciationMethod.STRAIGHT_LINE, 0, null)))
+                .isEqualTo(DepreciationPolicy.NONE);
+        assertThat(DepreciationPolicy.NONE.bookValue(COST, 100)).isEqualByComparingTo(COST);
+    }
+
+    private AssetType type(DepreciationMethod method, Integer lifeMonths, String residualRate) {
+        return AssetType.builder()
+                .id(1L)
+                .depreciationMethod(method)
+                .usefulLifeMonths(lifeMonths)
+                .residualRate(residualRate == null ? null : new BigDecimal(residualRate))
+                .build();
+    }
+}
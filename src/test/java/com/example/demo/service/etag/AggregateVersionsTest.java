@@ -0,0 +1,99 @@
+package com.example.demo.service.etag;
+
+import com.example.demo.entity.AggregateVersion;
+import com.example.demo.repository.AggregateVersionRepository;
+import com.example.demo.service.etag.AggregateVersions.Aggregate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AggregateVersionsTest {
+
+    @Mock
+    private AggregateVersionRepository aggregateVersionRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private AggregateVersions versions;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        versions = new AggregateVersions(aggregateVersionRepository, transactionTemplate);
+        lenient().doAnswer(invocation -> {
+            ((Consumer<Object>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    void testEtag_ShouldBeBuiltFromStoredVersionsSoEveryNodeAgrees() {
+        when(aggregateVersionRepository.findAllById(List.of("ASSETS", "NOTIFICATIONS"))).thenReturn(List.of(
+                AggregateVersion.builder().name("NOTIFICATIONS").version(40).build(),
+                AggregateVersion.builder().name("ASSETS").version(7).build()));
+
+        String etag = versions.etag(Aggregate.ASSETS, Aggregate.NOTIFICATIONS);
+
+        assertThat(etag).isEqualTo("\"7-14\"");
+        assertThat(new AggregateVersions(aggregateVersionRepository, transactionTemplate)
+                .etag(Aggregate.ASSETS, Aggregate.NOTIFICATIONS)).isEqualTo(etag);
+    }
+
+    @Test
+    void testEtag_ShouldKeyDetailsOnTheRowVersion() {
+        when(aggregateVersionRepository.findAllById(List.of("ASSIGNEES")))
+                .thenReturn(List.of(AggregateVersion.builder().name("ASSIGNEES").version(2).build()));
+
+        assertThat(versions.etag(12L, 3, Aggregate.ASSIGNEES)).isEqualTo("\"12.3-2\"");
+        assertThat(versions.etag(13L, 3, Aggregate.ASSIGNEES)).isNotEqualTo(versions.etag(12L, 3, Aggregate.ASSIGNEES));
+    }
+
+    @Test
+    void testBump_ShouldIncrementOnceJustBeforeCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        versions.bump(Aggregate.NOTIFICATIONS);
+        versions.bump(Aggregate.ASSETS, Aggregate.NOTIFICATIONS);
+        verifyNoInteractions(aggregateVersionRepository);
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.beforeCommit(false);
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+
+        verify(aggregateVersionRepository).increment(Set.of("ASSETS", "NOTIFICATIONS"));
+        verifyNoMoreInteractions(aggregateVersionRepository);
+    }
+
+    @Test
+    void testBump_ShouldIncrementAtOnceWithoutTransaction() {
+        versions.bump(Aggregate.DEPARTMENTS);
+
+        verify(aggregateVersionRepository).increment(List.of("DEPARTMENTS"));
+    }
+}
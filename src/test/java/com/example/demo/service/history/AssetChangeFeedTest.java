@@ -0,0 +1,82 @@
+package com.example.demo.service.history;
+
+import com.example.demo.dto.asset.AssetChangesResponse;
+import com.example.demo.dto.asset.AssetHistoryResponse;
+import com.example.demo.entity.Asset;
+import com.example.demo.entity.AssetHistory;
+import com.example.demo.enums.AssetHistoryAction;
+import com.example.demo.repository.AssetHistoryRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AssetChangeFeedTest {
+
+    @Mock
+    private AssetHistoryRepository assetHistoryRepository;
+
+    @InjectMocks
+    private AssetChangeFeed feed;
+
+    @Test
+    void testPoll_ShouldAnswerAtOnceWhenEntriesExist() {
+        // ids need not follow feed order
+        when(assetHistoryRepository.findFeedAfter(10L, Limit.of(2)))
+                .thenReturn(List.of(history(60L, 11L), history(14L, 12L)));
+
+        CompletableFuture<AssetChangesResponse> changes = feed.poll(10L, 2, 30_000);
+
+        assertThat(changes).isCompleted();
+        assertThat(changes.join().getItems()).extracting(AssetHistoryResponse::getId).containsExactly(60L, 14L);
+        assertThat(changes.join().getLastSeq()).isEqualTo(12L);
+    }
+
+    @Test
+    void testPoll_ShouldWaitForEntriesPastItsPosition() {
+        when(assetHistoryRepository.findFeedAfter(10L, Limit.of(2))).thenReturn(List.of());
+
+        CompletableFuture<AssetChangesResponse> changes = feed.poll(10L, 2, 30_000);
+        assertThat(changes).isNotDone();
+
+        feed.onWritten(List.of(history(3L, 9L), history(4L, 10L)));
+        assertThat(changes).isNotDone();
+
+        feed.onWritten(List.of(history(8L, 11L), history(5L, 12L), history(9L, 13L)));
+
+        assertThat(changes).isCompleted();
+        assertThat(changes.join().getItems()).extracting(AssetHistoryResponse::getId).containsExactly(8L, 5L);
+        assertThat(changes.join().getLastSeq()).isEqualTo(12L);
+    }
+
+    @Test
+    void testPoll_ShouldAnswerEmptyWhenWaitRunsOut() throws Exception {
+        when(assetHistoryRepository.findFeedAfter(10L, Limit.of(AssetChangeFeed.DEFAULT_LIMIT))).thenReturn(List.of());
+
+        AssetChangesResponse changes = feed.poll(10L, null, 50).get(5, TimeUnit.SECONDS);
+
+        assertThat(changes.getItems()).isEmpty();
+        assertThat(changes.getLastSeq()).isEqualTo(10L);
+    }
+
+    private AssetHistory history(Long id, Long feedSeq) {
+        return AssetHistory.builder()
+                .id(id)
+                .feedSeq(feedSeq)
+                .asset(Asset.builder().id(1L).build())
+                .actionType(AssetHistoryAction.UPDATED)
+                .performedAt(Instant.now())
+                .build();
+    }
+}
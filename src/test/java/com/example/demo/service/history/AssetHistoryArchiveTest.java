@@ -0,0 +1,192 @@
+package com.example.demo.service.history;
+
+import com.example.demo.dto.asset.ArchivedHistoryRow;
+import com.example.demo.dto.asset.AssetHistoryFilter;
+import com.example.demo.dto.asset.AssetHistoryRow;
+import com.example.demo.enums.AssetHistoryAction;
+import com.example.demo.enums.AssetStatus;
+import com.example.demo.repository.AssetHistoryRepository;
+import com.example.demo.service.etag.AggregateVersions;
+import com.example.demo.service.etag.AggregateVersions.Aggregate;
+import com.example.demo.service.lock.JobLocks;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AssetHistoryArchiveTest {
+
+    private static final Instant DAY_ONE = LocalDate.now(ZoneOffset.UTC).minusDays(400)
+            .atStartOfDay(ZoneOffset.UTC).toInstant();
+    private static final Instant DAY_TWO = DAY_ONE.plus(Duration.ofDays(1));
+
+    @TempDir
+    private Path directory;
+
+    @Mock
+    private AssetHistoryRepository assetHistoryRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private JobLocks jobLocks;
+
+    @Mock
+    private AggregateVersions aggregateVersions;
+
+    // the shared HISTORY_ARCHIVE version row
+    private final AtomicLong archiveVersion = new AtomicLong();
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+
+    private final List<ArchivedHistoryRow> table = new ArrayList<>(List.of(
+            row(1L, 10L, AssetHistoryAction.ASSIGNED, AssetStatus.IN_USE, DAY_ONE.plusSeconds(3600)),
+            row(2L, 11L, AssetHistoryAction.CREATED, AssetStatus.IN_STOCK, DAY_ONE.plusSeconds(7200)),
+            row(3L, 10L, AssetHistoryAction.RECLAIMED, AssetStatus.IN_STOCK, DAY_TWO.plusSeconds(3600)),
+            row(4L, 10L, AssetHistoryAction.UPDATED, AssetStatus.REPAIR, DAY_TWO.plusSeconds(3600))));
+
+    private AssetHistoryArchive archive;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+        lenient().doAnswer(invocation -> {
+            ((Consumer<Object>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        lenient().when(assetHistoryRepository.findMinPerformedAt()).thenAnswer(invocation -> table.stream()
+                .map(ArchivedHistoryRow::performedAt).min(Instant::compareTo).orElse(null));
+        lenient().when(assetHistoryRepository.findArchivable(any(), any())).thenAnswer(invocation -> {
+            Instant from = invocation.getArgument(0);
+            Instant to = invocation.getArgument(1);
+            return table.stream()
+                    .filter(row -> !row.performedAt().isBefore(from) && row.performedAt().isBefore(to))
+                    .toList();
+        });
+        lenient().doAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(0);
+            table.removeIf(row -> ids.contains(row.id()));
+            return null;
+        }).when(assetHistoryRepository).deleteAllByIdInBatch(any());
+        lenient().when(jobLocks.runExclusively(any(), any(), any())).thenAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(2)).run();
+            return true;
+        });
+        lenient().when(aggregateVersions.version(Aggregate.HISTORY_ARCHIVE)).thenAnswer(invocation -> archiveVersion.get());
+        lenient().doAnswer(invocation -> archiveVersion.incrementAndGet())
+                .when(aggregateVersions).bump(Aggregate.HISTORY_ARCHIVE);
+        archive = newArchive();
+    }
+
+    @Test
+    void testArchive_ShouldMoveOldDaysToSegmentsAndStopAtHorizon() throws Exception {
+        ArchivedHistoryRow recent = row(5L, 10L, AssetHistoryAction.ASSIGNED, AssetStatus.IN_USE, Instant.now());
+        table.add(recent);
+
+        archive.archive();
+
+        assertThat(table).containsExactly(recent);
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files.map(path -> path.getFileName().toString()))
+                    .containsExactlyInAnyOrder(
+                            "history-" + LocalDate.ofInstant(DAY_ONE, ZoneOffset.UTC) + "-1.jsonl.gz",
+                            "history-" + LocalDate.ofInstant(DAY_ONE, ZoneOffset.UTC) + "-1.idx.json",
+                            "history-" + LocalDate.ofInstant(DAY_TWO, ZoneOffset.UTC) + "-3.jsonl.gz",
+                            "history-" + LocalDate.ofInstant(DAY_TWO, ZoneOffset.UTC) + "-3.idx.json");
+        }
+
+        List<ArchivedHistoryRow> replayed = new ArrayList<>();
+        archive.replay(replayed::add);
+        assertThat(replayed).extracting(ArchivedHistoryRow::id).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(archive.maxAssetId()).isEqualTo(11L);
+    }
+
+    @Test
+    void testFindPage_ShouldPageNewestFirstAcrossSegmentsAfterRestart() throws Exception {
+        archive.archive();
+        // a fresh instance only has what is on disk
+        AssetHistoryArchive reloaded = newArchive();
+
+        List<AssetHistoryRow> first = reloaded.findPage(new AssetHistoryFilter(), null, Long.MAX_VALUE, 3);
+        assertThat(first).extracting(AssetHistoryRow::id).containsExactly(4L, 3L, 2L);
+
+        AssetHistoryRow last = first.get(2);
+        assertThat(reloaded.findPage(new AssetHistoryFilter(), last.performedAt(), last.id(), 3))
+                .extracting(AssetHistoryRow::id).containsExactly(1L);
+        assertThat(reloaded.findPage(AssetHistoryFilter.builder().assetId(11L).build(), null, Long.MAX_VALUE, 3))
+                .extracting(AssetHistoryRow::id).containsExactly(2L);
+        assertThat(reloaded.findPage(AssetHistoryFilter.builder().to(DAY_TWO).build(), null, Long.MAX_VALUE, 3))
+                .extracting(AssetHistoryRow::id).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void testFindLatestAt_ShouldPickLatestEntryAtOrBeforeInstant() {
+        archive.archive();
+
+        assertThat(archive.findLatestAt(10L, DAY_TWO.plusSeconds(3600)))
+                .get().extracting(ArchivedHistoryRow::id).isEqualTo(4L);
+        assertThat(archive.findLatestAt(10L, DAY_TWO)).get().extracting(ArchivedHistoryRow::id).isEqualTo(1L);
+        assertThat(archive.findLatestAt(11L, DAY_ONE)).isEmpty();
+    }
+
+    @Test
+    void testFindPage_ShouldPickUpSegmentsAnotherNodeWrote() throws Exception {
+        // started before the other node archived, sharing its directory
+        AssetHistoryArchive otherNode = newArchive();
+
+        archive.archive();
+
+        assertThat(otherNode.findPage(new AssetHistoryFilter(), null, Long.MAX_VALUE, 10))
+                .extracting(AssetHistoryRow::id).containsExactly(4L, 3L, 2L, 1L);
+        assertThat(otherNode.maxAssetId()).isEqualTo(11L);
+    }
+
+    @Test
+    void testArchive_ShouldLeaveTheTableAloneWhenAnotherNodeHoldsTheLock() {
+        doReturn(false).when(jobLocks).runExclusively(any(), any(), any());
+
+        archive.archive();
+
+        assertThat(table).hasSize(4);
+        verify(assetHistoryRepository, never()).deleteAllByIdInBatch(any());
+    }
+
+    private AssetHistoryArchive newArchive() throws Exception {
+        AssetHistoryArchive created = new AssetHistoryArchive(assetHistoryRepository, transactionTemplate,
+                jobLocks, aggregateVersions, objectMapper, directory, Duration.ofDays(365), Duration.ofHours(6));
+        created.loadIndexes();
+        return created;
+    }
+
+    private static ArchivedHistoryRow row(Long id, Long assetId, AssetHistoryAction action, AssetStatus status,
+            Instant at) {
+        return new ArchivedHistoryRow(id, assetId, 3L, null, action, null, at, "History " + id, null, null, status,
+                null, null, null, null);
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.demo.service.history;
+
+import com.example.demo.entity.AssetHistory;
+import com.example.demo.entity.AssetHistoryFeed;
+import com.example.demo.enums.AssetHistoryAction;
+import com.example.demo.repository.AssetHistoryFeedRepository;
+import com.example.demo.repository.AssetHistoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AssetHistoryWriterTest {
+
+    @Mock
+    private AssetHistoryRepository assetHistoryRepository;
+
+    @Mock
+    private AssetHistoryFeedRepository assetHistoryFeedRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private AssetHistoryListener listener;
+
+    private AssetHistoryWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        writer = new AssetHistoryWriter(assetHistoryRepository, assetHistoryFeedRepository, transactionTemplate,
+                List.of(listener), 2, Duration.ofSeconds(1));
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+    }
+
+    @Test
+    void testRecord_ShouldInsertInCallerTransaction() {
+        List<AssetHistory> histories = List.of(history(null), history(null));
+        writer.recordAll(histories);
+
+        verifyNoInteractions(listener);
+        verify(assetHistoryRepository).saveAll(histories);
+        assertThat(writer.stats().getWritten()).isEqualTo(2);
+        verifyNoInteractions(transactionTemplate);
+    }
+
+    @Test
+    void testSequence_ShouldNumberCommittedEntriesAfterTheHeadBatchByBatch() {
+        AssetHistoryFeed head = AssetHistoryFeed.builder().id(AssetHistoryFeed.ID).lastSeq(10).build();
+        when(assetHistoryFeedRepository.findHeadForUpdate()).thenReturn(Optional.of(head));
+        AssetHistory first = history(70L);
+        AssetHistory second = history(20L);
+        AssetHistory third = history(90L);
+        when(assetHistoryRepository.findUnsequenced(Limit.of(2)))
+                .thenReturn(List.of(second, first), List.of(third));
+
+        assertThat(writer.sequence()).isEqualTo(3);
+
+        assertThat(List.of(second, first, third)).extracting(AssetHistory::getFeedSeq).containsExactly(11L, 12L, 13L);
+        assertThat(head.getLastSeq()).isEqualTo(13L);
+        assertThat(writer.stats().getSequenced()).isEqualTo(3);
+        assertThat(writer.stats().getFlushes()).isEqualTo(2);
+    }
+
+    @Test
+    void testPublish_ShouldHandListenersOnlyEntriesPastWhatTheySaw() {
+        when(assetHistoryRepository.findMaxFeedSeq()).thenReturn(5L);
+        List<List<AssetHistory>> batches = new ArrayList<>();
+        doAnswer(invocation -> batches.add(invocation.getArgument(0))).when(listener).onWritten(any());
+        when(assetHistoryRepository.findFeedAfter(5L, Limit.of(2)))
+                .thenReturn(List.of(numbered(31L, 6L), numbered(30L, 7L)));
+        when(assetHistoryRepository.findFeedAfter(7L, Limit.of(2))).thenReturn(List.of(numbered(33L, 8L)));
+
+        assertThat(writer.publish()).isEqualTo(3);
+
+        assertThat(batches).flatExtracting(batch -> batch.stream().map(AssetHistory::getFeedSeq).toList())
+                .containsExactly(6L, 7L, 8L);
+        assertThat(writer.stats().getLastSeq()).isEqualTo(8L);
+    }
+
+    private AssetHistory history(Long id) {
+        return AssetHistory.builder().id(id).actionType(AssetHistoryAction.UPDATED).details("Updated").build();
+    }
+
+    private AssetHistory numbered(Long id, Long feedSeq) {
+        AssetHistory history = history(id);
+        history.setFeedSeq(feedSeq);
+        return history;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.demo.service.notification;
+
+import com.example.demo.exception.InvalidRequest;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.*;
+
+class MarkerRecurrenceTest {
+
+    private static final Instant MILESTONE = Instant.parse("2025-01-31T08:00:00Z");
+
+    @Test
+    void testNext_ShouldJumpStraightPastMissedIntervals() {
+        MarkerRecurrence everyTwelveHours = MarkerRecurrence.parse("PT12H");
+
+        assertThat(everyTwelveHours.next(MILESTONE, MILESTONE.minusSeconds(1))).isEqualTo(MILESTONE);
+        assertThat(everyTwelveHours.next(MILESTONE, MILESTONE)).isEqualTo(Instant.parse("2025-01-31T20:00:00Z"));
+        assertThat(everyTwelveHours.next(MILESTONE, Instant.parse("2026-01-31T09:00:00Z")))
+                .isEqualTo(Instant.parse("2026-01-31T20:00:00Z"));
+        assertThat(MarkerRecurrence.parse("P14D").next(MILESTONE, Instant.parse("2025-02-14T08:00:00Z")))
+                .isEqualTo(Instant.parse("2025-02-28T08:00:00Z"));
+    }
+
+    @Test
+    void testNext_ShouldCountMonthsFromTheMilestoneWithoutDrift() {
+        MarkerRecurrence monthly = MarkerRecurrence.parse("P1M");
+
+        assertThat(monthly.next(MILESTONE, MILESTONE)).isEqualTo(Instant.parse("2025-02-28T08:00:00Z"));
+        assertThat(monthly.next(MILESTONE, Instant.parse("2025-02-28T08:00:00Z")))
+                .isEqualTo(Instant.parse("2025-03-31T08:00:00Z"));
+        assertThat(MarkerRecurrence.parse("P3M").next(MILESTONE, Instant.parse("2027-05-01T00:00:00Z")))
+                .isEqualTo(Instant.parse("2027-07-31T08:00:00Z"));
+    }
+
+    @Test
+    void testNext_ShouldNotSkipAnOccurrenceOfAPeriodMixingMonthsAndDays() {
+        MarkerRecurrence everyMonthAndAHalf = MarkerRecurrence.parse("P1M15D");
+        Instant milestone = Instant.parse("2026-01-01T00:00:00Z");
+
+        // occurrences: Feb 16, Apr 1, May 16, Jun 30, Aug 15
+        assertThat(everyMonthAndAHalf.next(milestone, Instant.parse("2026-06-01T00:00:00Z")))
+                .isEqualTo(Instant.parse("2026-06-30T00:00:00Z"));
+        assertThat(everyMonthAndAHalf.next(milestone, Instant.parse("2026-06-30T00:00:00Z")))
+                .isEqualTo(Instant.parse("2026-08-15T00:00:00Z"));
+        assertThat(everyMonthAndAHalf.next(milestone, Instant.parse("2036-01-01T00:00:00Z")))
+                .isEqualTo(Instant.parse("2036-01-29T00:00:00Z"));
+    }
+
+    @Test
+    void testNext_ShouldFollowCronInUtc() {
+        MarkerRecurrence firstOfMonth = MarkerRecurrence.parse("0 0 8 1 * *");
+
+        assertThat(firstOfMonth.next(MILESTONE, Instant.parse("2025-03-01T08:00:00Z")))
+                .isEqualTo(Instant.parse("2025-04-01T08:00:00Z"));
+    }
+
+    @Test
+    void testParse_ShouldTreatBlankAsOneShotAndRejectInvalidRules() {
+        assertThat(MarkerRecurrence.parse(null)).isNull();
+        assertThat(MarkerRecurrence.parse(" ")).isNull();
+        assertThatThrownBy(() -> MarkerRecurrence.parse("PT30S")).isInstanceOf(InvalidRequest.class);
+        assertThatThrownBy(() -> MarkerRecurrence.parse("P0D")).isInstanceOf(InvalidRequest.class);
+        assertThatThrownBy(() -> MarkerRecurrence.parse("every month")).isInstanceOf(InvalidRequest.class);
+    }
+}
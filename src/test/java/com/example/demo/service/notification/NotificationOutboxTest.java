@@ -0,0 +1,142 @@
+package com.example.demo.service.notification;
+
+import com.example.demo.entity.Notification;
+import com.example.demo.entity.NotificationEvent;
+import com.example.demo.entity.User;
+import com.example.demo.repository.NotificationEventRepository;
+import com.example.demo.repository.NotificationRepository;
+import com.example.demo.service.etag.AggregateVersions;
+import com.example.demo.service.etag.AggregateVersions.Aggregate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationOutboxTest {
+
+    @Mock
+    private NotificationEventRepository notificationEventRepository;
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private NotificationRenderer notificationRenderer;
+
+    @Mock
+    private UnreadNotificationCounters unreadNotificationCounters;
+
+    @Mock
+    private NotificationPush notificationPush;
+
+    @Mock
+    private AggregateVersions aggregateVersions;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private NotificationOutbox outbox;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        outbox = new NotificationOutbox(notificationEventRepository, notificationRepository, notificationRenderer,
+                unreadNotificationCounters, notificationPush, aggregateVersions, transactionTemplate, 10,
+                Duration.ofSeconds(5), 3, Duration.ofSeconds(30), Duration.ofMinutes(1));
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+        lenient().doAnswer(invocation -> {
+            ((Consumer<TransactionStatus>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    void testDispatch_ShouldInsertRenderedNotificationsAndClearTheBatch() {
+        List<NotificationEvent> events = List.of(event(1L), event(2L));
+        List<Notification> notifications = List.of(notification(5L), notification(2L), notification(5L));
+        when(notificationEventRepository.findNextBatch(any(Instant.class), eq(Limit.of(10)))).thenReturn(events);
+        when(notificationRenderer.render(events)).thenReturn(notifications);
+
+        assertThat(outbox.dispatch()).isEqualTo(2);
+
+        verify(notificationRepository).saveAll(notifications);
+        verify(notificationEventRepository).deleteAllInBatch(events);
+        verify(unreadNotificationCounters).added(notifications);
+        verify(notificationPush).publish(notifications);
+        verify(aggregateVersions).bump(Aggregate.NOTIFICATIONS);
+    }
+
+    @Test
+    void testDispatch_ShouldKeepTheEventThatFailsOnItsOwnAndRetryItLater() {
+        NotificationEvent good = event(1L);
+        NotificationEvent poison = event(2L);
+        when(notificationEventRepository.findNextBatch(any(Instant.class), eq(Limit.of(10))))
+                .thenReturn(List.of(good, poison));
+        when(notificationRenderer.render(List.of(good, poison))).thenThrow(new IllegalStateException("bad row"));
+        when(notificationEventRepository.findClaimableById(1L)).thenReturn(Optional.of(good));
+        when(notificationEventRepository.findClaimableById(2L)).thenReturn(Optional.of(poison));
+        when(notificationRenderer.render(List.of(good))).thenReturn(List.of(notification(5L)));
+        when(notificationRenderer.render(List.of(poison))).thenThrow(new IllegalStateException("bad row"));
+        Instant before = Instant.now();
+
+        assertThat(outbox.dispatch()).isEqualTo(2);
+
+        verify(notificationEventRepository).deleteAllInBatch(List.of(good));
+        verify(notificationEventRepository, never()).deleteById(any());
+        verify(notificationPush).publish(anyList());
+        assertThat(poison.getAttempts()).isOne();
+        assertThat(poison.getLastError()).contains("bad row");
+        assertThat(poison.getNextAttemptAt()).isAfterOrEqualTo(before.plusSeconds(30));
+        assertThat(poison.getDeadLetteredAt()).isNull();
+    }
+
+    @Test
+    void testDispatch_ShouldBackOffExponentiallyAndDeadLetterAfterMaxAttempts() {
+        NotificationEvent poison = event(2L);
+        when(notificationEventRepository.findNextBatch(any(Instant.class), eq(Limit.of(10))))
+                .thenReturn(List.of(poison));
+        when(notificationEventRepository.findClaimableById(2L)).thenReturn(Optional.of(poison));
+        when(notificationRenderer.render(List.of(poison))).thenThrow(new IllegalStateException("bad row"));
+
+        Instant before = Instant.now();
+        outbox.dispatch();
+        outbox.dispatch();
+        // 30s, then 60s capped at the one-minute maximum
+        assertThat(poison.getAttempts()).isEqualTo(2);
+        assertThat(poison.getNextAttemptAt()).isBetween(before.plusSeconds(60), Instant.now().plusSeconds(60));
+
+        outbox.dispatch();
+        assertThat(poison.getAttempts()).isEqualTo(3);
+        assertThat(poison.getDeadLetteredAt()).isNotNull();
+        verify(notificationEventRepository, never()).deleteById(any());
+        verify(notificationEventRepository, never()).deleteAllInBatch(anyList());
+    }
+
+    private NotificationEvent event(Long id) {
+        NotificationEvent event = NotificationEvent.userUpdated(5L);
+        event.setId(id);
+        return event;
+    }
+
+    private Notification notification(Long userId) {
+        return Notification.builder().user(User.builder().id(userId).build()).isRead(false).build();
+    }
+}
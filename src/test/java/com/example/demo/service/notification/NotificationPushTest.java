@@ -0,0 +1,119 @@
+package com.example.demo.service.notification;
+
+import com.example.demo.entity.Notification;
+import com.example.demo.entity.User;
+import com.example.demo.repository.NotificationFeedRepository;
+import com.example.demo.repository.NotificationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationPushTest {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private NotificationFeedRepository notificationFeedRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private NotificationPush push;
+
+    @BeforeEach
+    void setUp() {
+        push = push(Runnable::run);
+    }
+
+    @Test
+    void testAttach_ShouldReplayMissedAndThenPushLiveWithoutDuplicates() {
+        when(notificationRepository.findByUserIdAfterSeq(eq(4L), eq(10L), eq(Limit.of(2))))
+                .thenReturn(List.of(notification(11L, 4L), notification(12L, 4L)));
+        when(notificationRepository.findMaxFeedSeq()).thenReturn(11L);
+        // 12 was numbered after the replay's query began; user 7 is not listening here
+        when(notificationRepository.findFeedAfter(11L, Limit.of(100)))
+                .thenReturn(List.of(notification(12L, 4L), notification(13L, 4L), notification(14L, 7L)));
+        RecordingEmitter emitter = new RecordingEmitter();
+
+        push.attach(4L, 10L, emitter);
+        push.deliver();
+
+        assertThat(emitter.ids).containsExactly("11", "12", "13");
+        assertThat(push.getConnections()).isEqualTo(1);
+    }
+
+    @Test
+    void testDeliver_ShouldPushNotificationsCreatedOnOtherNodes() {
+        when(notificationRepository.findMaxFeedSeq()).thenReturn(0L);
+        when(notificationRepository.findFeedAfter(0L, Limit.of(100))).thenReturn(List.of(notification(1L, 4L)));
+        when(notificationRepository.findFeedAfter(1L, Limit.of(100))).thenReturn(List.of(notification(2L, 4L)));
+        RecordingEmitter emitter = new RecordingEmitter();
+
+        push.attach(4L, null, emitter);
+        // nothing was published here; the stream hears of them from the feed
+        push.deliver();
+        push.deliver();
+
+        assertThat(emitter.ids).containsExactly("1", "2");
+    }
+
+    @Test
+    void testDeliver_ShouldDisconnectClientThatFallsBehindItsBuffer() {
+        // a sender stuck writing to a client whose socket stopped draining
+        push = push(task -> {
+        });
+        when(notificationRepository.findMaxFeedSeq()).thenReturn(0L);
+        when(notificationRepository.findFeedAfter(0L, Limit.of(100)))
+                .thenReturn(List.of(notification(1L, 4L), notification(2L, 4L), notification(3L, 4L)));
+        RecordingEmitter emitter = new RecordingEmitter();
+
+        push.attach(4L, null, emitter);
+        push.deliver();
+
+        assertThat(emitter.ids).isEmpty();
+        assertThat(emitter.completed).isTrue();
+        assertThat(push.getConnections()).isZero();
+    }
+
+    private NotificationPush push(Executor sender) {
+        return new NotificationPush(notificationRepository, notificationFeedRepository, transactionTemplate,
+                Duration.ofMinutes(1), 2, 100, Duration.ofSeconds(1), sender);
+    }
+
+    private Notification notification(Long seq, Long userId) {
+        return Notification.builder().id(seq * 50).feedSeq(seq).user(User.builder().id(userId).build())
+                .isRead(false).build();
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+        private final List<String> ids = new ArrayList<>();
+        private boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            String text = builder.build().iterator().next().getData().toString();
+            ids.add(text.substring(3, text.indexOf('\n')));
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.demo.service.notification;
+
+import com.example.demo.entity.Asset;
+import com.example.demo.entity.NotificationEvent;
+import com.example.demo.entity.NotificationMarker;
+import com.example.demo.enums.NotificationEventType;
+import com.example.demo.repository.NotificationMarkerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationRemindersTest {
+
+    private static final Instant NOW = Instant.parse("2025-06-01T08:00:00Z");
+
+    @Mock
+    private NotificationMarkerRepository notificationMarkerRepository;
+
+    @Mock
+    private NotificationOutbox notificationOutbox;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private NotificationReminders reminders;
+
+    @BeforeEach
+    void setUp() {
+        reminders = new NotificationReminders(notificationMarkerRepository, notificationOutbox, transactionTemplate,
+                2, Duration.ofMinutes(10));
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFireDue_ShouldDrainBacklogInBatchesAndStampEachMarkerOnce() {
+        when(notificationMarkerRepository.findDueBatch(NOW, Limit.of(2))).thenReturn(
+                List.of(marker(1L, 12L), marker(2L, 13L)),
+                List.of(marker(3L, 12L)));
+
+        assertThat(reminders.fireDue(NOW)).isEqualTo(3);
+
+        ArgumentCaptor<Collection<Long>> fired = ArgumentCaptor.forClass(Collection.class);
+        verify(notificationMarkerRepository, times(2)).markFired(fired.capture(), eq(NOW), isNull());
+        assertThat(fired.getAllValues()).flatExtracting(ids -> List.copyOf(ids)).containsExactly(1L, 2L, 3L);
+
+        ArgumentCaptor<Collection<NotificationEvent>> events = ArgumentCaptor.forClass(Collection.class);
+        verify(notificationOutbox, times(2)).addAll(events.capture());
+        assertThat(events.getAllValues()).flatExtracting(batch -> List.copyOf(batch))
+                .extracting(event -> ((NotificationEvent) event).getAssetId())
+                .containsExactly(12L, 13L, 12L);
+        assertThat(events.getValue()).allSatisfy(event ->
+                assertThat(event.getType()).isEqualTo(NotificationEventType.ASSET_REMINDER));
+    }
+
+    @Test
+    void testFireDue_ShouldDoNothingWhenAnotherNodeTookThem() {
+        when(notificationMarkerRepository.findDueBatch(NOW, Limit.of(2))).thenReturn(List.of());
+
+        assertThat(reminders.fireDue(NOW)).isZero();
+
+        verify(notificationMarkerRepository, never()).markFired(any(), any(), any());
+        verifyNoInteractions(notificationOutbox);
+    }
+
+    @Test
+    void testFireDue_ShouldMoveRecurringMarkersToTheirNextOccurrence() {
+        NotificationMarker quarterly = marker(1L, 12L);
+        quarterly.setRecurrence("P3M");
+        NotificationMarker alsoQuarterly = marker(2L, 13L);
+        alsoQuarterly.setRecurrence("P3M");
+        when(notificationMarkerRepository.findDueBatch(NOW, Limit.of(2))).thenReturn(List.of(quarterly, alsoQuarterly),
+                List.of());
+
+        assertThat(reminders.fireDue(NOW)).isEqualTo(2);
+
+        // same schedule, one statement
+        verify(notificationMarkerRepository).markFired(List.of(1L, 2L), NOW, Instant.parse("2025-09-01T07:59:00Z"));
+        verifyNoMoreInteractions(ignoreStubs(notificationMarkerRepository));
+    }
+
+    private NotificationMarker marker(Long id, Long assetId) {
+        return NotificationMarker.builder()
+                .id(id)
+                .asset(Asset.builder().id(assetId).build())
+                .reminderMilestone(NOW.minusSeconds(60))
+                .build();
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.demo.service.notification;
+
+import com.example.demo.entity.Asset;
+import com.example.demo.entity.AssetType;
+import com.example.demo.entity.Department;
+import com.example.demo.entity.Notification;
+import com.example.demo.entity.NotificationEvent;
+import com.example.demo.entity.User;
+import com.example.demo.enums.NotificationType;
+import com.example.demo.repository.AssetRepository;
+import com.example.demo.repository.DepartmentRepository;
+import com.example.demo.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationRendererTest {
+
+    @Mock
+    private AssetRepository assetRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private DepartmentRepository departmentRepository;
+
+    @InjectMocks
+    private NotificationRenderer renderer;
+
+    @Test
+    void testRender_ShouldFanOutToManagersWithOneQueryPerKindOfRow() {
+        Department it = Department.builder().id(7L).name("IT").managerId(2L).employeeCount(3).build();
+        User manager = User.builder().id(2L).name("Manager").build();
+        User jane = User.builder().id(5L).name("Jane").department(it).build();
+        Asset laptop = Asset.builder().id(12L).code("AS-001").name("MacBook")
+                .type(AssetType.builder().id(3L).name("Laptop").build()).build();
+        when(assetRepository.findDetailedByIdIn(Set.of(12L, 99L))).thenReturn(List.of(laptop));
+        when(userRepository.findWithDepartmentByIdIn(Set.of(5L))).thenReturn(List.of(jane));
+        when(departmentRepository.findAllById(Set.of(7L))).thenReturn(List.of(it));
+        when(userRepository.findAllById(Set.of(2L))).thenReturn(List.of(manager));
+
+        List<Notification> notifications = renderer.render(List.of(
+                NotificationEvent.assetAssigned(12L, 5L),
+                NotificationEvent.assetRevoked(12L, 5L),
+                NotificationEvent.userUpdated(5L),
+                NotificationEvent.departmentUpdated(7L),
+                // deleted before dispatch
+                NotificationEvent.assetAssigned(99L, 5L)));
+
+        assertThat(notifications).extracting(notification -> notification.getUser().getId())
+                .containsExactly(5L, 2L, 5L, 5L, 2L);
+        assertThat(notifications).extracting(Notification::getType).containsExactly(NotificationType.INFO,
+                NotificationType.INFO, NotificationType.WARNING, NotificationType.USER_UPDATED, NotificationType.INFO);
+        assertThat(notifications.get(1).getMessage()).contains("MacBook", "Jane", "IT");
+        assertThat(notifications).allSatisfy(notification -> assertThat(notification.getIsRead()).isFalse());
+        verify(userRepository, times(1)).findAllById(any());
+    }
+
+    @Test
+    void testRender_ShouldRemindCurrentHolderAndTheirManager() {
+        Department it = Department.builder().id(7L).name("IT").managerId(2L).build();
+        User jane = User.builder().id(5L).name("Jane").department(it).build();
+        AssetType laptopType = AssetType.builder().id(3L).name("Laptop").build();
+        Asset held = Asset.builder().id(12L).code("AS-001").name("MacBook").type(laptopType)
+                .assignedTo(User.builder().id(5L).build()).build();
+        Asset inStock = Asset.builder().id(13L).code("AS-002").name("ThinkPad").type(laptopType).build();
+        when(assetRepository.findDetailedByIdIn(Set.of(12L, 13L))).thenReturn(List.of(held, inStock));
+        when(userRepository.findWithDepartmentByIdIn(Set.of(5L))).thenReturn(List.of(jane));
+        when(userRepository.findAllById(Set.of(2L))).thenReturn(List.of(User.builder().id(2L).build()));
+
+        List<Notification> notifications = renderer.render(List.of(
+                NotificationEvent.assetReminder(12L), NotificationEvent.assetReminder(13L)));
+
+        assertThat(notifications).extracting(notification -> notification.getUser().getId())
+                .containsExactly(5L, 2L);
+        assertThat(notifications).allSatisfy(notification -> {
+            assertThat(notification.getAsset()).isSameAs(held);
+            assertThat(notification.getType()).isEqualTo(NotificationType.WARNING);
+        });
+        assertThat(notifications.get(1).getMessage()).contains("MacBook", "Jane", "IT");
+        verifyNoInteractions(departmentRepository);
+    }
+
+    @Test
+    void testRender_ShouldSkipQueriesForKindsNotInBatch() {
+        assertThat(renderer.render(List.of(NotificationEvent.userCreated(5L)))).isEmpty();
+
+        verify(userRepository).findWithDepartmentByIdIn(Set.of(5L));
+        verifyNoInteractions(assetRepository, departmentRepository);
+        verifyNoMoreInteractions(userRepository);
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.demo.service.notification;
+
+import com.example.demo.entity.Notification;
+import com.example.demo.entity.NotificationUnreadCount;
+import com.example.demo.entity.User;
+import com.example.demo.repository.NotificationRepository;
+import com.example.demo.repository.NotificationUnreadCountRepository;
+import com.example.demo.service.lock.JobLocks;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UnreadNotificationCountersTest {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private NotificationUnreadCountRepository notificationUnreadCountRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private JobLocks jobLocks;
+
+    private UnreadNotificationCounters counters;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        counters = new UnreadNotificationCounters(notificationRepository, notificationUnreadCountRepository,
+                transactionTemplate, jobLocks, Duration.ofMinutes(30));
+        lenient().doAnswer(invocation -> {
+            ((Consumer<TransactionStatus>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    void testAdded_ShouldAddOnlyUnreadPerUserInUserIdOrder() {
+        counters.added(List.of(notification(7L, false), notification(4L, false), notification(4L, false),
+                notification(4L, true), notification(9L, true)));
+        counters.adjust(4L, -1);
+
+        InOrder inOrder = inOrder(notificationUnreadCountRepository);
+        inOrder.verify(notificationUnreadCountRepository).add(4L, 2);
+        inOrder.verify(notificationUnreadCountRepository).add(7L, 1);
+        inOrder.verify(notificationUnreadCountRepository).add(4L, -1);
+        verify(notificationUnreadCountRepository, never()).add(eq(9L), anyLong());
+    }
+
+    @Test
+    void testGet_ShouldReadTheStoredCountAndNeverGoNegative() {
+        when(notificationUnreadCountRepository.findById(4L))
+                .thenReturn(Optional.of(NotificationUnreadCount.builder().userId(4L).unread(3).build()));
+        when(notificationUnreadCountRepository.findById(7L))
+                .thenReturn(Optional.of(NotificationUnreadCount.builder().userId(7L).unread(-1).build()));
+
+        assertThat(counters.get(4L)).isEqualTo(3);
+        assertThat(counters.get(7L)).isZero();
+        assertThat(counters.get(9L)).isZero();
+    }
+
+    @Test
+    void testReconcile_ShouldSkipWhileAnotherNodeRunsIt() {
+        when(jobLocks.runExclusively(any(), any(), any())).thenReturn(false);
+
+        counters.reconcile();
+
+        verifyNoInteractions(notificationRepository, notificationUnreadCountRepository);
+    }
+
+    private Notification notification(Long userId, boolean isRead) {
+        return Notification.builder().user(User.builder().id(userId).build()).isRead(isRead).build();
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.demo.service.search;
+
+import com.example.demo.dto.asset.AssetSearchResult;
+import com.example.demo.entity.Asset;
+import com.example.demo.entity.AssetType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class AssetSearchIndexTest {
+
+    private AssetSearchIndex index;
+    private AssetType laptop;
+
+    @BeforeEach
+    void setUp() {
+        index = new AssetSearchIndex(null, null, null);
+        laptop = AssetType.builder().id(1L).name("Máy tính xách tay").build();
+        index.onTypeSaved(laptop);
+        index.index(asset(1L, "AS-001", "Dell Latitude", "Màn hình 14 inch"));
+        index.index(asset(2L, "AS-002", "MacBook Pro", "Đồ họa"));
+        index.index(asset(3L, "PR-001", "Máy in HP", null));
+    }
+
+    @Test
+    void testSearch_ShouldFoldDiacritics() {
+        assertThat(ids(index.search("man hinh", null))).containsExactly(1L);
+        assertThat(ids(index.search("do hoa", null))).containsExactly(2L);
+        assertThat(ids(index.search("MÁY IN HP", null))).containsExactly(3L);
+    }
+
+    @Test
+    void testSearch_ShouldMatchPrefixesAndTypeName() {
+        assertThat(ids(index.search("lat", null))).containsExactly(1L);
+        assertThat(ids(index.search("xach", null))).containsExactlyInAnyOrder(1L, 2L, 3L);
+        assertThat(ids(index.search("as-00", null))).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void testSearch_ShouldRankExactCodeFirst() {
+        List<AssetSearchResult> results = index.search("AS-001", null);
+
+        assertThat(results.get(0).getId()).isEqualTo(1L);
+        assertThat(results.get(0).getTypeName()).isEqualTo("Máy tính xách tay");
+    }
+
+    @Test
+    void testIndex_ShouldReplaceAndRemoveDocuments() {
+        index.index(asset(1L, "AS-001", "ThinkPad X1", null));
+
+        assertThat(index.search("latitude", null)).isEmpty();
+        assertThat(ids(index.search("thinkpad", null))).containsExactly(1L);
+
+        index.remove(1L);
+
+        assertThat(index.search("thinkpad", null)).isEmpty();
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void testIndex_ShouldIgnoreRolledBackWrites() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.index(asset(4L, "AS-004", "ThinkPad X1", null));
+            index.remove(1L);
+
+            assertThat(index.search("thinkpad", null)).isEmpty();
+            assertThat(ids(index.search("latitude", null))).containsExactly(1L);
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(
+                            TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(index.search("thinkpad", null)).isEmpty();
+        assertThat(ids(index.search("latitude", null))).containsExactly(1L);
+    }
+
+    @Test
+    void testOnTypeSaved_ShouldReindexRenamedType() {
+        index.onTypeSaved(AssetType.builder().id(1L).name("Laptop").build());
+
+        assertThat(index.search("xach", null)).isEmpty();
+        assertThat(ids(index.search("laptop", null))).containsExactlyInAnyOrder(1L, 2L, 3L);
+    }
+
+    private Asset asset(Long id, String code, String name, String description) {
+        return Asset.builder().id(id).code(code).name(name).description(description).type(laptop).build();
+    }
+
+    private List<Long> ids(List<AssetSearchResult> results) {
+        return results.stream().map(AssetSearchResult::getId).toList();
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.demo.service.stats;
+
+import com.example.demo.dto.asset.AssetStatsResponse;
+import com.example.demo.enums.AssetCondition;
+import com.example.demo.enums.AssetStatus;
+import com.example.demo.repository.AssetRepository;
+import com.example.demo.repository.AssetStatCountRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AssetStatsCountersTest {
+
+    @Mock
+    private AssetRepository assetRepository;
+
+    @Mock
+    private AssetStatCountRepository assetStatCountRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private AssetStatsCounters counters;
+
+    @BeforeEach
+    void setUp() {
+        counters = new AssetStatsCounters(assetRepository, assetStatCountRepository, transactionTemplate, false);
+    }
+
+    @Test
+    void testApplyChange_ShouldMoveEveryDimension() {
+        AssetStatsCounters.Snapshot inStock = new AssetStatsCounters.Snapshot(
+                AssetStatus.IN_STOCK, AssetCondition.GOOD, 1L, null);
+        AssetStatsCounters.Snapshot assigned = new AssetStatsCounters.Snapshot(
+                AssetStatus.IN_USE, AssetCondition.GOOD, 1L, 4L);
+
+        counters.applyChange(null, inStock);
+        counters.applyChange(null, inStock);
+        counters.applyChange(inStock, assigned);
+
+        AssetStatsResponse stats = counters.getStats();
+        assertThat(stats.getTotal()).isEqualTo(2);
+        assertThat(stats.getByStatus()).containsExactlyInAnyOrderEntriesOf(Map.of("IN_STOCK", 1L, "IN_USE", 1L));
+        assertThat(stats.getByCondition()).containsExactlyEntriesOf(Map.of("GOOD", 2L));
+        assertThat(stats.getByType()).containsExactlyEntriesOf(Map.of("1", 2L));
+        assertThat(stats.getByDepartment())
+                .containsExactlyInAnyOrderEntriesOf(Map.of(AssetStatsCounters.NONE, 1L, "4", 1L));
+
+        counters.applyChange(assigned, null);
+
+        assertThat(counters.getStats().getTotal()).isEqualTo(1);
+        assertThat(counters.getStats().getByDepartment()).doesNotContainKey("4");
+    }
+
+    @Test
+    void testReconcile_ShouldCorrectDrift() {
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+        when(assetRepository.countByStatus()).thenReturn(List.of(bucket(AssetStatus.IN_USE, 3)));
+        when(assetRepository.countByCondition()).thenReturn(List.of(bucket(AssetCondition.GOOD, 3)));
+        when(assetRepository.countByType()).thenReturn(List.of(bucket(2L, 3)));
+        when(assetRepository.countByDepartment()).thenReturn(List.of(bucket(null, 3)));
+        counters.applyChange(null, new AssetStatsCounters.Snapshot(AssetStatus.LOST, AssetCondition.LOST, 9L, 9L));
+
+        counters.reconcile();
+
+        AssetStatsResponse stats = counters.getStats();
+        assertThat(stats.getTotal()).isEqualTo(3);
+        assertThat(stats.getByStatus()).containsExactlyEntriesOf(Map.of("IN_USE", 3L));
+        assertThat(stats.getByType()).containsExactlyEntriesOf(Map.of("2", 3L));
+        assertThat(stats.getByDepartment()).containsExactlyEntriesOf(Map.of(AssetStatsCounters.NONE, 3L));
+        assertThat(stats.getReconciledAt()).isNotNull();
+        verifyNoInteractions(assetStatCountRepository);
+    }
+
+    @Test
+    void testReconcile_ShouldNotLoseAChangeThatCommitsWhileRecounting() {
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+        AssetStatsCounters.Snapshot inUse = new AssetStatsCounters.Snapshot(
+                AssetStatus.IN_USE, AssetCondition.GOOD, 2L, null);
+        counters.applyChange(null, inUse);
+        // the second asset commits just after the query ran, so only its counter has it
+        when(assetRepository.countByStatus()).thenAnswer(invocation -> {
+            counters.applyChange(null, inUse);
+            return List.of(bucket(AssetStatus.IN_USE, 1));
+        });
+        when(assetRepository.countByCondition()).thenReturn(List.of(bucket(AssetCondition.GOOD, 1)));
+        when(assetRepository.countByType()).thenReturn(List.of(bucket(2L, 1)));
+        when(assetRepository.countByDepartment()).thenReturn(List.of(bucket(null, 1)));
+
+        counters.reconcile();
+
+        assertThat(counters.getStats().getTotal()).isEqualTo(2);
+        assertThat(counters.getStats().getByStatus()).containsExactlyEntriesOf(Map.of("IN_USE", 2L));
+    }
+
+    @Test
+    void testReconcile_ShouldLeaveCountersOfAnOpenTransactionForTheNextRun() {
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+        when(assetRepository.countByStatus()).thenReturn(List.of(bucket(AssetStatus.IN_USE, 1)));
+        when(assetRepository.countByCondition()).thenReturn(List.of(bucket(AssetCondition.GOOD, 1)));
+        when(assetRepository.countByType()).thenReturn(List.of(bucket(2L, 1)));
+        when(assetRepository.countByDepartment()).thenReturn(List.of(bucket(null, 1)));
+        AssetStatsCounters.Snapshot inUse = new AssetStatsCounters.Snapshot(
+                AssetStatus.IN_USE, AssetCondition.GOOD, 2L, null);
+        counters.applyChange(null, inUse);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+                // a second asset the recount cannot see yet
+            counters.applyChange(null, inUse);
+            counters.reconcile();
+            assertThat(counters.getStats().getTotal()).isEqualTo(1);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(counters.getStats().getTotal()).isEqualTo(2);
+        assertThat(counters.getStats().getByStatus()).containsExactlyEntriesOf(Map.of("IN_USE", 2L));
+    }
+
+    private AssetRepository.BucketCount bucket(Object bucket, long total) {
+        return new AssetRepository.BucketCount() {
+            @Override
+            public Object getBucket() {
+                return bucket;
+            }
+
+            @Override
+            public long getTotal() {
+                return total;
+            }
+        };
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.demo.service.utilization;
+
+import com.example.demo.dto.asset.AssetUtilizationResponse;
+import com.example.demo.dto.asset.AssetUtilizationRow;
+import com.example.demo.dto.asset.UtilizationRollupResponse;
+import com.example.demo.entity.Asset;
+import com.example.demo.entity.AssetHistory;
+import com.example.demo.entity.AssetType;
+import com.example.demo.entity.Department;
+import com.example.demo.entity.User;
+import com.example.demo.enums.AssetHistoryAction;
+import com.example.demo.enums.AssetStatus;
+import com.example.demo.enums.UtilizationGroup;
+import com.example.demo.exception.DataNotFound;
+import com.example.demo.repository.AssetHistoryRepository;
+import com.example.demo.service.history.AssetHistoryArchive;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AssetUtilizationTest {
+
+    private static final Instant START = Instant.parse("2025-01-01T00:00:00Z");
+
+    @Mock
+    private AssetHistoryRepository assetHistoryRepository;
+
+    @Mock
+    private AssetHistoryArchive assetHistoryArchive;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private AssetUtilization utilization;
+    private long feedSeq;
+
+    @BeforeEach
+    void setUp() {
+        utilization = new AssetUtilization(assetHistoryRepository, assetHistoryArchive, transactionTemplate, 2);
+    }
+
+    @Test
+    void testOnWritten_ShouldAccumulateTimePerStatusAndGroup() {
+        Department sales = Department.builder().id(7L).build();
+        User owner = User.builder().id(5L).department(sales).build();
+        Asset asset = Asset.builder().id(12L).type(AssetType.builder().id(3L).build()).build();
+
+        record(asset, AssetHistoryAction.CREATED, AssetStatus.IN_STOCK, 0);
+        asset.setAssignedTo(owner);
+        record(asset, AssetHistoryAction.ASSIGNED, AssetStatus.IN_USE, 2);
+        // moving later does not take the time already spent along
+        owner.setDepartment(Department.builder().id(8L).build());
+        asset.setAssignedTo(null);
+        record(asset, AssetHistoryAction.RECLAIMED, AssetStatus.IN_STOCK, 8);
+        // an entry that leaves the status alone keeps the interval going
+        record(asset, AssetHistoryAction.EVALUATED, null, 9);
+        record(asset, AssetHistoryAction.UPDATED, AssetStatus.RETIRED, 10);
+
+        AssetUtilizationResponse single = utilization.getAssetUtilization(12L);
+        assertThat(single.getStatus()).isEqualTo(AssetStatus.RETIRED);
+        assertThat(single.getStatusSince()).isEqualTo(START.plus(Duration.ofDays(10)));
+        assertThat(single.getInUseDays()).isEqualTo(6);
+        assertThat(single.getIdleDays()).isEqualTo(4);
+        assertThat(single.getUtilization()).isEqualTo(60);
+
+        assertThat(utilization.getRollup(UtilizationGroup.TYPE)).singleElement().satisfies(type -> {
+            assertThat(type.getGroupId()).isEqualTo(3L);
+            assertThat(type.getAssetCount()).isEqualTo(1);
+            assertThat(type.getUtilization()).isEqualTo(60);
+        });
+        List<UtilizationRollupResponse> departments = utilization.getRollup(UtilizationGroup.DEPARTMENT);
+        assertThat(departments).extracting(UtilizationRollupResponse::getGroupId).containsExactly(null, 7L);
+        assertThat(departments.get(0).getIdleDays()).isEqualTo(4);
+        assertThat(departments.get(0).getAssetCount()).isEqualTo(1);
+        assertThat(departments.get(1).getInUseDays()).isEqualTo(6);
+        assertThat(departments.get(1).getAssetCount()).isZero();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testBackfill_ShouldReplayEachIdRangeAndThenFollowLiveEntries() {
+        doAnswer(invocation -> {
+            ((Consumer<Object>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        List<AssetUtilizationRow> stored = List.of(
+                row(1L, AssetStatus.IN_STOCK, 0), row(1L, AssetStatus.IN_USE, 1), row(1L, AssetStatus.LOST, 4),
+                row(5L, AssetStatus.IN_USE, 0), row(5L, AssetStatus.REPAIR, 1), row(5L, AssetStatus.RETIRED, 2));
+        when(assetHistoryRepository.findMaxFeedSeq()).thenReturn(6L);
+        when(assetHistoryRepository.findMaxAssetId()).thenReturn(5L);
+        when(assetHistoryRepository.streamUtilizationRows(anyLong(), anyLong(), eq(6L))).thenAnswer(invocation -> {
+            long fromId = invocation.getArgument(0);
+            long toId = invocation.getArgument(1);
+            return stored.stream().filter(row -> row.assetId() >= fromId && row.assetId() < toId);
+        });
+
+        utilization.backfill();
+
+        verify(assetHistoryRepository, times(2)).streamUtilizationRows(anyLong(), anyLong(), eq(6L));
+        assertThat(utilization.getAssetUtilization(1L).getUtilization()).isEqualTo(75);
+        assertThat(utilization.getAssetUtilization(5L).getRepairDays()).isEqualTo(1);
+        assertThat(utilization.getRollup(UtilizationGroup.TYPE)).singleElement().satisfies(type -> {
+            assertThat(type.getAssetCount()).isEqualTo(2);
+            assertThat(type.getInUseDays()).isEqualTo(4);
+            assertThat(type.getUtilization()).isEqualTo(66.7);
+        });
+
+        feedSeq = 6;
+        // already replayed, so it is not applied again
+        record(Asset.builder().id(1L).type(AssetType.builder().id(3L).build()).build(),
+                AssetHistoryAction.UPDATED, AssetStatus.IN_USE, 5, 6L);
+        record(Asset.builder().id(5L).type(AssetType.builder().id(3L).build()).build(),
+                AssetHistoryAction.DELETED, null, 6);
+
+        assertThat(utilization.getAssetUtilization(1L).getStatus()).isEqualTo(AssetStatus.LOST);
+
+        assertThatThrownBy(() -> utilization.getAssetUtilization(5L)).isInstanceOf(DataNotFound.class);
+        assertThat(utilization.getRollup(UtilizationGroup.TYPE)).singleElement()
+                .satisfies(type -> assertThat(type.getAssetCount()).isEqualTo(1));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testReconcile_ShouldSwapInAReplayAndKeepEntriesAppliedPastIt() {
+        doAnswer(invocation -> {
+            ((Consumer<Object>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(assetHistoryRepository.findMaxAssetId()).thenReturn(1L);
+        Asset asset = Asset.builder().id(1L).type(AssetType.builder().id(3L).build()).build();
+        record(asset, AssetHistoryAction.CREATED, AssetStatus.IN_STOCK, 0);
+        record(asset, AssetHistoryAction.ASSIGNED, AssetStatus.IN_USE, 1);
+        AssetHistory repaired = history(asset, AssetHistoryAction.UPDATED, AssetStatus.REPAIR, 3, 3L);
+        utilization.onWritten(List.of(repaired));
+        // the replay stops at position 2, and drifted: the table says the asset was in stock for two days
+        when(assetHistoryRepository.findMaxFeedSeq()).thenReturn(2L);
+        when(assetHistoryRepository.streamUtilizationRows(anyLong(), anyLong(), eq(2L))).thenAnswer(invocation ->
+                Stream.of(row(1L, AssetStatus.IN_STOCK, 0), row(1L, AssetStatus.IN_USE, 2)));
+        when(assetHistoryRepository.findFeedAfter(2L, Limit.of(500))).thenReturn(List.of(repaired));
+
+        utilization.reconcile();
+
+        AssetUtilizationResponse single = utilization.getAssetUtilization(1L);
+        assertThat(single.getStatus()).isEqualTo(AssetStatus.REPAIR);
+        assertThat(single.getIdleDays()).isEqualTo(2);
+        assertThat(single.getInUseDays()).isEqualTo(1);
+    }
+
+    @Test
+    void testOnWritten_ShouldReadPositionsItWasNotHandedFromTheTable() {
+        Asset asset = Asset.builder().id(1L).type(AssetType.builder().id(3L).build()).build();
+        AssetHistory created = history(asset, AssetHistoryAction.CREATED, AssetStatus.IN_STOCK, 0, 1L);
+        when(assetHistoryRepository.findFeedAfter(0L, Limit.of(500))).thenReturn(List.of(created));
+
+        record(asset, AssetHistoryAction.ASSIGNED, AssetStatus.IN_USE, 1, 2L);
+
+        assertThat(utilization.getAssetUtilization(1L).getIdleDays()).isEqualTo(1);
+    }
+
+    private void record(Asset asset, AssetHistoryAction action, AssetStatus newStatus, int day) {
+        record(asset, action, newStatus, day, ++feedSeq);
+    }
+
+    private void record(Asset asset, AssetHistoryAction action, AssetStatus newStatus, int day, long seq) {
+        utilization.onWritten(List.of(history(asset, action, newStatus, day, seq)));
+    }
+
+    private AssetHistory history(Asset asset, AssetHistoryAction action, AssetStatus newStatus, int day, long seq) {
+        return AssetHistory.builder()
+                .asset(asset)
+                .actionType(action)
+                .after(asset)
+                .newStatus(newStatus)
+                .performedAt(START.plus(Duration.ofDays(day)))
+                .feedSeq(seq)
+                .build();
+    }
+
+    private AssetUtilizationRow row(Long assetId, AssetStatus status, int day) {
+        return new AssetUtilizationRow(assetId, 3L, null, AssetHistoryAction.UPDATED, status,
+                START.plus(Duration.ofDays(day)));
+    }
+}